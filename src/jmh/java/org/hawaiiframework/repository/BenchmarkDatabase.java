@@ -0,0 +1,65 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * An in-memory H2 database with the tables the benchmarks read.
+ */
+final class BenchmarkDatabase {
+
+    /**
+     * The number of rows per table.
+     */
+    static final int ROW_COUNT = 10_000;
+
+    /**
+     * The number of value columns of the wide table.
+     */
+    static final int WIDE_COLUMN_COUNT = 40;
+
+    /**
+     * Utility constructor.
+     */
+    private BenchmarkDatabase() {
+        // Do nothing.
+    }
+
+    /**
+     * Create a database with a wide table {@code wide_row} of {@link #WIDE_COLUMN_COUNT} bigint columns {@code c1...},
+     * and a table {@code person} with columns of several types.
+     *
+     * @param name the name of the database.
+     * @return the template of the database.
+     */
+    static JdbcTemplate create(final String name) {
+        final JdbcTemplate template = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        final List<String> columns = wideColumnLabels();
+        template.execute("create table wide_row (id bigint primary key, "
+            + columns.stream().map(column -> column + " bigint").collect(Collectors.joining(", ")) + ")");
+        template.execute("insert into wide_row select x, " + columns.stream().map(column -> "x").collect(Collectors.joining(", "))
+            + " from system_range(1, " + ROW_COUNT + ")");
+        template.execute("create table person (id bigint primary key, first_name varchar(100), last_name varchar(100),"
+            + " age int, email varchar(200), birth_date date, active boolean, score decimal(10, 2))");
+        template.execute("insert into person select x, 'Jane', 'Doe', mod(x, 90), 'jane.doe@example.com',"
+            + " date '1980-01-01', true, x / 100.0 from system_range(1, " + ROW_COUNT + ")");
+        return template;
+    }
+
+    /**
+     * Gets the labels of the value columns of the wide table, in lower case as they are typically spelled in code.
+     *
+     * @return the column labels
+     */
+    static List<String> wideColumnLabels() {
+        final List<String> labels = new ArrayList<>(WIDE_COLUMN_COUNT);
+        IntStream.rangeClosed(1, WIDE_COLUMN_COUNT).forEach(column -> labels.add("c" + column));
+        return labels;
+    }
+}
@@ -0,0 +1,81 @@
+package org.hawaiiframework.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every column of a wide result set by label, through {@link ResultSetUtil} (a driver lookup per read) and through
+ * an {@link IndexedRowMapper} (labels resolved once per result set).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ColumnIndexBenchmark {
+
+    /**
+     * The query that selects all rows of the wide table.
+     */
+    private static final String SQL = "select * from wide_row";
+
+    /**
+     * The template of the benchmark database.
+     */
+    private JdbcTemplate template;
+
+    /**
+     * The labels of the columns to read.
+     */
+    private List<String> labels;
+
+    /**
+     * Create the benchmark database.
+     */
+    @Setup
+    public void setUp() {
+        template = BenchmarkDatabase.create("column_index");
+        labels = BenchmarkDatabase.wideColumnLabels();
+    }
+
+    /**
+     * Read by label through the driver.
+     *
+     * @return the sums of the rows.
+     */
+    @Benchmark
+    public List<Long> resultSetUtil() {
+        final RowMapper<Long> rowMapper = (resultSet, rowNum) -> {
+            long sum = 0;
+            for (final String label : labels) {
+                sum += ResultSetUtil.getLong(resultSet, label);
+            }
+            return sum;
+        };
+        return template.query(SQL, rowMapper);
+    }
+
+    /**
+     * Read by label through the column index.
+     *
+     * @return the sums of the rows.
+     */
+    @Benchmark
+    public List<Long> indexedRowMapper() {
+        return template.query(SQL, IndexedRowMapper.of((row, rowNum) -> {
+            long sum = 0;
+            for (final String label : labels) {
+                sum += row.getLong(label);
+            }
+            return sum;
+        }));
+    }
+}
@@ -0,0 +1,87 @@
+package org.hawaiiframework.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up a single row that exists (hit) or not (miss), through {@code queryForObject} catching the
+ * {@link EmptyResultDataAccessException} of a miss, as {@code getOpt} used to, and through the {@link SingleRowExtractor}
+ * of {@code getOptional}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OptionalLookupBenchmark {
+
+    /**
+     * The query that selects a person by id.
+     */
+    private static final String SQL = "select first_name from person where id = :id";
+
+    /**
+     * The row mapper.
+     */
+    private static final RowMapper<String> ROW_MAPPER = (resultSet, rowNum) -> resultSet.getString(1);
+
+    /**
+     * Whether the looked up row exists.
+     */
+    @Param({"hit", "miss"})
+    private String lookup;
+
+    /**
+     * The template of the benchmark database.
+     */
+    private NamedParameterJdbcTemplate template;
+
+    /**
+     * The parameters of the lookup.
+     */
+    private SqlParameterSource parameters;
+
+    /**
+     * Create the benchmark database.
+     */
+    @Setup
+    public void setUp() {
+        template = new NamedParameterJdbcTemplate(BenchmarkDatabase.create("optional_lookup_" + lookup));
+        parameters = new MapSqlParameterSource("id", "hit".equals(lookup) ? 1L : -1L);
+    }
+
+    /**
+     * Look up with an exception for a miss.
+     *
+     * @return the first name, or {@code null} for a miss.
+     */
+    @Benchmark
+    public String queryForObject() {
+        try {
+            return template.queryForObject(SQL, parameters, ROW_MAPPER);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Look up without an exception for a miss.
+     *
+     * @return the first name, or {@code null} for a miss.
+     */
+    @Benchmark
+    public String singleRowExtractor() {
+        return template.query(SQL, parameters, new SingleRowExtractor<>(ROW_MAPPER));
+    }
+}
@@ -0,0 +1,151 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.mapping.GeneratedRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps the rows of a table to beans through Spring's reflective {@link BeanPropertyRowMapper} and through a
+ * {@link GeneratedRowMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RowMapperBenchmark {
+
+    /**
+     * The query that selects all persons.
+     */
+    private static final String SQL = "select * from person";
+
+    /**
+     * The template of the benchmark database.
+     */
+    private JdbcTemplate template;
+
+    /**
+     * Create the benchmark database.
+     */
+    @Setup
+    public void setUp() {
+        template = BenchmarkDatabase.create("row_mapper");
+    }
+
+    /**
+     * Map with reflection per row.
+     *
+     * @return the persons.
+     */
+    @Benchmark
+    public List<Person> beanPropertyRowMapper() {
+        return template.query(SQL, BeanPropertyRowMapper.newInstance(Person.class));
+    }
+
+    /**
+     * Map with the generated mapping plan.
+     *
+     * @return the persons.
+     */
+    @Benchmark
+    public List<Person> generatedRowMapper() {
+        return template.query(SQL, GeneratedRowMapper.of(Person.class));
+    }
+
+    /**
+     * The bean to map the rows to.
+     */
+    public static class Person {
+
+        private Long id;
+
+        private String firstName;
+
+        private String lastName;
+
+        private int age;
+
+        private String email;
+
+        private Date birthDate;
+
+        private Boolean active;
+
+        private BigDecimal score;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(final Long id) {
+            this.id = id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public void setFirstName(final String firstName) {
+            this.firstName = firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public void setLastName(final String lastName) {
+            this.lastName = lastName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(final int age) {
+            this.age = age;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(final String email) {
+            this.email = email;
+        }
+
+        public Date getBirthDate() {
+            return birthDate;
+        }
+
+        public void setBirthDate(final Date birthDate) {
+            this.birthDate = birthDate;
+        }
+
+        public Boolean getActive() {
+            return active;
+        }
+
+        public void setActive(final Boolean active) {
+            this.active = active;
+        }
+
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public void setScore(final BigDecimal score) {
+            this.score = score;
+        }
+    }
+}
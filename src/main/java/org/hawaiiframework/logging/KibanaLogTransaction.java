@@ -3,33 +3,78 @@ package org.hawaiiframework.logging;
 import org.apache.commons.lang3.StringUtils;
 import org.hawaiiframework.logging.model.KibanaLogFieldNames;
 import org.hawaiiframework.logging.model.KibanaLogFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import static org.hawaiiframework.logging.model.KibanaLogFieldNames.TX_ID;
 
 /**
  * Auto closeable utility to start a new transaction.
+ * <p>
+ * A listener that fails is logged and skipped: it neither keeps the other listeners from being notified nor fails the
+ * transaction.
  */
 public class KibanaLogTransaction implements AutoCloseable {
 
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(KibanaLogTransaction.class);
+
+    /**
+     * The listeners to notify of outermost transactions.
+     */
+    private static final List<KibanaLogTransactionListener> LISTENERS = new CopyOnWriteArrayList<>();
+
     /**
      * Flag to indicate that there is already a transaction going on.
      */
     private final boolean hasTx;
 
+    /**
+     * The transaction id.
+     */
+    private final String txId;
+
     /**
      * Start a new log transaction.
      *
      * @param transactionType The transaction type.
      */
     public KibanaLogTransaction(final String transactionType) {
-        final String txId = KibanaLogFields.get(TX_ID);
-        hasTx = StringUtils.isNotBlank(txId);
+        final String currentTxId = KibanaLogFields.get(TX_ID);
+        hasTx = StringUtils.isNotBlank(currentTxId);
+        txId = hasTx ? currentTxId : createTxId();
         if (!hasTx) {
-            KibanaLogFields.tag(TX_ID, createTxId());
+            KibanaLogFields.tag(TX_ID, txId);
         }
         KibanaLogFields.tag(KibanaLogFieldNames.TX_TYPE, transactionType);
+        if (!hasTx) {
+            notifyListeners(listener -> listener.onStart(txId, transactionType));
+        }
+    }
+
+    /**
+     * Register a listener that is notified when an outermost transaction starts and closes.
+     *
+     * @param listener the listener.
+     */
+    public static void addListener(final KibanaLogTransactionListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Remove a registered listener.
+     *
+     * @param listener the listener.
+     */
+    public static void removeListener(final KibanaLogTransactionListener listener) {
+        LISTENERS.remove(listener);
     }
 
     /**
@@ -38,7 +83,22 @@ public class KibanaLogTransaction implements AutoCloseable {
     @Override
     public void close() {
         if (!hasTx) {
-            KibanaLogFields.clear();
+            try {
+                notifyListeners(listener -> listener.onClose(txId));
+            } finally {
+                KibanaLogFields.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings({"PMD.AvoidCatchingGenericException", "PMD.LawOfDemeter"})
+    private static void notifyListeners(final Consumer<KibanaLogTransactionListener> notification) {
+        for (final KibanaLogTransactionListener listener : LISTENERS) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Log transaction listener '{}' failed.", listener.getClass().getName(), e);
+            }
         }
     }
 
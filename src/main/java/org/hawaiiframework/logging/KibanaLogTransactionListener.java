@@ -0,0 +1,25 @@
+package org.hawaiiframework.logging;
+
+/**
+ * Listener that is notified when an outermost {@link KibanaLogTransaction} starts and closes.
+ * <p>
+ * Listeners are called on the thread that opens and closes the transaction, while the transaction's log fields are still
+ * set, so anything they log is part of the transaction.
+ */
+public interface KibanaLogTransactionListener {
+
+    /**
+     * Called when a transaction has started.
+     *
+     * @param txId            the transaction id.
+     * @param transactionType the transaction type.
+     */
+    void onStart(String txId, String transactionType);
+
+    /**
+     * Called when a transaction is about to close.
+     *
+     * @param txId the transaction id.
+     */
+    void onClose(String txId);
+}
@@ -0,0 +1,64 @@
+package org.hawaiiframework.logging;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor that runs tasks with the MDC of the thread that submitted them, so that the Kibana log fields of the current
+ * transaction are carried over to the worker threads.
+ * <p>
+ * The MDC of the worker thread is restored once the task is done.
+ */
+public class MdcPropagatingExecutor implements Executor {
+
+    /**
+     * The executor to run the tasks on.
+     */
+    private final Executor delegate;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate the executor to run the tasks on.
+     */
+    public MdcPropagatingExecutor(final Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(final Runnable command) {
+        delegate.execute(wrap(command));
+    }
+
+    /**
+     * Wrap the task, so that it runs with the current MDC.
+     *
+     * @param task the task.
+     * @return the wrapped task.
+     */
+    public static Runnable wrap(final Runnable task) {
+        final Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            final Map<String, String> previous = MDC.getCopyOfContextMap();
+            setContext(context);
+            try {
+                task.run();
+            } finally {
+                setContext(previous);
+            }
+        };
+    }
+
+    private static void setContext(final Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
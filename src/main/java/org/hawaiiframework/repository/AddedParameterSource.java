@@ -0,0 +1,76 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+/**
+ * Parameter source that adds one parameter to the parameters of a query.
+ */
+final class AddedParameterSource implements SqlParameterSource {
+
+    /**
+     * The parameters of the query.
+     */
+    private final SqlParameterSource parameters;
+
+    /**
+     * The name of the added parameter.
+     */
+    private final String name;
+
+    /**
+     * The value of the added parameter.
+     */
+    private final Object value;
+
+    /**
+     * The SQL type of the added parameter.
+     */
+    private final int sqlType;
+
+    /**
+     * Constructor.
+     *
+     * @param parameters the parameters of the query.
+     * @param name       the name of the added parameter.
+     * @param value      the value of the added parameter.
+     * @param sqlType    the SQL type of the added parameter, or {@link #TYPE_UNKNOWN}.
+     */
+    AddedParameterSource(final SqlParameterSource parameters, final String name, final Object value, final int sqlType) {
+        this.parameters = parameters;
+        this.name = name;
+        this.value = value;
+        this.sqlType = sqlType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasValue(final String paramName) {
+        return name.equals(paramName) || parameters.hasValue(paramName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getValue(final String paramName) {
+        return name.equals(paramName) ? value : parameters.getValue(paramName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSqlType(final String paramName) {
+        return name.equals(paramName) ? sqlType : parameters.getSqlType(paramName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getTypeName(final String paramName) {
+        return name.equals(paramName) ? null : parameters.getTypeName(paramName);
+    }
+}
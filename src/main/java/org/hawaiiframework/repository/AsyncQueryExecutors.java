@@ -0,0 +1,77 @@
+package org.hawaiiframework.repository;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Factory for executors to run asynchronous repository queries on.
+ */
+public final class AsyncQueryExecutors {
+
+    /**
+     * The time idle threads are kept alive, in seconds.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * Utility constructor.
+     */
+    private AsyncQueryExecutors() {
+        // Do nothing.
+    }
+
+    /**
+     * Create a bounded executor.
+     * <p>
+     * The executor runs at most {@code poolSize} queries at the same time, which should not exceed the size of the
+     * connection pool, and queues at most {@code queueCapacity} queries. When the queue is full the executor rejects the
+     * query, so callers fail fast instead of running queries on their own thread; queries started through
+     * {@link #supplyAsync(Supplier, Executor)} then get a future that completed with the
+     * {@link RejectedExecutionException}. Idle threads time out, so an idle executor holds no threads.
+     *
+     * @param name          the name of the executor, used as prefix of the thread names.
+     * @param poolSize      the maximum number of threads.
+     * @param queueCapacity the maximum number of queued queries.
+     * @return the executor.
+     */
+    public static ExecutorService newBoundedExecutor(final String name, final int poolSize, final int queueCapacity) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Run a lookup on the executor.
+     *
+     * @param lookup   the lookup.
+     * @param executor the executor.
+     * @param <T>      the type to return.
+     * @return the future of the value returned by the lookup, completed exceptionally if the lookup fails or the executor
+     *         rejects it.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final Supplier<T> lookup, final Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(lookup, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
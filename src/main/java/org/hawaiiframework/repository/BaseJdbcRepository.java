@@ -1,5 +1,8 @@
 package org.hawaiiframework.repository;
 
+import org.hawaiiframework.logging.MdcPropagatingExecutor;
+import org.hawaiiframework.repository.cache.InvalidationPublisher;
+import org.hawaiiframework.repository.cache.QueryResultCache;
 import org.hawaiiframework.sql.SqlQueryResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,18 +11,41 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Base class for JDBC repositories.
  * <p>
  * Contains the SQL query resolver and methods to obtain Spring JDBC templates.
+ * <p>
+ * A repository can be constructed with read replicas, in which case the reads ({@code get}, {@code getOpt}, {@code getList},
+ * streams) go to the replicas and the updates to the primary. Reads inside an active transaction, and reads wrapped in
+ * {@link #onPrimary(Supplier)}, go to the primary as well.
+ * <p>
+ * Reads beyond single rows and lists are grouped in query helpers that share the repository's data sources, profiles and
+ * query cache: {@link #cursorQueries()} for streaming, {@link #jsonQueries()}, {@link #lobQueries()},
+ * {@link #pagedQueries()}, {@link #partitionedQueries()} and {@link #keyQueries()}.
  */
+@SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:classdataabstractioncoupling", "PMD.ExcessiveClassLength",
+    "PMD.GodClass", "PMD.TooManyMethods"})
 public class BaseJdbcRepository {
 
     /**
@@ -27,25 +53,80 @@ public class BaseJdbcRepository {
      */
     private static final String COULD_NOT_FIND_A_RESULT_FOR = "Could not find a result for '{}'.";
 
+    /**
+     * The String "Error performing '{}'." appears more than once in the file. [MultipleStringLiterals].
+     */
+    private static final String ERROR_PERFORMING = "Error performing '{}'.";
+
+    /**
+     * The message for lookups that need the executor for asynchronous queries, when it has not been set.
+     */
+    private static final String NO_ASYNC_EXECUTOR = "No executor for asynchronous queries has been set.";
+
     /**
      * The logger to use.
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseJdbcRepository.class);
 
     /**
-     * The SQL query resolver.
+     * The default number of statements per chunk for batch updates.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * The runner of the queries, shared with the query helpers.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * The lookups served from the optional result cache.
+     */
+    private final CachedReads cachedReads = new CachedReads();
+
+    /**
+     * The publisher of the invalidation events of the updates.
+     */
+    private final UpdateInvalidation invalidation = new UpdateInvalidation();
+
+    /**
+     * The executor of the batch updates.
+     */
+    private final BatchUpdates batchUpdates;
+
+    /**
+     * The streaming reads.
+     */
+    private final CursorQueries cursorReads;
+
+    /**
+     * The reads that write the rows as JSON.
+     */
+    private final JsonQueries jsonReads;
+
+    /**
+     * The reads that copy a LOB value.
+     */
+    private final LobQueries lobReads;
+
+    /**
+     * The keyset-paginated reads.
      */
-    private final SqlQueryResolver queryResolver;
+    private final PagedQueries pagedReads;
 
     /**
-     * The JDBC Template that sub-classes can use.
+     * The partitioned reads of key ranges.
      */
-    private final JdbcTemplate aJdbcTemplate;
+    private final PartitionedQueries partitionedReads;
 
     /**
-     * The JDBC Template with named query parameters that sub-classes can use.
+     * The reads of collections of keys.
      */
-    private final NamedParameterJdbcTemplate aNamedParameterJdbcTemplate;
+    private final KeyQueries keyReads;
+
+    /**
+     * The executor for asynchronous queries.
+     */
+    private Executor asyncExecutor;
 
     /**
      * Constructor with a query resolver and a data source.
@@ -54,38 +135,190 @@ public class BaseJdbcRepository {
      * @param dataSource    The datasource to use.
      */
     public BaseJdbcRepository(final SqlQueryResolver queryResolver, final DataSource dataSource) {
-        this.queryResolver = queryResolver;
-        this.aJdbcTemplate = new JdbcTemplate(dataSource);
-        this.aNamedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this(queryResolver, dataSource, null);
+    }
+
+    /**
+     * Constructor with a query resolver, a primary data source and read replicas.
+     *
+     * @param queryResolver The SQL query resolver.
+     * @param primary       The data source for updates, and for reads in transactions.
+     * @param replicas      The data sources for reads, at least one.
+     * @param selection     The strategy to select the replica for a read.
+     */
+    public BaseJdbcRepository(final SqlQueryResolver queryResolver, final DataSource primary, final List<DataSource> replicas,
+            final ReplicaSelection selection) {
+        this(queryResolver, primary, new ReplicaDataSource(replicas, Objects.requireNonNull(selection)));
+    }
+
+    private BaseJdbcRepository(final SqlQueryResolver queryResolver, final DataSource primary, final DataSource replicas) {
+        this.runner = new QueryRunner(queryResolver, primary, replicas);
+        this.batchUpdates = new BatchUpdates(runner, invalidation);
+        this.cursorReads = new CursorQueries(runner);
+        this.jsonReads = new JsonQueries(runner, cursorReads);
+        this.lobReads = new LobQueries(runner);
+        this.pagedReads = new PagedQueries(runner);
+        this.partitionedReads = new PartitionedQueries(runner, cursorReads, this::getAsyncExecutor);
+        this.keyReads = new KeyQueries(runner);
     }
 
     /**
      * Use the {@link SqlQueryResolver} to resolve the given query.
+     * <p>
+     * Queries are resolved and parsed once, and then served from the query cache.
      *
      * @param sqlQueryName the name of the query to resolve from the path.
      * @return the query string.
      */
     protected String resolveQuery(final String sqlQueryName) {
-        LOGGER.debug("Resolving query '{}'.", sqlQueryName);
-        return queryResolver.resolveSqlQuery(sqlQueryName);
+        return runner.sql(sqlQueryName);
+    }
+
+    /**
+     * Resolve and parse the given queries up front, typically from the sub-class' constructor.
+     * <p>
+     * This moves the cost of loading the queries to startup, and makes the application fail fast on missing or broken
+     * queries.
+     *
+     * @param sqlQueryNames the names of the queries to preload.
+     * @throws IllegalStateException if one of the queries cannot be resolved or parsed.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    protected void preloadQueries(final String... sqlQueryNames) {
+        runner.getQueryCache().preload(Arrays.asList(sqlQueryNames));
+    }
+
+    /**
+     * Remove all resolved queries from the query cache, so that they are resolved again on next use.
+     * <p>
+     * Intended for development setups that reload the SQL files.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    protected void invalidateQueryCache() {
+        runner.getQueryCache().invalidateAll();
+    }
+
+    /**
+     * Resolve the named queries and prepare each of them once, to take the cost of loading, parsing and preparing the
+     * queries before the first requests come in.
+     * <p>
+     * The queries are those preloaded with {@link #preloadQueries(String...)} and those used so far; query resolvers cannot
+     * enumerate their queries. Each query is prepared on a pooled connection of the primary, and of each replica if there
+     * are, and its statement meta data is requested, which makes most drivers have the database parse the statement.
+     *
+     * @return the report with the prepare time per query.
+     * @throws IllegalStateException if there are no queries to prepare, or if one or more queries cannot be prepared; all
+     *                               failures are reported.
+     * @see QueryWarmUp
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    protected QueryWarmUpReport warmUp() {
+        return QueryPreparer.warmUp(getClass().getSimpleName(), runner);
+    }
+
+    /**
+     * Set the cache for the results of {@code get} and {@code getOpt} lookups.
+     * <p>
+     * Only queries for which the cache has a region configured are cached. Results are cached by query name plus parameter
+     * values, so the parameter sources of cached queries must be able to enumerate their parameter names (such as
+     * {@link org.springframework.jdbc.core.namedparam.MapSqlParameterSource}); other lookups bypass the cache. Cached
+     * results are shared between callers, so they should not be modified.
+     *
+     * @param resultCache the result cache, or {@code null} to disable result caching.
+     */
+    protected void setResultCache(final QueryResultCache resultCache) {
+        cachedReads.setResultCache(resultCache);
+    }
+
+    /**
+     * Set the executor for asynchronous queries, such as {@link #getOptAsync(String, SqlParameterSource, RowMapper)}.
+     * <p>
+     * The executor should be bounded and dedicated to queries, with no more threads than the connection pool has
+     * connections; for instance an executor configured with hawaii-async, or one created by
+     * {@link AsyncQueryExecutors#newBoundedExecutor(String, int, int)}. The Kibana log fields of the calling thread are
+     * carried over to the executor's threads.
+     *
+     * @param asyncExecutor the executor.
+     */
+    protected void setAsyncExecutor(final Executor asyncExecutor) {
+        this.asyncExecutor = new MdcPropagatingExecutor(asyncExecutor);
+    }
+
+    /**
+     * Set the publisher of invalidation events, that is notified of each successful update and batch update.
+     * <p>
+     * Inside a transaction the event is published after commit, so listeners never evict ahead of the change and nothing
+     * is published for a rollback. Connect the publisher to a {@link org.hawaiiframework.repository.cache.RedisInvalidationChannel}
+     * to notify the caches on all nodes, and add a {@link org.hawaiiframework.repository.cache.QueryResultCacheInvalidator}
+     * to evict the cached results that an update changes.
+     *
+     * @param invalidationPublisher the publisher, or {@code null} to publish no events.
+     * @see #setInvalidationKey(String, String)
+     */
+    protected void setInvalidationPublisher(final InvalidationPublisher invalidationPublisher) {
+        invalidation.setPublisher(invalidationPublisher);
+    }
+
+    /**
+     * Set the parameter of an update query that holds the key of the changed row, so that its invalidation events carry
+     * the changed keys. Without a key parameter, or if a statement does not bind it, the events of the query carry no keys,
+     * which means that any row may have changed.
+     *
+     * @param query        the update query.
+     * @param keyParameter the name of the key parameter; a collection value is read as multiple keys.
+     */
+    protected void setInvalidationKey(final String query, final String keyParameter) {
+        invalidation.setKeyParameter(query, keyParameter);
+    }
+
+    /**
+     * Set the execution profiles of the queries, that are applied to the statements of the named queries.
+     *
+     * @param queryProfiles the profiles, for instance loaded with {@link QueryProfiles#load(org.springframework.core.io.Resource)}.
+     */
+    protected void setQueryProfiles(final QueryProfiles queryProfiles) {
+        runner.setQueryProfiles(queryProfiles);
+    }
+
+    /**
+     * Gets the execution profiles of the queries.
+     *
+     * @return queryProfiles value
+     */
+    protected QueryProfiles getQueryProfiles() {
+        return runner.getQueryProfiles();
     }
 
     /**
      * @return the JDBC template.
      */
     protected JdbcTemplate jdbcTemplate() {
-        return aJdbcTemplate;
+        return runner.getJdbcTemplate();
     }
 
     /**
      * @return the named parameter template.
      */
     protected NamedParameterJdbcTemplate namedParameterJdbcTemplate() {
-        return aNamedParameterJdbcTemplate;
+        return runner.getNamedParameterJdbcTemplate();
+    }
+
+    /**
+     * Perform the reads of the action on the primary, for instance to read data that was just written (read-your-writes).
+     *
+     * @param action the action to perform.
+     * @param <T>    the type to return.
+     * @return the value returned by the action.
+     */
+    protected <T> T onPrimary(final Supplier<T> action) {
+        return runner.onPrimary(action);
     }
 
     /**
      * Method to handle an EmptyResultDataAccessException using a row mapper.
+     * <p>
+     * The not-found case no longer raises an exception internally, see
+     * {@link #getOptional(String, SqlParameterSource, RowMapper)}.
      *
      * @param query      query to use.
      * @param parameters parameters to add to the query.
@@ -93,13 +326,9 @@ public class BaseJdbcRepository {
      * @param <T>        the type to return.
      * @return the requested type or null in case of an EmptyResultDataAccessException.
      */
+    @SuppressWarnings("PMD.LawOfDemeter")
     protected <T> T getOpt(final String query, final SqlParameterSource parameters, final RowMapper<T> rowMapper) {
-        try {
-            return aNamedParameterJdbcTemplate.queryForObject(resolveQuery(query), parameters, rowMapper);
-        } catch (EmptyResultDataAccessException e) {
-            LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
-        }
-        return null;
+        return getOptional(query, parameters, rowMapper).orElse(null);
     }
 
     /**
@@ -111,13 +340,9 @@ public class BaseJdbcRepository {
      * @param <T>          the type to return.
      * @return the requested type or null in case of an EmptyResultDataAccessException.
      */
+    @SuppressWarnings("PMD.LawOfDemeter")
     protected <T> T getOpt(final String query, final SqlParameterSource parameters, final Class<T> requiredType) {
-        try {
-            return aNamedParameterJdbcTemplate.queryForObject(resolveQuery(query), parameters, requiredType);
-        } catch (EmptyResultDataAccessException e) {
-            LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
-        }
-        return null;
+        return getOptional(query, parameters, requiredType).orElse(null);
     }
 
     /**
@@ -130,12 +355,179 @@ public class BaseJdbcRepository {
      * @return the requested type or null in case of an EmptyResultDataAccessException.
      */
     protected <T> T getOpt(final String query, final SqlParameterSource parameters, final ResultSetExtractor<T> extractor) {
-        try {
-            return aNamedParameterJdbcTemplate.query(resolveQuery(query), parameters, extractor);
-        } catch (EmptyResultDataAccessException e) {
+        return cachedReads.get(query, CachedReads.shapeOf(extractor), parameters, () -> {
+            try {
+                return runner.read(query, () -> runner.readTemplate().query(resolveQuery(query), parameters, extractor));
+            } catch (EmptyResultDataAccessException e) {
+                LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Look up the single row of the query, without using an exception for the not-found case.
+     * <p>
+     * At most two rows are read, so a query that unexpectedly matches many rows does not read them all.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type to return.
+     * @return the mapped row, or empty if there is no row or the row mapper returns {@code null}.
+     * @throws org.springframework.dao.IncorrectResultSizeDataAccessException if the query returns more than one row.
+     */
+    protected <T> Optional<T> getOptional(final String query, final SqlParameterSource parameters, final RowMapper<T> rowMapper) {
+        return getOptional(query, CachedReads.shapeOf(rowMapper), parameters, rowMapper);
+    }
+
+    /**
+     * Look up the single row of the query with the given result shape.
+     *
+     * @param query      query to use.
+     * @param shape      the shape of the result, which tells apart the cached results of different row mappers.
+     * @param parameters parameters to add to the query.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type to return.
+     * @return the mapped row, or empty if there is no row or the row mapper returns {@code null}.
+     */
+    private <T> Optional<T> getOptional(final String query, final String shape, final SqlParameterSource parameters,
+            final RowMapper<T> rowMapper) {
+        final T result = cachedReads.get(query, shape, parameters, () -> runner.read(query,
+            () -> runner.readTemplate().query(resolveQuery(query), parameters, new SingleRowExtractor<>(rowMapper))));
+        if (result == null) {
             LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
         }
-        return null;
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Look up the single value of the query, without using an exception for the not-found case.
+     *
+     * @param query        query to use.
+     * @param parameters   parameters to add to the query.
+     * @param requiredType the required type for the query, which must select a single column.
+     * @param <T>          the type to return.
+     * @return the value, or empty if there is no row or the value is SQL {@code NULL}.
+     * @throws org.springframework.dao.IncorrectResultSizeDataAccessException if the query returns more than one row.
+     * @see #getOptional(String, SqlParameterSource, RowMapper)
+     */
+    protected <T> Optional<T> getOptional(final String query, final SqlParameterSource parameters, final Class<T> requiredType) {
+        return getOptional(query, CachedReads.shapeOf(requiredType), parameters, SingleColumnRowMapper.newInstance(requiredType));
+    }
+
+    /**
+     * Look up the result of the query through a result set extractor, without using an exception for the not-found case.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param extractor  result set extractor to use, which should return {@code null} if it finds no result.
+     * @param <T>        the type to return.
+     * @return the result, or empty if the extractor returns {@code null}.
+     */
+    protected <T> Optional<T> getOptional(final String query, final SqlParameterSource parameters,
+            final ResultSetExtractor<T> extractor) {
+        final T result = cachedReads.get(query, CachedReads.shapeOf(extractor), parameters,
+            () -> runner.read(query, () -> runner.readTemplate().query(resolveQuery(query), parameters, extractor)));
+        if (result == null) {
+            LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Asynchronous variant of {@link #getOpt(String, SqlParameterSource, RowMapper)}.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type to return.
+     * @return the future of the requested type, completed with null if there is no result.
+     * @see #supplyAsync(Supplier)
+     */
+    protected <T> CompletableFuture<T> getOptAsync(final String query, final SqlParameterSource parameters,
+            final RowMapper<T> rowMapper) {
+        return supplyAsync(() -> getOpt(query, parameters, rowMapper));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getOpt(String, SqlParameterSource, Class)}.
+     *
+     * @param query        query to use.
+     * @param parameters   parameters to add to the query.
+     * @param requiredType the required type for the query.
+     * @param <T>          the type to return.
+     * @return the future of the requested type, completed with null if there is no result.
+     * @see #supplyAsync(Supplier)
+     */
+    protected <T> CompletableFuture<T> getOptAsync(final String query, final SqlParameterSource parameters,
+            final Class<T> requiredType) {
+        return supplyAsync(() -> getOpt(query, parameters, requiredType));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getList(String, SqlParameterSource, RowMapper)}.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type to return.
+     * @return the future of the list of mapped rows.
+     * @see #supplyAsync(Supplier)
+     */
+    protected <T> CompletableFuture<List<T>> getListAsync(final String query, final SqlParameterSource parameters,
+            final RowMapper<T> rowMapper) {
+        return supplyAsync(() -> getList(query, parameters, rowMapper));
+    }
+
+    /**
+     * Run a lookup on the executor for asynchronous queries, so that independent lookups run in parallel.
+     * <p>
+     * The lookup runs on another thread, so outside of the caller's transaction. A lookup started within
+     * {@link #onPrimary(Supplier)} reads from the primary.
+     *
+     * @param lookup the lookup.
+     * @param <T>    the type to return.
+     * @return the future of the value returned by the lookup, completed exceptionally if the lookup fails or the executor
+     *         rejects it.
+     * @throws IllegalStateException if no executor for asynchronous queries has been set.
+     * @see #setAsyncExecutor(Executor)
+     */
+    protected <T> CompletableFuture<T> supplyAsync(final Supplier<T> lookup) {
+        return AsyncQueryExecutors.supplyAsync(runner.inheritPrimary(lookup), getAsyncExecutor());
+    }
+
+    /**
+     * Create a loader that coalesces concurrent lookups by key into one query per batch.
+     * <p>
+     * The query selects the rows of a list of keys, for instance {@code select * from person where id in (:ids)}, with
+     * {@code keysParameter} the name of the list parameter. Each row must be the only row of its key, and the key that
+     * {@code keyOf} extracts from a row must equal the key that was looked up (mind {@code Integer} versus {@code Long}).
+     * Batches are loaded on the executor for asynchronous queries, so keep the maximum batch size within the limits of
+     * the database for {@code IN} lists.
+     *
+     * @param query         query to use.
+     * @param keysParameter the name of the parameter that holds the keys of a batch.
+     * @param rowMapper     the row mapper to use.
+     * @param keyOf         the function that extracts the key from a mapped row.
+     * @param window        the time to collect keys for a batch.
+     * @param maxBatchSize  the maximum number of distinct keys per batch.
+     * @param <K>           the type of the keys.
+     * @param <V>           the type of the rows.
+     * @return the loader.
+     * @throws IllegalStateException if no executor for asynchronous queries has been set.
+     * @see #setAsyncExecutor(Executor)
+     */
+    protected <K, V> BatchingLoader<K, V> batchingLoader(final String query, final String keysParameter,
+            final RowMapper<V> rowMapper, final Function<V, K> keyOf, final Duration window, final int maxBatchSize) {
+        final Executor executor = getAsyncExecutor();
+        return new BatchingLoader<>(keys -> {
+            final Map<K, V> values = new HashMap<>();
+            for (final V row : getList(query, new MapSqlParameterSource(keysParameter, keys), rowMapper)) {
+                values.put(keyOf.apply(row), row);
+            }
+            return values;
+        }, executor, window, maxBatchSize);
     }
 
     /**
@@ -160,12 +552,14 @@ public class BaseJdbcRepository {
      * @return the requested type or an EmptyResultDataAccessException.
      */
     protected <T> T get(final String query, final SqlParameterSource parameters, final RowMapper<T> rowMapper) {
-        try {
-            return aNamedParameterJdbcTemplate.queryForObject(resolveQuery(query), parameters, rowMapper);
-        } catch (EmptyResultDataAccessException e) {
-            LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
-            throw e;
-        }
+        return cachedReads.getRequired(query, CachedReads.shapeOf(rowMapper), parameters, () -> {
+            try {
+                return runner.read(query, () -> runner.readTemplate().queryForObject(resolveQuery(query), parameters, rowMapper));
+            } catch (EmptyResultDataAccessException e) {
+                LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
+                throw e;
+            }
+        });
     }
 
     /**
@@ -177,12 +571,115 @@ public class BaseJdbcRepository {
      * @throws DataAccessException if there is any problem issuing the update
      */
     protected int update(final String query, final SqlParameterSource parameters) {
+        final int rowsAffected;
         try {
-            return aNamedParameterJdbcTemplate.update(resolveQuery(query), parameters);
+            rowsAffected = runner.write(query, () -> runner.getNamedParameterJdbcTemplate().update(resolveQuery(query), parameters));
         } catch (DataAccessException e) {
-            LOGGER.debug("Error performing '{}'.", query);
+            LOGGER.debug(ERROR_PERFORMING, query);
             throw e;
         }
+        invalidation.publish(query, parameters);
+        return rowsAffected;
+    }
+
+    /**
+     * Perform the 'update' query (insert, update, delete), and evict the cached results of the given queries.
+     *
+     * @param query        query to use.
+     * @param parameters   parameters to add to the query.
+     * @param evictQueries the names of the queries whose cached results are invalidated by the update.
+     * @return the number of rows affected
+     * @throws DataAccessException if there is any problem issuing the update
+     * @see #setResultCache(QueryResultCache)
+     */
+    protected int update(final String query, final SqlParameterSource parameters, final String... evictQueries) {
+        final int rowsAffected = update(query, parameters);
+        cachedReads.evictRegions(evictQueries);
+        return rowsAffected;
+    }
+
+    /**
+     * Load the query into an in-memory reference table, indexed by primary key, that is refreshed periodically.
+     * <p>
+     * Meant for small tables that are read far more often than they change, such as country or status codes: lookups are
+     * served from memory without locking, and changes become visible within one refresh interval. To add secondary indexes,
+     * create the {@link ReferenceTable} directly and add the indexes before loading it. Close the table on shutdown to stop
+     * the refreshes; as a Spring bean, this happens automatically.
+     *
+     * @param query           query to use, selecting all rows.
+     * @param rowMapper       the row mapper to use.
+     * @param keyOf           the function that extracts the primary key from a row.
+     * @param refreshInterval the time between refreshes.
+     * @param <K>             the type of the primary key.
+     * @param <V>             the type of the rows.
+     * @return the loaded table.
+     * @throws IllegalStateException if two rows have the same primary key.
+     */
+    protected <K, V> ReferenceTable<K, V> referenceTable(final String query, final RowMapper<V> rowMapper,
+            final Function<V, K> keyOf, final Duration refreshInterval) {
+        return new ReferenceTable<>(query, () -> getList(query, EmptySqlParameterSource.INSTANCE, rowMapper), keyOf)
+            .refreshEvery(refreshInterval);
+    }
+
+    /**
+     * Create a write-behind buffer for the 'update' query, that collects keyed updates and writes them in batches.
+     * <p>
+     * Meant for high-volume data that may be lost, such as last-seen timestamps: updates that are pending when the
+     * application stops abruptly are lost, and a batch that fails is dropped. Close the buffer on shutdown to write the
+     * pending updates; as a Spring bean, this happens automatically.
+     *
+     * @param query    query to use.
+     * @param settings the settings of the buffer.
+     * @return the buffer.
+     * @see WriteBehindBuffer
+     */
+    protected WriteBehindBuffer writeBehind(final String query, final WriteBehindSettings settings) {
+        return new WriteBehindBuffer(query, updates -> batchUpdate(query, updates, settings.getBatchSize()), settings);
+    }
+
+    /**
+     * Perform the 'update' query for each of the parameter sources, in chunks of the default batch size.
+     *
+     * @param query      query to use.
+     * @param parameters the parameter sources, one per statement.
+     * @return the row counts and timing per chunk.
+     * @see #batchUpdate(String, Iterable, int)
+     */
+    protected BatchUpdateResult batchUpdate(final String query, final Iterable<? extends SqlParameterSource> parameters) {
+        return batchUpdate(query, parameters, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Perform the 'update' query for each of the parameter sources, in chunks of {@code batchSize} statements.
+     * <p>
+     * Each chunk is sent to the database as one JDBC batch. Chunks are executed one after another; if a chunk fails the
+     * remaining chunks are not executed, and chunks that were already executed are only rolled back when the call runs
+     * inside a transaction.
+     *
+     * @param query      query to use.
+     * @param parameters the parameter sources, one per statement.
+     * @param batchSize  the maximum number of statements per chunk.
+     * @return the row counts and timing per chunk.
+     * @throws DataAccessException if there is any problem issuing a chunk
+     */
+    protected BatchUpdateResult batchUpdate(final String query, final Iterable<? extends SqlParameterSource> parameters,
+            final int batchSize) {
+        return batchUpdates.batchUpdate(query, parameters.iterator(), batchSize);
+    }
+
+    /**
+     * Perform the 'update' query for each of the parameter sources, in chunks of {@code batchSize} statements.
+     *
+     * @param query      query to use.
+     * @param parameters the parameter sources, one per statement.
+     * @param batchSize  the maximum number of statements per chunk.
+     * @return the row counts and timing per chunk.
+     * @throws DataAccessException if there is any problem issuing a chunk
+     * @see #batchUpdate(String, Iterable, int)
+     */
+    protected BatchUpdateResult batchUpdate(final String query, final Stream<? extends SqlParameterSource> parameters,
+            final int batchSize) {
+        return batchUpdates.batchUpdate(query, parameters.iterator(), batchSize);
     }
 
     /**
@@ -196,11 +693,74 @@ public class BaseJdbcRepository {
      */
     protected <T> List<T> getList(final String query, final SqlParameterSource parameters, final RowMapper<T> rowMapper) {
         try {
-            return aNamedParameterJdbcTemplate.query(resolveQuery(query), parameters, rowMapper);
+            return runner.query(query, parameters, rowMapper);
         } catch (EmptyResultDataAccessException e) {
             LOGGER.debug(COULD_NOT_FIND_A_RESULT_FOR, query);
             throw e;
         }
     }
 
+    /**
+     * Gets the streaming reads of the repository's queries.
+     *
+     * @return the streaming reads.
+     */
+    protected CursorQueries cursorQueries() {
+        return cursorReads;
+    }
+
+    /**
+     * Gets the reads of the repository's queries that write the rows as JSON.
+     *
+     * @return the JSON reads.
+     */
+    protected JsonQueries jsonQueries() {
+        return jsonReads;
+    }
+
+    /**
+     * Gets the reads of the repository's queries that copy a LOB value.
+     *
+     * @return the LOB reads.
+     */
+    protected LobQueries lobQueries() {
+        return lobReads;
+    }
+
+    /**
+     * Gets the keyset-paginated reads of the repository's queries.
+     *
+     * @return the paginated reads.
+     */
+    protected PagedQueries pagedQueries() {
+        return pagedReads;
+    }
+
+    /**
+     * Gets the partitioned reads of key ranges of the repository's queries, which run on the executor for asynchronous
+     * queries.
+     *
+     * @return the partitioned reads.
+     * @see #setAsyncExecutor(Executor)
+     */
+    protected PartitionedQueries partitionedQueries() {
+        return partitionedReads;
+    }
+
+    /**
+     * Gets the reads of collections of keys of the repository's queries.
+     *
+     * @return the key reads.
+     */
+    protected KeyQueries keyQueries() {
+        return keyReads;
+    }
+
+    private Executor getAsyncExecutor() {
+        final Executor executor = asyncExecutor;
+        if (executor == null) {
+            throw new IllegalStateException(NO_ASYNC_EXECUTOR);
+        }
+        return executor;
+    }
 }
@@ -0,0 +1,98 @@
+package org.hawaiiframework.repository;
+
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * The outcome of a single chunk of a batch update.
+ */
+public class BatchChunkResult {
+
+    /**
+     * The index of the chunk within the batch, starting at zero.
+     */
+    private final int index;
+
+    /**
+     * The number of statements in the chunk.
+     */
+    private final int size;
+
+    /**
+     * The affected row counts, as reported by the driver per statement.
+     */
+    private final int[] rowCounts;
+
+    /**
+     * The time it took to execute the chunk, in nanoseconds.
+     */
+    private final long durationNanos;
+
+    /**
+     * Construct a chunk result.
+     *
+     * @param index         the index of the chunk within the batch.
+     * @param size          the number of statements in the chunk.
+     * @param rowCounts     the affected row counts per statement.
+     * @param durationNanos the time it took to execute the chunk, in nanoseconds.
+     */
+    public BatchChunkResult(final int index, final int size, final int[] rowCounts, final long durationNanos) {
+        this.index = index;
+        this.size = size;
+        this.rowCounts = rowCounts.clone();
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Gets the index of the chunk within the batch.
+     *
+     * @return index value
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the number of statements in the chunk.
+     *
+     * @return size value
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the affected row counts per statement.
+     * <p>
+     * Drivers may report {@link Statement#SUCCESS_NO_INFO} for statements that succeeded without a row count.
+     *
+     * @return a copy of the row counts
+     */
+    public int[] getRowCounts() {
+        return rowCounts.clone();
+    }
+
+    /**
+     * Gets the total number of affected rows, ignoring statements without a reported row count.
+     *
+     * @return the number of affected rows
+     */
+    public long getAffectedRows() {
+        long affectedRows = 0;
+        for (final int rowCount : rowCounts) {
+            if (rowCount > 0) {
+                affectedRows += rowCount;
+            }
+        }
+        return affectedRows;
+    }
+
+    /**
+     * Gets the time it took to execute the chunk.
+     *
+     * @return the duration
+     */
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+}
@@ -0,0 +1,62 @@
+package org.hawaiiframework.repository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The outcome of a chunked batch update, with the row counts and timing of each chunk.
+ */
+public class BatchUpdateResult {
+
+    /**
+     * The results per chunk, in execution order.
+     */
+    private final List<BatchChunkResult> chunks;
+
+    /**
+     * Construct a batch update result.
+     *
+     * @param chunks the results per chunk, in execution order.
+     */
+    public BatchUpdateResult(final List<BatchChunkResult> chunks) {
+        this.chunks = unmodifiableList(chunks);
+    }
+
+    /**
+     * Gets the results per chunk, in execution order.
+     *
+     * @return the chunks
+     */
+    public List<BatchChunkResult> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Gets the total number of statements executed.
+     *
+     * @return the number of statements
+     */
+    public long getStatementCount() {
+        return chunks.stream().mapToLong(BatchChunkResult::getSize).sum();
+    }
+
+    /**
+     * Gets the total number of affected rows, ignoring statements without a reported row count.
+     *
+     * @return the number of affected rows
+     */
+    public long getAffectedRows() {
+        return chunks.stream().mapToLong(BatchChunkResult::getAffectedRows).sum();
+    }
+
+    /**
+     * Gets the total time spent executing the chunks.
+     *
+     * @return the duration
+     */
+    public Duration getDuration() {
+        return chunks.stream().map(BatchChunkResult::getDuration).reduce(Duration.ZERO, Duration::plus);
+    }
+}
@@ -0,0 +1,96 @@
+package org.hawaiiframework.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Executes the batch updates of a repository in chunks, each sent to the database as one JDBC batch.
+ */
+final class BatchUpdates {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchUpdates.class);
+
+    /**
+     * The runner of the repository's queries.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * The publisher of the invalidation events of the updates.
+     */
+    private final UpdateInvalidation invalidation;
+
+    /**
+     * Constructor.
+     *
+     * @param runner       The runner of the repository's queries.
+     * @param invalidation The publisher of the invalidation events of the updates.
+     */
+    BatchUpdates(final QueryRunner runner, final UpdateInvalidation invalidation) {
+        this.runner = runner;
+        this.invalidation = invalidation;
+    }
+
+    /**
+     * Perform the 'update' query for each of the parameter sources, in chunks of {@code batchSize} statements.
+     * <p>
+     * The invalidation event covers the chunks that executed, also if a later chunk fails.
+     *
+     * @param query      query to use.
+     * @param parameters the parameter sources, one per statement.
+     * @param batchSize  the maximum number of statements per chunk.
+     * @return the row counts and timing per chunk.
+     */
+    public BatchUpdateResult batchUpdate(final String query, final Iterator<? extends SqlParameterSource> parameters,
+            final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive, got " + batchSize + ".");
+        }
+        final String sql = runner.sql(query);
+        final List<BatchChunkResult> chunks = new ArrayList<>();
+        final List<SqlParameterSource> chunk = new ArrayList<>(batchSize);
+        final UpdateInvalidation.ChangedKeys changed = new UpdateInvalidation.ChangedKeys();
+        try {
+            while (parameters.hasNext()) {
+                chunk.add(parameters.next());
+                if (chunk.size() == batchSize) {
+                    chunks.add(executeChunk(query, sql, chunks.size(), chunk));
+                    invalidation.collect(query, chunk, changed);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunks.add(executeChunk(query, sql, chunks.size(), chunk));
+                invalidation.collect(query, chunk, changed);
+            }
+        } finally {
+            // Outside a transaction the chunks executed before a failure are committed, so they are published as well.
+            invalidation.publish(query, changed);
+        }
+        final BatchUpdateResult result = new BatchUpdateResult(chunks);
+        LOGGER.debug("Executed {} statements of '{}' in {} chunks.", result.getStatementCount(), query, chunks.size());
+        return result;
+    }
+
+    private BatchChunkResult executeChunk(final String query, final String sql, final int index,
+            final List<SqlParameterSource> chunk) {
+        final long start = System.nanoTime();
+        try {
+            final int[] rowCounts = runner.write(query,
+                () -> runner.getNamedParameterJdbcTemplate().batchUpdate(sql, chunk.toArray(new SqlParameterSource[0])));
+            return new BatchChunkResult(index, chunk.size(), rowCounts, System.nanoTime() - start);
+        } catch (DataAccessException e) {
+            LOGGER.debug("Error performing chunk {} of '{}'.", index, query);
+            throw e;
+        }
+    }
+}
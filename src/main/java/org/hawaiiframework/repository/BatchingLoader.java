@@ -0,0 +1,238 @@
+package org.hawaiiframework.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Loader that coalesces concurrent lookups by key into batches, so that one query serves many callers.
+ * <p>
+ * Keys are collected until the batch window has passed since the first key of the batch, or the batch holds the maximum
+ * number of distinct keys, whichever comes first. The batch is then loaded on the executor, and the future of each caller
+ * is completed with the value of its key, or with {@code null} if the batch has no value for the key. If loading fails,
+ * the futures of all keys of the batch fail.
+ * <p>
+ * A batch whose window has passed is only handed off to the executor by the shared timer thread. If the executor would run
+ * it on the timer thread instead, for instance with {@link java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy}, the
+ * futures of the batch fail with a {@link RejectedExecutionException}, so one slow batch never delays the windows of
+ * other loaders.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ * @see BaseJdbcRepository
+ */
+public class BatchingLoader<K, V> {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingLoader.class);
+
+    /**
+     * The timer that closes batch windows; batches are loaded on the loader's executor, never on this thread.
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "batching-loader-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The function that loads the values of a batch of keys.
+     */
+    private final Function<List<K>, Map<K, V>> batchFunction;
+
+    /**
+     * The executor to load the batches on.
+     */
+    private final Executor executor;
+
+    /**
+     * The batch window in nanoseconds.
+     */
+    private final long windowNanos;
+
+    /**
+     * The maximum number of distinct keys per batch.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The lock that guards the pending batch.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The number of batches loaded.
+     */
+    private final LongAdder batchCount = new LongAdder();
+
+    /**
+     * The number of lookups served.
+     */
+    private final LongAdder loadCount = new LongAdder();
+
+    /**
+     * The futures of the pending batch, by key.
+     */
+    private Map<K, List<CompletableFuture<V>>> pending = new LinkedHashMap<>();
+
+    /**
+     * The timer of the pending batch, {@code null} if the pending batch is empty.
+     */
+    private ScheduledFuture<?> timer;
+
+    /**
+     * Constructor.
+     *
+     * @param batchFunction the function that loads the values of a batch of keys, by key.
+     * @param executor      the executor to load the batches on.
+     * @param window        the time to collect keys for a batch.
+     * @param maxBatchSize  the maximum number of distinct keys per batch.
+     */
+    public BatchingLoader(final Function<List<K>, Map<K, V>> batchFunction, final Executor executor, final Duration window,
+            final int maxBatchSize) {
+        if (maxBatchSize < 1 || window.isNegative()) {
+            throw new IllegalArgumentException("The batch size must be positive and the window must not be negative.");
+        }
+        this.batchFunction = batchFunction;
+        this.executor = executor;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Look up the value of a key.
+     *
+     * @param key the key.
+     * @return the future of the value, completed with {@code null} if there is no value for the key.
+     */
+    public CompletableFuture<V> load(final K key) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        Map<K, List<CompletableFuture<V>>> fullBatch = null;
+        synchronized (lock) {
+            pending.computeIfAbsent(key, pendingKey -> new ArrayList<>(1)).add(future);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (timer == null) {
+                timer = TIMER.schedule(this::flushOnTimer, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        loadCount.increment();
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return future;
+    }
+
+    /**
+     * Load the pending batch now, without waiting for the window to pass.
+     */
+    public void flush() {
+        final Map<K, List<CompletableFuture<V>>> batch = takeNonEmptyPending();
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Gets the number of batches loaded.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * Gets the number of lookups served.
+     *
+     * @return the lookup count
+     */
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    private void flushOnTimer() {
+        final Map<K, List<CompletableFuture<V>>> batch = takeNonEmptyPending();
+        if (batch != null) {
+            handOff(batch);
+        }
+    }
+
+    private Map<K, List<CompletableFuture<V>>> takeNonEmptyPending() {
+        synchronized (lock) {
+            return pending.isEmpty() ? null : takePending();
+        }
+    }
+
+    private Map<K, List<CompletableFuture<V>>> takePending() {
+        final Map<K, List<CompletableFuture<V>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(final Map<K, List<CompletableFuture<V>>> batch) {
+        try {
+            executor.execute(() -> loadBatch(batch));
+        } catch (RejectedExecutionException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void handOff(final Map<K, List<CompletableFuture<V>>> batch) {
+        final Thread timerThread = Thread.currentThread();
+        try {
+            executor.execute(() -> {
+                if (Thread.currentThread() == timerThread) {
+                    fail(batch, new RejectedExecutionException("The executor ran a batch on the timer thread."));
+                } else {
+                    loadBatch(batch);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(batch, e);
+        }
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void loadBatch(final Map<K, List<CompletableFuture<V>>> batch) {
+        batchCount.increment();
+        try {
+            final Map<K, V> values = batchFunction.apply(new ArrayList<>(batch.keySet()));
+            batch.forEach((key, futures) -> {
+                final V value = values.get(key);
+                futures.forEach(future -> future.complete(value));
+            });
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not load a batch of {} keys.", batch.size());
+            fail(batch, e);
+        } catch (Error e) {
+            // Never leave the callers waiting, not even when the thread dies.
+            fail(batch, e);
+            throw e;
+        }
+    }
+
+    private static <K, V> void fail(final Map<K, List<CompletableFuture<V>>> batch, final Throwable cause) {
+        batch.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(cause)));
+    }
+}
@@ -0,0 +1,131 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.cache.CachedValue;
+import org.hawaiiframework.repository.cache.QueryCacheKey;
+import org.hawaiiframework.repository.cache.QueryResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.function.Supplier;
+
+/**
+ * Serves the single-result lookups of a repository from its optional {@link QueryResultCache}.
+ */
+final class CachedReads {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedReads.class);
+
+    /**
+     * The result cache, may be {@code null}.
+     */
+    private QueryResultCache resultCache;
+
+    /**
+     * Sets the result cache.
+     *
+     * @param resultCache the new value for resultCache, may be {@code null}
+     */
+    public void setResultCache(final QueryResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Gets the result shape of a lookup through a row mapper, result set extractor or other mapper: the class of the mapper.
+     * <p>
+     * The generated classes of lambdas and method references are named differently in every JVM, so their shapes start with
+     * {@link QueryCacheKey#LOCAL_SHAPE_PREFIX} and a cache shared by several instances does not store their results; use a
+     * named mapper class for that.
+     *
+     * @param mapper the mapper.
+     * @return the shape.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public static String shapeOf(final Object mapper) {
+        final Class<?> mapperClass = mapper.getClass();
+        if (mapperClass.isSynthetic()) {
+            return QueryCacheKey.LOCAL_SHAPE_PREFIX + mapperClass.getName();
+        }
+        return mapperClass.getName();
+    }
+
+    /**
+     * Gets the result shape of a lookup of a single column.
+     *
+     * @param requiredType the required type of the column.
+     * @return the shape.
+     */
+    public static String shapeOf(final Class<?> requiredType) {
+        return "column:" + requiredType.getName();
+    }
+
+    /**
+     * Get the result of a lookup from the cache, or load and cache it.
+     *
+     * @param query      the query name.
+     * @param shape      the shape of the result, see {@link #shapeOf(Object)}.
+     * @param parameters the parameters of the lookup.
+     * @param loader     the loader of the result.
+     * @param <T>        the type of the result.
+     * @return the result, may be {@code null}.
+     */
+    public <T> T get(final String query, final String shape, final SqlParameterSource parameters, final Supplier<T> loader) {
+        return lookup(query, shape, parameters, loader, true);
+    }
+
+    /**
+     * Get the result of a lookup from the cache, or load and cache it. A cached {@code null} result is never returned, it
+     * is loaded again so the loader can report the missing result.
+     *
+     * @param query      the query name.
+     * @param shape      the shape of the result, see {@link #shapeOf(Object)}.
+     * @param parameters the parameters of the lookup.
+     * @param loader     the loader of the result, which throws if there is no result.
+     * @param <T>        the type of the result.
+     * @return the result.
+     */
+    public <T> T getRequired(final String query, final String shape, final SqlParameterSource parameters, final Supplier<T> loader) {
+        return lookup(query, shape, parameters, loader, false);
+    }
+
+    @SuppressWarnings({"unchecked", "PMD.LawOfDemeter"})
+    private <T> T lookup(final String query, final String shape, final SqlParameterSource parameters, final Supplier<T> loader,
+            final boolean allowNull) {
+        final QueryResultCache cache = resultCache;
+        QueryCacheKey key = null;
+        CachedValue cachedValue = null;
+        if (cache != null && cache.isCached(query)) {
+            key = QueryCacheKey.of(query, shape, parameters);
+            if (key != null) {
+                cachedValue = cache.get(key);
+            }
+        }
+        if (cachedValue != null && (allowNull || cachedValue.getValue() != null)) {
+            LOGGER.debug("Found a cached result for '{}'.", query);
+            return (T) cachedValue.getValue();
+        }
+        final long start = System.nanoTime();
+        final T value = loader.get();
+        if (key != null) {
+            cache.put(key, value, System.nanoTime() - start);
+        }
+        return value;
+    }
+
+    /**
+     * Evict the cached results of the given queries.
+     *
+     * @param queries the query names.
+     */
+    public void evictRegions(final String... queries) {
+        final QueryResultCache cache = resultCache;
+        if (cache != null) {
+            for (final String query : queries) {
+                cache.evictRegion(query);
+            }
+        }
+    }
+}
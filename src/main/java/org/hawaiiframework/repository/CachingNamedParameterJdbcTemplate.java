@@ -0,0 +1,41 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+
+/**
+ * Named parameter JDBC template that takes the parsed statements of named queries from a {@link SqlQueryCache}.
+ * <p>
+ * SQL that was not resolved through the cache is parsed by the default implementation.
+ */
+public class CachingNamedParameterJdbcTemplate extends NamedParameterJdbcTemplate {
+
+    /**
+     * The query cache.
+     */
+    private final SqlQueryCache queryCache;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcOperations The JDBC operations to delegate to.
+     * @param queryCache     The query cache.
+     */
+    public CachingNamedParameterJdbcTemplate(final JdbcOperations jdbcOperations, final SqlQueryCache queryCache) {
+        super(jdbcOperations);
+        this.queryCache = queryCache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ParsedSql getParsedSql(final String sql) {
+        final ParsedSql parsedSql = queryCache.findParsedSql(sql);
+        if (parsedSql == null) {
+            return super.getParsedSql(sql);
+        }
+        return parsedSql;
+    }
+}
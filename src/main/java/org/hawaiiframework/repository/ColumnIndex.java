@@ -0,0 +1,72 @@
+package org.hawaiiframework.repository;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The column indexes of a result set, by column label.
+ * <p>
+ * Labels are matched case-insensitively, and a label that occurs more than once resolves to its first column, as
+ * {@link java.sql.ResultSet#findColumn(String)} does. Resolving the labels once per result set saves the drivers that scan
+ * the columns for each label-based read. Lookups do not allocate: a label spelled as the driver reports it is found by
+ * hash, any other spelling by a case-insensitive search.
+ */
+public final class ColumnIndex {
+
+    /**
+     * The column indexes, by label as reported by the driver.
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * The column indexes, by label ignoring case.
+     */
+    private final Map<String, Integer> caseInsensitiveIndexes;
+
+    private ColumnIndex(final Map<String, Integer> indexes, final Map<String, Integer> caseInsensitiveIndexes) {
+        this.indexes = indexes;
+        this.caseInsensitiveIndexes = caseInsensitiveIndexes;
+    }
+
+    /**
+     * Resolve the column indexes of a result set.
+     *
+     * @param metaData the meta data of the result set.
+     * @return the column indexes.
+     * @throws SQLException in case of an error.
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public static ColumnIndex of(final ResultSetMetaData metaData) throws SQLException {
+        final int columnCount = metaData.getColumnCount();
+        final Map<String, Integer> indexes = new HashMap<>(columnCount * 2);
+        final Map<String, Integer> caseInsensitiveIndexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int column = 1; column <= columnCount; column++) {
+            final String columnLabel = metaData.getColumnLabel(column);
+            caseInsensitiveIndexes.putIfAbsent(columnLabel, column);
+            // The first column that matches ignoring case wins, also for a later column that matches exactly.
+            indexes.putIfAbsent(columnLabel, caseInsensitiveIndexes.get(columnLabel));
+        }
+        return new ColumnIndex(indexes, caseInsensitiveIndexes);
+    }
+
+    /**
+     * Get the index of a column.
+     *
+     * @param columnLabel the column label.
+     * @return the one-based column index.
+     * @throws SQLException if the result set has no column with the label.
+     */
+    public int indexOf(final String columnLabel) throws SQLException {
+        Integer index = indexes.get(columnLabel);
+        if (index == null) {
+            index = caseInsensitiveIndexes.get(columnLabel);
+        }
+        if (index == null) {
+            throw new SQLException("The result set has no column '" + columnLabel + "'.");
+        }
+        return index;
+    }
+}
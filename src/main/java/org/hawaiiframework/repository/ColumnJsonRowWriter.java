@@ -0,0 +1,139 @@
+package org.hawaiiframework.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Writer of rows as JSON objects with a field per column.
+ * <p>
+ * Character LOBs are written as strings and binary LOBs as Base64, like byte arrays, streamed from the database. The field
+ * names are resolved, and pre-encoded, once per result set. Since the writer keeps the field names of the last
+ * result set, an instance should not be shared between concurrent queries.
+ */
+final class ColumnJsonRowWriter implements JsonRowWriter {
+
+    /**
+     * The result set the field names were resolved for.
+     */
+    private ResultSet lastResultSet;
+
+    /**
+     * The field names, by zero-based column index.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private SerializedString[] fieldNames;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings({"PMD.CompareObjectsWithEquals", "PMD.LawOfDemeter"})
+    public void writeRow(final ResultSet resultSet, final int rowNum, final JsonGenerator generator) throws SQLException, IOException {
+        if (resultSet != lastResultSet) {
+            fieldNames = fieldNames(resultSet.getMetaData());
+            lastResultSet = resultSet;
+        }
+        generator.writeStartObject();
+        for (int i = 0; i < fieldNames.length; i++) {
+            generator.writeFieldName(fieldNames[i]);
+            writeValue(resultSet.getObject(i + 1), generator);
+        }
+        generator.writeEndObject();
+    }
+
+    @SuppressWarnings({"PMD.AvoidInstantiatingObjectsInLoops", "PMD.LawOfDemeter"})
+    private static SerializedString[] fieldNames(final ResultSetMetaData metaData) throws SQLException {
+        final SerializedString[] names = new SerializedString[metaData.getColumnCount()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new SerializedString(metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT));
+        }
+        return names;
+    }
+
+    private static void writeValue(final Object value, final JsonGenerator generator) throws SQLException, IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Number) {
+            writeNumber((Number) value, generator);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof java.util.Date) {
+            writeDate((java.util.Date) value, generator);
+        } else {
+            writeOther(value, generator);
+        }
+    }
+
+    private static void writeNumber(final Number value, final JsonGenerator generator) throws IOException {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(value.longValue());
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Float) {
+            generator.writeNumber(value.floatValue());
+        } else {
+            generator.writeNumber(value.doubleValue());
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static void writeDate(final java.util.Date value, final JsonGenerator generator) throws SQLException, IOException {
+        if (value instanceof Timestamp) {
+            // Written as the local date-time the database returned, without assuming the time zone of this JVM.
+            generator.writeString(((Timestamp) value).toLocalDateTime().toString());
+        } else if (value instanceof java.sql.Date) {
+            generator.writeString(((java.sql.Date) value).toLocalDate().toString());
+        } else if (value instanceof java.sql.Time) {
+            generator.writeString(((java.sql.Time) value).toLocalTime().toString());
+        } else {
+            writeOther(value, generator);
+        }
+    }
+
+    private static void writeOther(final Object value, final JsonGenerator generator) throws SQLException, IOException {
+        if (value instanceof byte[]) {
+            generator.writeBinary((byte[]) value);
+        } else if (value instanceof Clob) {
+            writeClob((Clob) value, generator);
+        } else if (value instanceof Blob) {
+            writeBlob((Blob) value, generator);
+        } else if (generator.getCodec() == null) {
+            generator.writeString(value.toString());
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    private static void writeClob(final Clob clob, final JsonGenerator generator) throws SQLException, IOException {
+        try (Reader reader = clob.getCharacterStream()) {
+            generator.writeString(reader, -1);
+        } finally {
+            clob.free();
+        }
+    }
+
+    private static void writeBlob(final Blob blob, final JsonGenerator generator) throws SQLException, IOException {
+        try (InputStream input = blob.getBinaryStream()) {
+            generator.writeBinary(input, -1);
+        } finally {
+            blob.free();
+        }
+    }
+}
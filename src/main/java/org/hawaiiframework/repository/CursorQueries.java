@@ -0,0 +1,125 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.stream.Stream;
+
+/**
+ * Streaming reads of the named queries of a repository, over forward-only, read-only cursors.
+ * <p>
+ * Rows are fetched from the database in batches of the fetch size while they are consumed, so a result is never held in
+ * memory as a whole. Note that some drivers (PostgreSQL, for one) only honour the fetch size inside a transaction.
+ *
+ * @see BaseJdbcRepository#cursorQueries()
+ */
+public final class CursorQueries {
+
+    /**
+     * The runner of the repository's queries.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * Constructor.
+     *
+     * @param runner The runner of the repository's queries.
+     */
+    CursorQueries(final QueryRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Stream the rows of the query, using the fetch size of the query's profile or the default fetch size.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type to return.
+     * @return the stream of mapped rows, which must be closed after use.
+     * @see #getStream(String, SqlParameterSource, int, RowMapper)
+     */
+    public <T> Stream<T> getStream(final String query, final SqlParameterSource parameters, final RowMapper<T> rowMapper) {
+        return getStream(query, parameters, runner.getFetchSize(query), rowMapper);
+    }
+
+    /**
+     * Stream the rows of the query over a forward-only, read-only cursor.
+     * <p>
+     * The connection and statement are held until the last row has been read or the stream is closed, so use the stream in
+     * a try-with-resources block. The rows are read after this method returns, so they are not counted in the query
+     * metrics; {@link #forEachRow(String, SqlParameterSource, int, RowCallbackHandler)} does count them.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param fetchSize  the JDBC fetch size.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type to return.
+     * @return the stream of mapped rows, which must be closed after use.
+     */
+    public <T> Stream<T> getStream(final String query, final SqlParameterSource parameters, final int fetchSize,
+            final RowMapper<T> rowMapper) {
+        return runner.withContext(query, () -> runner.openCursor(query, parameters, fetchSize)).stream(rowMapper);
+    }
+
+    /**
+     * Hand each row of the query to the callback handler, using the fetch size of the query's profile or the default fetch
+     * size.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param handler    the callback handler to invoke per row.
+     * @see #forEachRow(String, SqlParameterSource, int, RowCallbackHandler)
+     */
+    public void forEachRow(final String query, final SqlParameterSource parameters, final RowCallbackHandler handler) {
+        forEachRow(query, parameters, runner.getFetchSize(query), handler);
+    }
+
+    /**
+     * Hand each row of the query to the callback handler, reading over a forward-only, read-only cursor.
+     * <p>
+     * The connection and statement are released when this method returns, also in case of an exception.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param fetchSize  the JDBC fetch size.
+     * @param handler    the callback handler to invoke per row.
+     */
+    public void forEachRow(final String query, final SqlParameterSource parameters, final int fetchSize,
+            final RowCallbackHandler handler) {
+        try (QueryContext context = QueryContext.enter(query)) {
+            context.addRows(runner.openCursor(query, parameters, fetchSize).forEachRow(handler));
+        }
+    }
+
+    /**
+     * Read the first column of each row of the query as {@code long}, without boxing.
+     * <p>
+     * The rows are read over a cursor and collected in a primitive list, so a million ids take 8 MB instead of a
+     * {@code Long} per row. SQL {@code NULL} values are read as zero, as {@link java.sql.ResultSet#getLong} does.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @return the values.
+     */
+    public LongList getLongList(final String query, final SqlParameterSource parameters) {
+        final LongList values = new LongList();
+        forEachRow(query, parameters, resultSet -> values.add(resultSet.getLong(1)));
+        return values;
+    }
+
+    /**
+     * Read the first column of each row of the query as {@code int}, without boxing.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @return the values.
+     * @see #getLongList(String, SqlParameterSource)
+     */
+    public IntList getIntList(final String query, final SqlParameterSource parameters) {
+        final IntList values = new IntList();
+        forEachRow(query, parameters, resultSet -> values.add(resultSet.getInt(1)));
+        return values;
+    }
+}
@@ -0,0 +1,82 @@
+package org.hawaiiframework.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Splits the keys of an {@code IN} list lookup into chunks with a small number of distinct sizes.
+ * <p>
+ * Each distinct number of {@code IN} list elements is a distinct statement for the database, with its own entry in the
+ * statement and plan caches. The keys are deduplicated and split into chunks of the maximum size, and the last chunk is
+ * padded up to the next bucket size (8, 16, 32, ... up to the maximum) by repeating its last key, which does not change
+ * the result of an {@code IN} predicate. A lookup of any number of keys thus uses one of about ten statement shapes.
+ */
+public final class InListChunker {
+
+    /**
+     * The default maximum chunk size, within the {@code IN} list limit of Oracle and the parameter limits of other drivers.
+     */
+    public static final int DEFAULT_MAXIMUM_CHUNK_SIZE = 1000;
+
+    /**
+     * The smallest bucket size.
+     */
+    private static final int MINIMUM_BUCKET_SIZE = 8;
+
+    /**
+     * Utility constructor.
+     */
+    private InListChunker() {
+        // Do nothing.
+    }
+
+    /**
+     * Split keys into padded chunks.
+     *
+     * @param keys             the keys.
+     * @param maximumChunkSize the maximum number of keys per chunk.
+     * @param <K>              the type of the keys.
+     * @return the chunks, empty if there are no keys.
+     * @throws IllegalArgumentException if the maximum chunk size is not positive.
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    public static <K> List<List<K>> chunk(final Collection<K> keys, final int maximumChunkSize) {
+        if (maximumChunkSize <= 0) {
+            throw new IllegalArgumentException("The maximum chunk size must be positive, got " + maximumChunkSize + ".");
+        }
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        final List<List<K>> chunks = new ArrayList<>(distinct.size() / maximumChunkSize + 1);
+        for (int start = 0; start < distinct.size(); start += maximumChunkSize) {
+            final List<K> chunk = new ArrayList<>(distinct.subList(start, Math.min(start + maximumChunkSize, distinct.size())));
+            final K last = chunk.get(chunk.size() - 1);
+            final int bucketSize = bucketSize(chunk.size(), maximumChunkSize);
+            while (chunk.size() < bucketSize) {
+                chunk.add(last);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Get the bucket size of a chunk.
+     *
+     * @param size             the number of keys of the chunk.
+     * @param maximumChunkSize the maximum number of keys per chunk.
+     * @return the smallest bucket size that holds the keys.
+     */
+    @SuppressWarnings("PMD.DefaultPackage")
+    static int bucketSize(final int size, final int maximumChunkSize) {
+        int bucketSize = MINIMUM_BUCKET_SIZE;
+        while (bucketSize < size) {
+            bucketSize <<= 1;
+        }
+        return Math.min(bucketSize, maximumChunkSize);
+    }
+}
@@ -0,0 +1,165 @@
+package org.hawaiiframework.repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Label-based access to the current row of a result set, that reads by column index.
+ * <p>
+ * The accessors mirror those of {@link ResultSetUtil}, so a row mapper can switch by replacing
+ * {@code ResultSetUtil.getLong(resultSet, "id")} with {@code row.getLong("id")}.
+ *
+ * @see IndexedRowMapper
+ */
+public final class IndexedRow {
+
+    /**
+     * The result set.
+     */
+    private final ResultSet resultSet;
+
+    /**
+     * The column indexes of the result set.
+     */
+    private final ColumnIndex columnIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param resultSet   the result set.
+     * @param columnIndex the column indexes of the result set.
+     */
+    public IndexedRow(final ResultSet resultSet, final ColumnIndex columnIndex) {
+        this.resultSet = resultSet;
+        this.columnIndex = columnIndex;
+    }
+
+    /**
+     * Gets the result set.
+     *
+     * @return resultSet value
+     */
+    public ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    /**
+     * Returns the Integer value.
+     *
+     * @param columnLabel The column to retrieve.
+     * @return The integer value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public Integer getInteger(final String columnLabel) throws SQLException {
+        return ResultSetUtil.getInteger(resultSet, columnIndex.indexOf(columnLabel));
+    }
+
+    /**
+     * Returns the int value, without boxing.
+     *
+     * @param columnLabel The column to retrieve.
+     * @param nullValue   The value to return for SQL {@code NULL}.
+     * @return The int value, or {@code nullValue}.
+     * @throws SQLException in case of an error.
+     */
+    public int getInt(final String columnLabel, final int nullValue) throws SQLException {
+        final int value = resultSet.getInt(columnIndex.indexOf(columnLabel));
+        return resultSet.wasNull() ? nullValue : value;
+    }
+
+    /**
+     * Returns the Long value.
+     *
+     * @param columnLabel The column to retrieve.
+     * @return The long value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public Long getLong(final String columnLabel) throws SQLException {
+        return ResultSetUtil.getLong(resultSet, columnIndex.indexOf(columnLabel));
+    }
+
+    /**
+     * Returns the long value, without boxing.
+     *
+     * @param columnLabel The column to retrieve.
+     * @param nullValue   The value to return for SQL {@code NULL}.
+     * @return The long value, or {@code nullValue}.
+     * @throws SQLException in case of an error.
+     */
+    public long getLong(final String columnLabel, final long nullValue) throws SQLException {
+        final long value = resultSet.getLong(columnIndex.indexOf(columnLabel));
+        return resultSet.wasNull() ? nullValue : value;
+    }
+
+    /**
+     * Returns the Date value.
+     *
+     * @param columnLabel The column to retrieve.
+     * @return The date value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public Date getDate(final String columnLabel) throws SQLException {
+        return ResultSetUtil.getDate(resultSet, columnIndex.indexOf(columnLabel));
+    }
+
+    /**
+     * Returns the String value.
+     *
+     * @param columnLabel The column to retrieve.
+     * @return The string value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public String getString(final String columnLabel) throws SQLException {
+        return resultSet.getString(columnIndex.indexOf(columnLabel));
+    }
+
+    /**
+     * Returns the BigDecimal value.
+     *
+     * @param columnLabel The column to retrieve.
+     * @return The decimal value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public BigDecimal getBigDecimal(final String columnLabel) throws SQLException {
+        return resultSet.getBigDecimal(columnIndex.indexOf(columnLabel));
+    }
+
+    /**
+     * Returns the Timestamp value.
+     *
+     * @param columnLabel The column to retrieve.
+     * @return The timestamp value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public Timestamp getTimestamp(final String columnLabel) throws SQLException {
+        return resultSet.getTimestamp(columnIndex.indexOf(columnLabel));
+    }
+
+    /**
+     * Returns the Boolean value.
+     *
+     * @param columnLabel The column to retrieve.
+     * @return The boolean value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public Boolean getBoolean(final String columnLabel) throws SQLException {
+        final boolean value = resultSet.getBoolean(columnIndex.indexOf(columnLabel));
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Returns the value converted to the given type by the driver.
+     *
+     * @param columnLabel The column to retrieve.
+     * @param type        The type to convert to.
+     * @param <T>         The type to return.
+     * @return The value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public <T> T getObject(final String columnLabel, final Class<T> type) throws SQLException {
+        return resultSet.getObject(columnIndex.indexOf(columnLabel), type);
+    }
+}
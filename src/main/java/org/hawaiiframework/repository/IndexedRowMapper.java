@@ -0,0 +1,76 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Row mapper that resolves the column labels to indexes once per result set, and maps rows through an {@link IndexedRow}.
+ * <p>
+ * The mapper can be shared; it keeps the column indexes of the result set it saw last.
+ *
+ * @param <T> The type of the rows.
+ */
+public final class IndexedRowMapper<T> implements RowMapper<T> {
+
+    /**
+     * The function that maps a row.
+     */
+    private final RowFunction<T> rowFunction;
+
+    /**
+     * The row view of the result set seen last.
+     */
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile IndexedRow lastRow;
+
+    private IndexedRowMapper(final RowFunction<T> rowFunction) {
+        this.rowFunction = rowFunction;
+    }
+
+    /**
+     * Create a row mapper.
+     *
+     * @param rowFunction the function that maps a row.
+     * @param <T>         the type of the rows.
+     * @return the row mapper.
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public static <T> IndexedRowMapper<T> of(final RowFunction<T> rowFunction) {
+        return new IndexedRowMapper<>(rowFunction);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public T mapRow(final ResultSet resultSet, final int rowNum) throws SQLException {
+        IndexedRow row = lastRow;
+        if (row == null || row.getResultSet() != resultSet) {
+            row = new IndexedRow(resultSet, ColumnIndex.of(resultSet.getMetaData()));
+            lastRow = row;
+        }
+        return rowFunction.mapRow(row, rowNum);
+    }
+
+    /**
+     * Function that maps a row.
+     *
+     * @param <T> The type of the rows.
+     */
+    @FunctionalInterface
+    public interface RowFunction<T> {
+
+        /**
+         * Map the current row.
+         *
+         * @param row    the row.
+         * @param rowNum the number of the row.
+         * @return the mapped row.
+         * @throws SQLException in case of an error.
+         */
+        T mapRow(IndexedRow row, int rowNum) throws SQLException;
+    }
+}
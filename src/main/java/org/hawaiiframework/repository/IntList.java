@@ -0,0 +1,137 @@
+package org.hawaiiframework.repository;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A growable list of primitive {@code int} values, backed by a {@code int[]}.
+ * <p>
+ * Holds a million values in 4 MB, without an object per value. The list is not thread-safe.
+ */
+public final class IntList {
+
+    /**
+     * The default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The values; only the first {@link #size} elements are in use.
+     */
+    private int[] values;
+
+    /**
+     * The number of values.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private int size;
+
+    /**
+     * Construct an empty list with the default initial capacity.
+     */
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct an empty list.
+     *
+     * @param initialCapacity the initial capacity.
+     */
+    public IntList(final int initialCapacity) {
+        this.values = new int[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Add a value to the end of the list.
+     *
+     * @param value the value.
+     */
+    public void add(final int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length + (values.length >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Get the value at an index.
+     *
+     * @param index the index.
+     * @return the value.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size + ".");
+        }
+        return values[index];
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the list is empty.
+     *
+     * @return {@code true} if the list has no values.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copy the values to an array.
+     *
+     * @return the array, of length {@link #size()}.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Stream the values.
+     *
+     * @return the stream.
+     */
+    public IntStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof IntList)) {
+            return false;
+        }
+        final IntList that = (IntList) other;
+        return Arrays.equals(values, 0, size, that.values, 0, that.size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
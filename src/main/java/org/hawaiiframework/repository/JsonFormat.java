@@ -0,0 +1,17 @@
+package org.hawaiiframework.repository;
+
+/**
+ * The layout of rows streamed as JSON.
+ */
+public enum JsonFormat {
+
+    /**
+     * A single JSON array with one element per row.
+     */
+    ARRAY,
+
+    /**
+     * Newline-delimited JSON: one JSON value per row, each on its own line.
+     */
+    NDJSON
+}
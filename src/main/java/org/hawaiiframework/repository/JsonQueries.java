@@ -0,0 +1,102 @@
+package org.hawaiiframework.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads of the named queries of a repository that write the rows as JSON, straight from the result set to a generator.
+ * <p>
+ * Rows are read over a forward-only cursor and written one at a time, so the memory used does not depend on the size of
+ * the result; write to a generator on the response output stream to stream a large result to the client.
+ *
+ * @see BaseJdbcRepository#jsonQueries()
+ */
+public final class JsonQueries {
+
+    /**
+     * The runner of the repository's queries.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * The streaming reads to write the rows of.
+     */
+    private final CursorQueries cursorQueries;
+
+    /**
+     * Constructor.
+     *
+     * @param runner        The runner of the repository's queries.
+     * @param cursorQueries The streaming reads to write the rows of.
+     */
+    JsonQueries(final QueryRunner runner, final CursorQueries cursorQueries) {
+        this.runner = runner;
+        this.cursorQueries = cursorQueries;
+    }
+
+    /**
+     * Write the rows of the query as JSON, reading over a cursor with the fetch size of the query profile.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param generator  the generator to write to.
+     * @param format     the layout of the rows.
+     * @param rowWriter  the writer of a row.
+     * @return the number of rows written.
+     * @throws IOException in case of a write error.
+     * @see #writeJson(String, SqlParameterSource, int, JsonGenerator, JsonFormat, JsonRowWriter)
+     */
+    public long writeJson(final String query, final SqlParameterSource parameters, final JsonGenerator generator,
+            final JsonFormat format, final JsonRowWriter rowWriter) throws IOException {
+        return writeJson(query, parameters, runner.getFetchSize(query), generator, format, rowWriter);
+    }
+
+    /**
+     * Write the rows of the query as JSON.
+     * <p>
+     * The generator is flushed, but not closed. For {@link JsonFormat#NDJSON} the root value separator of the generator is
+     * cleared, so that each line holds exactly one row.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param fetchSize  the JDBC fetch size.
+     * @param generator  the generator to write to.
+     * @param format     the layout of the rows.
+     * @param rowWriter  the writer of a row, see {@link JsonRowWriter#columns()}.
+     * @return the number of rows written.
+     * @throws IOException in case of a write error.
+     */
+    @SuppressWarnings("PMD.ExceptionAsFlowControl")
+    public long writeJson(final String query, final SqlParameterSource parameters, final int fetchSize,
+            final JsonGenerator generator, final JsonFormat format, final JsonRowWriter rowWriter) throws IOException {
+        final boolean array = format == JsonFormat.ARRAY;
+        final int[] rowNum = new int[1];
+        if (array) {
+            generator.writeStartArray();
+        } else {
+            generator.setRootValueSeparator(null);
+        }
+        try {
+            cursorQueries.forEachRow(query, parameters, fetchSize, resultSet -> {
+                try {
+                    rowWriter.writeRow(resultSet, rowNum[0]++, generator);
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (array) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+        return rowNum[0];
+    }
+}
@@ -0,0 +1,54 @@
+package org.hawaiiframework.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writer of the current row of a result set as one JSON value.
+ *
+ * @see BaseJdbcRepository
+ */
+@FunctionalInterface
+public interface JsonRowWriter {
+
+    /**
+     * Write the current row.
+     *
+     * @param resultSet the result set, positioned at the row.
+     * @param rowNum    the number of the row.
+     * @param generator the generator to write to.
+     * @throws SQLException in case of a database error.
+     * @throws IOException  in case of a write error.
+     */
+    void writeRow(ResultSet resultSet, int rowNum, JsonGenerator generator) throws SQLException, IOException;
+
+    /**
+     * Create a writer that writes each row as an object with a field per column, named after the lower case column label.
+     * <p>
+     * Strings, numbers and booleans are written as such, dates and timestamps as ISO-8601 strings (timestamps as local
+     * date-times, without an offset), binary values as Base64 strings, and other values with the codec of the generator,
+     * or as their string representation if the generator has no codec.
+     * <p>
+     * The writer keeps state per result set, so call this method for each query rather than sharing the writer between
+     * concurrent queries.
+     *
+     * @return a new writer.
+     */
+    static JsonRowWriter columns() {
+        return new ColumnJsonRowWriter();
+    }
+
+    /**
+     * Create a writer that maps each row and writes the mapped object with the codec of the generator.
+     *
+     * @param rowMapper the row mapper to use.
+     * @return the writer.
+     */
+    static JsonRowWriter mapped(final RowMapper<?> rowMapper) {
+        return (resultSet, rowNum, generator) -> generator.writeObject(rowMapper.mapRow(resultSet, rowNum));
+    }
+}
@@ -0,0 +1,110 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Reads of the rows of a collection of keys with the named queries of a repository, in one or a few statements.
+ *
+ * @see BaseJdbcRepository#keyQueries()
+ */
+public final class KeyQueries {
+
+    /**
+     * The runner of the repository's queries.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * Constructor.
+     *
+     * @param runner The runner of the repository's queries.
+     */
+    KeyQueries(final QueryRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Look up the rows of a collection of keys with an {@code IN} list query, such as
+     * {@code select * from person where id in (:ids)}, in chunks of at most
+     * {@value InListChunker#DEFAULT_MAXIMUM_CHUNK_SIZE} keys.
+     *
+     * @param query         query to use.
+     * @param parameters    parameters to add to the query.
+     * @param keysParameter the name of the parameter that holds the keys of a chunk.
+     * @param keys          the keys.
+     * @param rowMapper     the row mapper to use.
+     * @param <T>           the type to return.
+     * @return the stream of the mapped rows of all chunks.
+     * @see #getStreamByKeys(String, SqlParameterSource, String, Collection, int, RowMapper)
+     */
+    public <T> Stream<T> getStreamByKeys(final String query, final SqlParameterSource parameters, final String keysParameter,
+            final Collection<?> keys, final RowMapper<T> rowMapper) {
+        return getStreamByKeys(query, parameters, keysParameter, keys, InListChunker.DEFAULT_MAXIMUM_CHUNK_SIZE, rowMapper);
+    }
+
+    /**
+     * Look up the rows of a collection of keys with an {@code IN} list query, in padded chunks.
+     * <p>
+     * The keys are split with {@link InListChunker}, so the number of keys per statement stays within the driver limits and
+     * any number of keys uses one of a few statement shapes. The chunks are queried one after the other as the stream is
+     * consumed; at most the rows of one chunk are held in memory. The keys are deduplicated and each chunk returns a row at
+     * most once, but a row that matches keys in different chunks, for instance of a query on two key columns, is returned
+     * once for each of those chunks; deduplicate the rows if that matters.
+     *
+     * @param query            query to use.
+     * @param parameters       parameters to add to the query.
+     * @param keysParameter    the name of the parameter that holds the keys of a chunk.
+     * @param keys             the keys.
+     * @param maximumChunkSize the maximum number of keys per chunk.
+     * @param rowMapper        the row mapper to use.
+     * @param <T>              the type to return.
+     * @return the stream of the mapped rows of all chunks.
+     */
+    public <T> Stream<T> getStreamByKeys(final String query, final SqlParameterSource parameters, final String keysParameter,
+            final Collection<?> keys, final int maximumChunkSize, final RowMapper<T> rowMapper) {
+        return InListChunker.chunk(keys, maximumChunkSize).stream()
+            .flatMap(chunk -> runner.query(query, new AddedParameterSource(parameters, keysParameter, chunk,
+                SqlParameterSource.TYPE_UNKNOWN), rowMapper).stream());
+    }
+
+    /**
+     * Look up the rows of a collection of keys with a query that takes the keys as one SQL array parameter, such as
+     * {@code select * from person where id = any(:ids)} on PostgreSQL.
+     * <p>
+     * The statement is the same for any number of keys, and the keys are sent as a single value, without driver limits on
+     * the number of parameters. Only use this on databases whose driver supports {@link java.sql.Connection#createArrayOf}.
+     *
+     * @param query          query to use.
+     * @param parameters     parameters to add to the query.
+     * @param arrayParameter the name of the parameter that holds the array of keys.
+     * @param elementType    the SQL type name of the array elements, such as {@code bigint}.
+     * @param keys           the keys.
+     * @param rowMapper      the row mapper to use.
+     * @param <T>            the type to return.
+     * @return the stream of the mapped rows.
+     */
+    public <T> Stream<T> getStreamByKeyArray(final String query, final SqlParameterSource parameters,
+            final String arrayParameter, final String elementType, final Collection<?> keys, final RowMapper<T> rowMapper) {
+        final Object[] elements = keys.toArray();
+        final SqlTypeValue array = new AbstractSqlTypeValue() {
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            protected Object createTypeValue(final Connection connection, final int sqlType, final String typeName)
+                    throws SQLException {
+                return connection.createArrayOf(elementType, elements);
+            }
+        };
+        return runner.query(query, new AddedParameterSource(parameters, arrayParameter, array, Types.ARRAY), rowMapper).stream();
+    }
+}
@@ -0,0 +1,118 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A half-open range of numeric keys, from (inclusive) to (exclusive).
+ * <p>
+ * A range query selects the rows of a range with the parameters {@value #FROM_PARAMETER} and {@value #TO_PARAMETER}, for
+ * instance {@code select * from event where id >= :range_from and id < :range_to}.
+ */
+public final class KeyRange {
+
+    /**
+     * The name of the parameter that holds the first key of the range.
+     */
+    public static final String FROM_PARAMETER = "range_from";
+
+    /**
+     * The name of the parameter that holds the key after the last key of the range.
+     */
+    public static final String TO_PARAMETER = "range_to";
+
+    /**
+     * The first key of the range.
+     */
+    private final long from;
+
+    /**
+     * The key after the last key of the range.
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    private final long to;
+
+    /**
+     * Constructor.
+     *
+     * @param from the first key of the range.
+     * @param to   the key after the last key of the range.
+     * @throws IllegalArgumentException if the range is empty.
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    public KeyRange(final long from, final long to) {
+        if (from >= to) {
+            throw new IllegalArgumentException(String.format("The key range [%d, %d) is empty.", from, to));
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Split the range into consecutive partitions of (almost) equal size. A range with fewer keys than partitions is split
+     * into single keys.
+     *
+     * @param partitions the number of partitions.
+     * @return the partitions, in key order.
+     * @throws IllegalArgumentException if the number of partitions is not positive.
+     */
+    @SuppressWarnings({"PMD.LawOfDemeter", "PMD.AvoidInstantiatingObjectsInLoops"})
+    public List<KeyRange> split(final int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("The number of partitions must be positive, got " + partitions + ".");
+        }
+        // The size of a range can exceed Long.MAX_VALUE, so the bounds are computed exactly.
+        final BigInteger first = BigInteger.valueOf(from);
+        final BigInteger size = BigInteger.valueOf(to).subtract(first);
+        final int count = size.compareTo(BigInteger.valueOf(partitions)) < 0 ? size.intValueExact() : partitions;
+        final List<KeyRange> ranges = new ArrayList<>(count);
+        long start = from;
+        for (int i = 1; i <= count; i++) {
+            final long end = i == count ? to
+                : first.add(size.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count))).longValueExact();
+            ranges.add(new KeyRange(start, end));
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * Add the bounds of this range to the parameters of a range query.
+     *
+     * @param parameters the parameters of the query.
+     * @return the parameters, including {@value #FROM_PARAMETER} and {@value #TO_PARAMETER}.
+     */
+    public SqlParameterSource parameters(final SqlParameterSource parameters) {
+        return new AddedParameterSource(new AddedParameterSource(parameters, FROM_PARAMETER, from, SqlParameterSource.TYPE_UNKNOWN),
+            TO_PARAMETER, to, SqlParameterSource.TYPE_UNKNOWN);
+    }
+
+    /**
+     * Gets from.
+     *
+     * @return from value
+     */
+    public long getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets to.
+     *
+     * @return to value
+     */
+    public long getTo() {
+        return to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + ")";
+    }
+}
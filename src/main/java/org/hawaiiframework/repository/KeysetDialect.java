@@ -0,0 +1,76 @@
+package org.hawaiiframework.repository;
+
+/**
+ * The SQL dialect of keyset-paginated queries: how a page seeks past the previous page, and how its rows are limited.
+ * <p>
+ * When all sort keys have the same direction, dialects that support row value comparisons seek with
+ * {@code (a, b) > (?, ?)}, which databases turn into a single index range scan more reliably than the equivalent
+ * {@code a > ? or (a = ? and b > ?)}. Whatever the dialect, the statement is also bounded with
+ * {@link java.sql.Statement#setMaxRows(int)}.
+ *
+ * @see PagedQueries#setDialect(KeysetDialect)
+ */
+@SuppressWarnings("checkstyle:multiplestringliterals")
+public enum KeysetDialect {
+
+    /**
+     * Row value comparisons and {@code fetch first n rows only}: PostgreSQL, DB2, H2 and HSQLDB. The default.
+     */
+    STANDARD(true, " fetch first %d rows only"),
+
+    /**
+     * Row value comparisons and {@code limit n}: MySQL, MariaDB and SQLite.
+     */
+    MYSQL(true, " limit %d"),
+
+    /**
+     * No row value comparisons, and {@code fetch first n rows only}: Oracle 12c and later.
+     */
+    ORACLE(false, " fetch first %d rows only"),
+
+    /**
+     * No row value comparisons, and {@code offset 0 rows fetch next n rows only}: SQL Server 2012 and later.
+     */
+    SQL_SERVER(false, " offset 0 rows fetch next %d rows only"),
+
+    /**
+     * No row value comparisons and no limit clause, for other databases.
+     */
+    GENERIC(false, null);
+
+    /**
+     * Flag to indicate the dialect supports row value comparisons.
+     */
+    private final boolean rowValues;
+
+    /**
+     * The format of the limit clause, {@code null} if the dialect has none.
+     */
+    private final String limitFormat;
+
+    KeysetDialect(final boolean rowValues, final String limitFormat) {
+        this.rowValues = rowValues;
+        this.limitFormat = limitFormat;
+    }
+
+    /**
+     * Check whether the dialect supports row value comparisons.
+     *
+     * @return {@code true} if it does.
+     */
+    boolean supportsRowValues() {
+        return rowValues;
+    }
+
+    /**
+     * Append the clause that limits the number of rows, if the dialect has one.
+     *
+     * @param sql  the SQL to append to.
+     * @param rows the maximum number of rows.
+     */
+    void appendLimit(final StringBuilder sql, final int rows) {
+        if (limitFormat != null) {
+            sql.append(String.format(limitFormat, rows));
+        }
+    }
+}
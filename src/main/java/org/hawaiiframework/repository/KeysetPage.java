@@ -0,0 +1,60 @@
+package org.hawaiiframework.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated query.
+ *
+ * @param <T> The type of the items.
+ */
+public final class KeysetPage<T> {
+
+    /**
+     * The items.
+     */
+    private final List<T> items;
+
+    /**
+     * The token of the next page, {@code null} if this is the last page.
+     */
+    private final String nextToken;
+
+    /**
+     * Constructor.
+     *
+     * @param items     the items.
+     * @param nextToken the token of the next page, {@code null} if this is the last page.
+     */
+    public KeysetPage(final List<T> items, final String nextToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Gets the items.
+     *
+     * @return items value
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the opaque token to pass to get the next page.
+     *
+     * @return nextToken value, {@code null} if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Check whether there is a next page.
+     *
+     * @return {@code true} if there is a next page.
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
@@ -0,0 +1,222 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Builds and reads keyset-paginated queries.
+ * <p>
+ * The named query is wrapped as {@code select * from (<query>) keyset_page where <seek predicate> order by <sort keys>
+ * <limit>}, where the seek predicate selects the rows after the sort key values of the previous page, and the limit clause
+ * of the {@link KeysetDialect} bounds the page. The sort keys must be columns
+ * of the query's select list that together are unique and never {@code null}, and should be backed by an index, so that
+ * each page is a range scan that costs the same regardless of its depth.
+ */
+final class KeysetQuery {
+
+    /**
+     * The prefix of the parameter names of the sort key values of the previous page.
+     */
+    private static final String AFTER_PARAMETER = "keyset_after_";
+
+    /**
+     * The separator of the columns in the order by clause and the row value seek.
+     */
+    private static final String SEPARATOR = ", ";
+
+    /**
+     * Utility constructor.
+     */
+    private KeysetQuery() {
+        // Do nothing.
+    }
+
+    /**
+     * Build the SQL of a page.
+     *
+     * @param sql      the SQL of the named query.
+     * @param sortKeys the sort keys.
+     * @param after    flag to indicate the page follows a previous page.
+     * @param dialect  the dialect.
+     * @param limit    the maximum number of rows.
+     * @return the SQL.
+     */
+    public static String sql(final String sql, final List<SortKey> sortKeys, final boolean after, final KeysetDialect dialect,
+            final int limit) {
+        final StringBuilder builder = new StringBuilder("select * from (").append(sql).append(") keyset_page");
+        if (after) {
+            builder.append(" where ");
+            if (sortKeys.size() > 1 && dialect.supportsRowValues() && isSameDirection(sortKeys)) {
+                appendRowValueSeek(builder, sortKeys);
+            } else {
+                appendExpandedSeek(builder, sortKeys);
+            }
+        }
+        builder.append(" order by ");
+        for (int index = 0; index < sortKeys.size(); index++) {
+            builder.append(index == 0 ? "" : SEPARATOR).append(sortKeys.get(index));
+        }
+        dialect.appendLimit(builder, limit);
+        return builder.toString();
+    }
+
+    /**
+     * Add the sort key values of the previous page to the parameters of the query.
+     *
+     * @param parameters the parameters of the query.
+     * @param after      the sort key values of the previous page, {@code null} for the first page.
+     * @return the parameters.
+     */
+    public static SqlParameterSource parameters(final SqlParameterSource parameters, final Object... after) {
+        return after == null ? parameters : new AfterParameterSource(parameters, after);
+    }
+
+    /**
+     * Read a page from a stream of rows, that was opened with a fetch size of one more than the page size.
+     *
+     * @param rows      the stream, mapped with {@link #rowMapper(RowMapper, int, List, Object[][], List)}.
+     * @param pageSize  the page size.
+     * @param items     the list that the row mapper adds the items to.
+     * @param <T>       the type of the items.
+     * @return {@code true} if there is a next page.
+     */
+    public static <T> boolean hasNext(final Stream<T> rows, final int pageSize, final List<T> items) {
+        final Iterator<T> iterator = rows.iterator();
+        while (items.size() < pageSize && iterator.hasNext()) {
+            iterator.next();
+        }
+        return items.size() == pageSize && iterator.hasNext();
+    }
+
+    /**
+     * Create a row mapper that adds the first {@code pageSize} rows to the items, keeps the sort key values of the last of
+     * them, and does not map the rows after them.
+     *
+     * @param rowMapper the row mapper of the items.
+     * @param pageSize  the page size.
+     * @param items     the list to add the items to.
+     * @param lastKeys  the holder of the sort key values of the last item.
+     * @param sortKeys  the sort keys.
+     * @param <T>       the type of the items.
+     * @return the row mapper.
+     */
+    public static <T> RowMapper<T> rowMapper(final RowMapper<T> rowMapper, final int pageSize, final List<T> items,
+            final Object[][] lastKeys, final List<SortKey> sortKeys) {
+        return (resultSet, rowNum) -> {
+            T item = null;
+            if (rowNum < pageSize) {
+                item = rowMapper.mapRow(resultSet, rowNum);
+                items.add(item);
+                lastKeys[0] = readKeys(resultSet, sortKeys);
+            }
+            return item;
+        };
+    }
+
+    private static boolean isSameDirection(final List<SortKey> sortKeys) {
+        final boolean descending = sortKeys.get(0).isDescending();
+        return sortKeys.stream().allMatch(sortKey -> sortKey.isDescending() == descending);
+    }
+
+    private static void appendRowValueSeek(final StringBuilder builder, final List<SortKey> sortKeys) {
+        final StringBuilder values = new StringBuilder();
+        builder.append('(');
+        for (int index = 0; index < sortKeys.size(); index++) {
+            builder.append(index == 0 ? "" : SEPARATOR).append(sortKeys.get(index).getColumn());
+            values.append(index == 0 ? ":" : ", :").append(AFTER_PARAMETER).append(index);
+        }
+        builder.append(sortKeys.get(0).isDescending() ? ") < (" : ") > (").append(values).append(')');
+    }
+
+    private static void appendExpandedSeek(final StringBuilder builder, final List<SortKey> sortKeys) {
+        for (int index = 0; index < sortKeys.size(); index++) {
+            builder.append(index == 0 ? "(" : " or (");
+            for (int equal = 0; equal < index; equal++) {
+                builder.append(sortKeys.get(equal).getColumn()).append(" = :").append(AFTER_PARAMETER).append(equal).append(" and ");
+            }
+            final SortKey sortKey = sortKeys.get(index);
+            builder.append(sortKey.getColumn()).append(sortKey.isDescending() ? " < :" : " > :").append(AFTER_PARAMETER)
+                .append(index).append(')');
+        }
+    }
+
+    private static Object[] readKeys(final ResultSet resultSet, final List<SortKey> sortKeys) throws SQLException {
+        final Object[] values = new Object[sortKeys.size()];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = resultSet.getObject(sortKeys.get(index).getColumn());
+        }
+        return values;
+    }
+
+    /**
+     * Parameter source that adds the sort key values of the previous page to the parameters of the query.
+     */
+    private static final class AfterParameterSource implements SqlParameterSource {
+
+        /**
+         * The parameters of the query.
+         */
+        private final SqlParameterSource parameters;
+
+        /**
+         * The sort key values of the previous page.
+         */
+        private final Object[] after;
+
+        AfterParameterSource(final SqlParameterSource parameters, final Object... after) {
+            this.parameters = parameters;
+            this.after = after.clone();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasValue(final String paramName) {
+            return afterIndex(paramName) >= 0 || parameters.hasValue(paramName);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object getValue(final String paramName) {
+            final int index = afterIndex(paramName);
+            return index >= 0 ? after[index] : parameters.getValue(paramName);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getSqlType(final String paramName) {
+            return afterIndex(paramName) >= 0 ? TYPE_UNKNOWN : parameters.getSqlType(paramName);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getTypeName(final String paramName) {
+            return afterIndex(paramName) >= 0 ? null : parameters.getTypeName(paramName);
+        }
+
+        private int afterIndex(final String paramName) {
+            int index = -1;
+            if (paramName.startsWith(AFTER_PARAMETER)) {
+                try {
+                    index = Integer.parseInt(paramName.substring(AFTER_PARAMETER.length()));
+                } catch (NumberFormatException e) {
+                    index = -1;
+                }
+            }
+            return index < after.length ? index : -1;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.cache.CompactValueCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes the sort key values of the last row of a page as an opaque, URL-safe continuation token.
+ * <p>
+ * The token holds a fingerprint of the query name and sort keys, so a token is only accepted by the query that issued
+ * it. Values are decoded as scalars only, so a token crafted by a client cannot trigger Java deserialization.
+ */
+final class KeysetToken {
+
+    /**
+     * The version of the token format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The message of exceptions for invalid tokens.
+     */
+    private static final String INVALID_TOKEN = "Invalid continuation token.";
+
+    /**
+     * Utility constructor.
+     */
+    private KeysetToken() {
+        // Do nothing.
+    }
+
+    /**
+     * Encode the sort key values of a row.
+     *
+     * @param queryName the query name.
+     * @param sortKeys  the sort keys.
+     * @param values    the sort key values, in sort key order.
+     * @return the token.
+     * @throws IllegalStateException if a value is {@code null} or not of a scalar type.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public static String encode(final String queryName, final List<SortKey> sortKeys, final Object... values) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(fingerprint(queryName, sortKeys));
+            for (int index = 0; index < values.length; index++) {
+                if (values[index] == null || !CompactValueCodec.isScalar(values[index])) {
+                    throw new IllegalStateException("The value of sort key '" + sortKeys.get(index).getColumn()
+                            + "' of '" + queryName + "' is null or of an unsupported type.");
+                }
+                CompactValueCodec.write(out, values[index], false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decode a token.
+     *
+     * @param token     the token.
+     * @param queryName the query name.
+     * @param sortKeys  the sort keys.
+     * @return the sort key values, in sort key order.
+     * @throws IllegalArgumentException if the token is invalid, or was issued for another query.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public static Object[] decode(final String token, final String queryName, final List<SortKey> sortKeys) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (input.readUnsignedByte() != VERSION || input.readInt() != fingerprint(queryName, sortKeys)) {
+                throw new IllegalArgumentException(INVALID_TOKEN);
+            }
+            final Object[] values = new Object[sortKeys.size()];
+            for (int index = 0; index < values.length; index++) {
+                values[index] = CompactValueCodec.readScalar(input);
+            }
+            if (input.available() > 0) {
+                throw new IllegalArgumentException(INVALID_TOKEN);
+            }
+            return values;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(INVALID_TOKEN, e);
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static int fingerprint(final String queryName, final List<SortKey> sortKeys) {
+        return (queryName + sortKeys).hashCode();
+    }
+}
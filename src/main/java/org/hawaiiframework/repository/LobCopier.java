@@ -0,0 +1,24 @@
+package org.hawaiiframework.repository;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Function that copies a LOB column of the current row to a target.
+ *
+ * @see ResultSetUtil#copyBinaryStream(ResultSet, int, java.io.OutputStream)
+ */
+@FunctionalInterface
+interface LobCopier {
+
+    /**
+     * Copy the column.
+     *
+     * @param resultSet the result set, positioned at the row.
+     * @return the number of bytes or characters copied, or {@code -1} for SQL {@code NULL}.
+     * @throws SQLException in case of a database error.
+     * @throws IOException  in case of a write error.
+     */
+    long copy(ResultSet resultSet) throws SQLException, IOException;
+}
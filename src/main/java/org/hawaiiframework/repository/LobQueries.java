@@ -0,0 +1,116 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.OptionalLong;
+
+/**
+ * Reads of the named queries of a repository that copy a large object (LOB) value to a stream, channel or writer.
+ * <p>
+ * The value is copied through a fixed-size buffer while it is read, so a large document can be served without holding it
+ * in memory. Some drivers (PostgreSQL large objects, for one) only stream a LOB inside a transaction.
+ * <p>
+ * The query must select at most one row, for instance by primary key. Moving to the next row ends the stream of the
+ * current one, so a second row is only detected after the value of the first has been copied: the target has then
+ * received a value that the caller should discard.
+ *
+ * @see BaseJdbcRepository#lobQueries()
+ */
+public final class LobQueries {
+
+    /**
+     * The runner of the repository's queries.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * Constructor.
+     *
+     * @param runner The runner of the repository's queries.
+     */
+    LobQueries(final QueryRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Copy the binary (BLOB) value in the first column of the single row of the query to an output stream.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param out        the stream to copy to, which is not closed.
+     * @return the number of bytes copied, or empty if there is no row or the value is {@code NULL}.
+     * @throws IOException in case of a write error.
+     * @throws IncorrectResultSizeDataAccessException if the query returns more than one row, after copying the first.
+     */
+    public OptionalLong copyBlob(final String query, final SqlParameterSource parameters, final OutputStream out)
+            throws IOException {
+        return copyLob(query, parameters, resultSet -> ResultSetUtil.copyBinaryStream(resultSet, 1, out));
+    }
+
+    /**
+     * Copy the binary (BLOB) value in the first column of the single row of the query to a channel.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param channel    the channel to copy to, which is not closed.
+     * @return the number of bytes copied, or empty if there is no row or the value is {@code NULL}.
+     * @throws IOException in case of a write error.
+     * @see #copyBlob(String, SqlParameterSource, OutputStream)
+     */
+    public OptionalLong copyBlob(final String query, final SqlParameterSource parameters, final WritableByteChannel channel)
+            throws IOException {
+        return copyLob(query, parameters, resultSet -> ResultSetUtil.copyBinaryStream(resultSet, 1, channel));
+    }
+
+    /**
+     * Copy the character (CLOB) value in the first column of the single row of the query to a writer.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param out        the writer to copy to, which is not closed.
+     * @return the number of characters copied, or empty if there is no row or the value is {@code NULL}.
+     * @throws IOException in case of a write error.
+     * @see #copyBlob(String, SqlParameterSource, OutputStream)
+     */
+    public OptionalLong copyClob(final String query, final SqlParameterSource parameters, final Writer out)
+            throws IOException {
+        return copyLob(query, parameters, resultSet -> ResultSetUtil.copyCharacterStream(resultSet, 1, out));
+    }
+
+    @SuppressWarnings("PMD.ExceptionAsFlowControl")
+    private OptionalLong copyLob(final String query, final SqlParameterSource parameters, final LobCopier copier)
+            throws IOException {
+        try {
+            final Long count = runner.read(query, () -> runner.readTemplate().query(runner.sql(query), parameters,
+                (ResultSetExtractor<Long>) resultSet -> {
+                    if (!resultSet.next()) {
+                        return null;
+                    }
+                    try {
+                        return requireNoNextRow(resultSet, copier.copy(resultSet));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            return count == null || count < 0 ? OptionalLong.empty() : OptionalLong.of(count);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long requireNoNextRow(final ResultSet resultSet, final long copied) throws SQLException {
+        if (resultSet.next()) {
+            throw new IncorrectResultSizeDataAccessException(1, 2);
+        }
+        return copied;
+    }
+}
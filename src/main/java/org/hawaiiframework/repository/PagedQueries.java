@@ -0,0 +1,88 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Reads of the named queries of a repository one page at a time, using keyset (seek) pagination.
+ * <p>
+ * Instead of skipping the rows of the previous pages with an offset, a page starts after the sort key values of the last
+ * row of the previous page, which are carried in the continuation token. With an index on the sort keys, deep pages cost
+ * the same as the first page.
+ *
+ * @see BaseJdbcRepository#pagedQueries()
+ */
+public final class PagedQueries {
+
+    /**
+     * The runner of the repository's queries.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * The SQL dialect of the pages.
+     */
+    private KeysetDialect dialect = KeysetDialect.STANDARD;
+
+    /**
+     * Constructor.
+     *
+     * @param runner The runner of the repository's queries.
+     */
+    PagedQueries(final QueryRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Sets the SQL dialect of the pages, {@link KeysetDialect#STANDARD} by default.
+     *
+     * @param dialect the new value for dialect
+     */
+    public void setDialect(final KeysetDialect dialect) {
+        this.dialect = Objects.requireNonNull(dialect, "The dialect is required.");
+    }
+
+    /**
+     * Get a page of the query.
+     * <p>
+     * The query is wrapped in a select that adds the seek predicate and the order by, so the query itself should not order;
+     * the sort keys must be columns of its select list that together are unique and never {@code null}, such as
+     * {@code created_at} plus the primary key. The statement reads at most one row more than the page size, both by the
+     * limit clause of the {@linkplain #setDialect(KeysetDialect) dialect} and by the maximum number of rows of the statement.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param sortKeys   the sort keys.
+     * @param token      the continuation token of the previous page, or {@code null} for the first page.
+     * @param pageSize   the maximum number of items of the page.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type of the items.
+     * @return the page.
+     * @throws IllegalArgumentException if the token is invalid or was issued for another query.
+     */
+    @SuppressWarnings("try")
+    public <T> KeysetPage<T> getPage(final String query, final SqlParameterSource parameters, final List<SortKey> sortKeys,
+            final String token, final int pageSize, final RowMapper<T> rowMapper) {
+        if (pageSize < 1 || sortKeys.isEmpty()) {
+            throw new IllegalArgumentException("A keyset page needs a positive page size and at least one sort key.");
+        }
+        final Object[] after = token == null ? null : KeysetToken.decode(token, query, sortKeys);
+        final String sql = KeysetQuery.sql(runner.sql(query), sortKeys, after != null, dialect, pageSize + 1);
+        final List<T> items = new ArrayList<>(pageSize);
+        final Object[][] lastKeys = new Object[1][];
+        try (QueryContext context = QueryContext.enter(query);
+             Stream<T> rows = runner.openCursor(query, sql, runner.getQueryCache().getDerivedParsedSql(sql),
+                 KeysetQuery.parameters(parameters, after), QueryProfile.withMaxRows(runner.getProfile(query), pageSize + 1),
+                 pageSize + 1)
+                 .stream(KeysetQuery.rowMapper(rowMapper, pageSize, items, lastKeys, sortKeys))) {
+            final boolean hasNext = KeysetQuery.hasNext(rows, pageSize, items);
+            context.addRows(items.size());
+            return new KeysetPage<>(items, hasNext ? KeysetToken.encode(query, sortKeys, lastKeys[0]) : null);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reads of a key range of the named queries of a repository, split into partitions that are read in parallel.
+ * <p>
+ * The query selects the rows of one partition with the parameters {@code :range_from} and {@code :range_to}, see
+ * {@link KeyRange}. Each partition is read on the executor for asynchronous queries, on its own pooled connection and
+ * outside of the caller's transaction, so the degree of parallelism is bounded by both the number of partitions and the
+ * size of the executor. Do not read partitions from a thread of that executor. If a partition fails, partitions that have
+ * not started are skipped, the others are awaited, and the first failure is thrown with the other failures suppressed.
+ *
+ * @see BaseJdbcRepository#partitionedQueries()
+ */
+public final class PartitionedQueries {
+
+    /**
+     * The runner of the repository's queries.
+     */
+    private final QueryRunner runner;
+
+    /**
+     * The streaming reads to read a partition with.
+     */
+    private final CursorQueries cursorQueries;
+
+    /**
+     * The supplier of the executor for asynchronous queries.
+     */
+    private final Supplier<Executor> executor;
+
+    /**
+     * Constructor.
+     *
+     * @param runner        The runner of the repository's queries.
+     * @param cursorQueries The streaming reads to read a partition with.
+     * @param executor      The supplier of the executor for asynchronous queries.
+     */
+    PartitionedQueries(final QueryRunner runner, final CursorQueries cursorQueries, final Supplier<Executor> executor) {
+        this.runner = runner;
+        this.cursorQueries = cursorQueries;
+        this.executor = executor;
+    }
+
+    /**
+     * Read a key range with a range query, and return the rows in partition order.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param range      the key range to read.
+     * @param partitions the number of partitions.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type to return.
+     * @return the mapped rows of all partitions.
+     * @throws IllegalStateException if no executor for asynchronous queries has been set.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects a partition.
+     */
+    public <T> List<T> getListPartitioned(final String query, final SqlParameterSource parameters, final KeyRange range,
+            final int partitions, final RowMapper<T> rowMapper) {
+        final Function<KeyRange, List<T>> read = partitionRange -> runner.query(query, partitionRange.parameters(parameters), rowMapper);
+        final List<T> rows = new ArrayList<>();
+        for (final List<T> partition : runPartitions(range.split(partitions), read)) {
+            rows.addAll(partition);
+        }
+        return rows;
+    }
+
+    /**
+     * Hand each row of a key range to the callback handler.
+     * <p>
+     * The rows are not collected, so the memory used does not depend on the size of the range. The handler is invoked from
+     * several threads at once, so it must be thread-safe.
+     *
+     * @param query      query to use.
+     * @param parameters parameters to add to the query.
+     * @param range      the key range to read.
+     * @param partitions the number of partitions.
+     * @param handler    the thread-safe callback handler to invoke per row.
+     * @throws IllegalStateException if no executor for asynchronous queries has been set.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects a partition.
+     */
+    public void forEachRowPartitioned(final String query, final SqlParameterSource parameters, final KeyRange range,
+            final int partitions, final RowCallbackHandler handler) {
+        runPartitions(range.split(partitions), partitionRange -> {
+            cursorQueries.forEachRow(query, partitionRange.parameters(parameters), handler);
+            return partitionRange;
+        });
+    }
+
+    private <R> List<R> runPartitions(final List<KeyRange> ranges, final Function<KeyRange, R> partition) {
+        final Executor partitionExecutor = executor.get();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final List<CompletableFuture<R>> futures = new ArrayList<>(ranges.size());
+        for (final KeyRange range : ranges) {
+            final CompletableFuture<R> future = AsyncQueryExecutors.supplyAsync(
+                runner.inheritPrimary(partitionTask(range, partition, failed)), partitionExecutor);
+            if (future.isCompletedExceptionally()) {
+                failed.set(true);
+            }
+            futures.add(future);
+        }
+        return joinPartitions(futures);
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static <R> Supplier<R> partitionTask(final KeyRange range, final Function<KeyRange, R> partition,
+            final AtomicBoolean failed) {
+        return () -> {
+            // Once a partition has failed, the partitions that have not started are skipped.
+            if (failed.get()) {
+                return null;
+            }
+            try {
+                return partition.apply(range);
+            } catch (RuntimeException e) {
+                failed.set(true);
+                throw e;
+            }
+        };
+    }
+
+    private static <R> List<R> joinPartitions(final List<CompletableFuture<R>> futures) {
+        final List<R> results = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (final CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                final RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+}
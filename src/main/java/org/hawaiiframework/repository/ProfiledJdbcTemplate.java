@@ -0,0 +1,65 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * JDBC template that applies the {@link QueryProfile} of the named query of the current {@link QueryContext} to each
+ * statement it executes.
+ */
+final class ProfiledJdbcTemplate extends JdbcTemplate {
+
+    /**
+     * The supplier of the current profiles.
+     */
+    private final Supplier<QueryProfiles> queryProfiles;
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource    the data source.
+     * @param queryProfiles the supplier of the current profiles.
+     */
+    ProfiledJdbcTemplate(final DataSource dataSource, final Supplier<QueryProfiles> queryProfiles) {
+        super(dataSource);
+        this.queryProfiles = queryProfiles;
+    }
+
+    /**
+     * Apply the profile of the current named query to a statement.
+     *
+     * @param statement  the statement.
+     * @param profile    the profile, may be {@code null}.
+     * @param dataSource the data source the statement's connection was obtained from.
+     * @throws SQLException in case of an error.
+     */
+    public static void applyProfile(final Statement statement, final QueryProfile profile, final DataSource dataSource)
+            throws SQLException {
+        if (profile != null) {
+            if (profile.getFetchSize() != null) {
+                statement.setFetchSize(profile.getFetchSize());
+            }
+            if (profile.getMaxRows() != null) {
+                statement.setMaxRows(profile.getMaxRows());
+            }
+            if (profile.getQueryTimeout() != null) {
+                DataSourceUtils.applyTimeout(statement, dataSource, profile.getQueryTimeoutSeconds());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    protected void applyStatementSettings(final Statement statement) throws SQLException {
+        super.applyStatementSettings(statement);
+        applyProfile(statement, queryProfiles.get().get(QueryContext.currentQueryName(null)), getDataSource());
+    }
+}
@@ -0,0 +1,127 @@
+package org.hawaiiframework.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * The named query that the current thread is executing.
+ * <p>
+ * The {@link BaseJdbcRepository} enters a context around each statement it executes for a named query, so that JDBC-level
+ * listeners (such as datasource-proxy listeners) can attribute the statements they see to the query name. Contexts nest;
+ * closing a context restores the enclosing one.
+ */
+public final class QueryContext implements AutoCloseable {
+
+    /**
+     * The context of the current thread.
+     */
+    private static final ThreadLocal<QueryContext> THREAD_CONTEXT = new ThreadLocal<>();
+
+    /**
+     * The query name.
+     */
+    private final String queryName;
+
+    /**
+     * The enclosing context, may be {@code null}.
+     */
+    private final QueryContext parent;
+
+    /**
+     * The listeners to notify of the row count on close, by owner.
+     */
+    private Map<Object, LongConsumer> rowCountListeners;
+
+    /**
+     * The number of rows read in this context.
+     */
+    private long rowCount;
+
+    private QueryContext(final String queryName, final QueryContext parent) {
+        this.queryName = queryName;
+        this.parent = parent;
+    }
+
+    /**
+     * Enter a context for the query on the current thread.
+     *
+     * @param queryName the query name.
+     * @return the context, to be closed when the query has been executed.
+     */
+    public static QueryContext enter(final String queryName) {
+        final QueryContext context = new QueryContext(queryName, THREAD_CONTEXT.get());
+        THREAD_CONTEXT.set(context);
+        return context;
+    }
+
+    /**
+     * Get the context of the current thread.
+     *
+     * @return the context, or {@code null} if the current thread is not executing a named query.
+     */
+    public static QueryContext current() {
+        return THREAD_CONTEXT.get();
+    }
+
+    /**
+     * Get the name of the query the current thread is executing.
+     *
+     * @param defaultName the name to return if the current thread is not executing a named query.
+     * @return the query name.
+     */
+    public static String currentQueryName(final String defaultName) {
+        final QueryContext context = THREAD_CONTEXT.get();
+        if (context == null) {
+            return defaultName;
+        }
+        return context.queryName;
+    }
+
+    /**
+     * Gets the query name.
+     *
+     * @return queryName value
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Add to the number of rows read in this context.
+     *
+     * @param rows the number of rows.
+     */
+    public void addRows(final long rows) {
+        rowCount += rows;
+    }
+
+    /**
+     * Register a listener that is notified of the number of rows read when this context is closed. A second listener of
+     * the same owner is ignored, so a listener that sees every statement is notified only once per context.
+     *
+     * @param owner    the owner of the listener.
+     * @param listener the listener.
+     */
+    public void onClose(final Object owner, final LongConsumer listener) {
+        if (rowCountListeners == null) {
+            rowCountListeners = new LinkedHashMap<>();
+        }
+        rowCountListeners.putIfAbsent(owner, listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (parent == null) {
+            THREAD_CONTEXT.remove();
+        } else {
+            THREAD_CONTEXT.set(parent);
+        }
+        if (rowCountListeners != null) {
+            rowCountListeners.values().forEach(listener -> listener.accept(rowCount));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An open, forward-only and read-only cursor over the result of a named query.
+ * <p>
+ * The cursor holds on to its connection, statement and result set until it is closed. It is closed automatically once the
+ * last row has been read, and it is safe to close it more than once.
+ */
+final class QueryCursor implements AutoCloseable {
+
+    /**
+     * The task description used for exception translation.
+     */
+    private static final String TASK = "QueryCursor";
+
+    /**
+     * The data source the connection was obtained from.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The exception translator to use.
+     */
+    private final SQLExceptionTranslator exceptionTranslator;
+
+    /**
+     * The SQL, for exception translation.
+     */
+    private final String sql;
+
+    /**
+     * The connection.
+     */
+    private final Connection connection;
+
+    /**
+     * The statement.
+     */
+    private final PreparedStatement statement;
+
+    /**
+     * The result set.
+     */
+    private final ResultSet resultSet;
+
+    /**
+     * The number of rows read so far.
+     */
+    private int rowNum;
+
+    /**
+     * Flag to indicate the cursor has been closed.
+     */
+    private boolean closed;
+
+    private QueryCursor(final DataSource dataSource, final SQLExceptionTranslator exceptionTranslator, final String sql,
+            final Connection connection, final PreparedStatement statement, final ResultSet resultSet) {
+        this.dataSource = dataSource;
+        this.exceptionTranslator = exceptionTranslator;
+        this.sql = sql;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+    }
+
+    /**
+     * Open a cursor by executing the SQL with the given parameters.
+     *
+     * @param dataSource          The data source to obtain the connection from.
+     * @param exceptionTranslator The exception translator to use.
+     * @param sql                 The SQL with named parameters.
+     * @param parsedSql           The parsed SQL.
+     * @param parameters          The parameters to bind.
+     * @param profile             The profile of the query, may be {@code null}.
+     * @param fetchSize           The JDBC fetch size.
+     * @return the open cursor.
+     */
+    @SuppressWarnings({"PMD.CloseResource", "PMD.AvoidCatchingGenericException"})
+    public static QueryCursor open(final DataSource dataSource, final SQLExceptionTranslator exceptionTranslator, final String sql,
+            final ParsedSql parsedSql, final SqlParameterSource parameters, final QueryProfile profile, final int fetchSize) {
+        final String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, parameters);
+        final List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, parameters);
+        final Object[] values = NamedParameterUtils.buildValueArray(parsedSql, parameters, null);
+
+        final PreparedStatementCreatorFactory factory = new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
+        factory.setResultSetType(ResultSet.TYPE_FORWARD_ONLY);
+        factory.setUpdatableResults(false);
+
+        final Connection connection = DataSourceUtils.getConnection(dataSource);
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = factory.newPreparedStatementCreator(values).createPreparedStatement(connection);
+            ProfiledJdbcTemplate.applyProfile(statement, profile, dataSource);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+            return new QueryCursor(dataSource, exceptionTranslator, sql, connection, statement, resultSet);
+        } catch (SQLException e) {
+            release(dataSource, connection, statement, resultSet);
+            throw translate(exceptionTranslator, sql, e);
+        } catch (RuntimeException e) {
+            release(dataSource, connection, statement, resultSet);
+            throw e;
+        }
+    }
+
+    /**
+     * Expose the remaining rows as a stream. Closing the stream closes the cursor.
+     *
+     * @param rowMapper The row mapper to use.
+     * @param <T>       The type of the rows.
+     * @return the stream.
+     */
+    public <T> Stream<T> stream(final RowMapper<T> rowMapper) {
+        return StreamSupport.stream(new RowSpliterator<>(rowMapper), false).onClose(this::close);
+    }
+
+    /**
+     * Hand all remaining rows to the callback handler.
+     *
+     * @param handler The callback handler.
+     * @return the number of rows handed to the callback handler.
+     */
+    public long forEachRow(final RowCallbackHandler handler) {
+        long rowCount = 0;
+        try {
+            while (resultSet.next()) {
+                handler.processRow(resultSet);
+                rowCount++;
+            }
+            return rowCount;
+        } catch (SQLException e) {
+            throw translate(exceptionTranslator, sql, e);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            release(dataSource, connection, statement, resultSet);
+        }
+    }
+
+    private static void release(final DataSource dataSource, final Connection connection, final PreparedStatement statement,
+            final ResultSet resultSet) {
+        JdbcUtils.closeResultSet(resultSet);
+        JdbcUtils.closeStatement(statement);
+        DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+
+    private static DataAccessException translate(final SQLExceptionTranslator exceptionTranslator, final String sql,
+            final SQLException exception) {
+        final DataAccessException translated = exceptionTranslator.translate(TASK, sql, exception);
+        if (translated == null) {
+            return new UncategorizedSQLException(TASK, sql, exception);
+        }
+        return translated;
+    }
+
+    /**
+     * Spliterator that maps one row per advance.
+     *
+     * @param <T> The type of the rows.
+     */
+    private final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        /**
+         * The row mapper to use.
+         */
+        private final RowMapper<T> rowMapper;
+
+        /**
+         * Construct a spliterator of unknown size.
+         *
+         * @param rowMapper The row mapper to use.
+         */
+        RowSpliterator(final RowMapper<T> rowMapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rowMapper = rowMapper;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                final boolean advanced = resultSet.next();
+                if (advanced) {
+                    action.accept(rowMapper.mapRow(resultSet, rowNum++));
+                } else {
+                    close();
+                }
+                return advanced;
+            } catch (SQLException e) {
+                close();
+                throw translate(exceptionTranslator, sql, e);
+            }
+        }
+    }
+}
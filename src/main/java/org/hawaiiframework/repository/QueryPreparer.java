@@ -0,0 +1,103 @@
+package org.hawaiiframework.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Warms up the named queries of a repository by preparing each of them once.
+ *
+ * @see BaseJdbcRepository#warmUp()
+ */
+final class QueryPreparer {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryPreparer.class);
+
+    /**
+     * Utility constructor.
+     */
+    private QueryPreparer() {
+        // Do nothing.
+    }
+
+    /**
+     * Prepare the queries known to the runner on the primary, and on each of the replicas if there are.
+     *
+     * @param repositoryName the name of the repository.
+     * @param runner         the runner of the repository's queries.
+     * @return the report with the prepare time per query.
+     * @throws IllegalStateException if there are no queries to prepare, or if one or more queries cannot be prepared; all
+     *                               failures are reported.
+     */
+    public static QueryWarmUpReport warmUp(final String repositoryName, final QueryRunner runner) {
+        final Set<String> queries = new TreeSet<>(runner.getQueryCache().getQueryNames());
+        if (queries.isEmpty()) {
+            // The query resolver cannot enumerate its queries, so an empty warm-up would silently do nothing.
+            throw new IllegalStateException("There are no queries of '" + repositoryName + "' to warm up; preload them first.");
+        }
+        final Map<String, JdbcTemplate> targets = targets(runner);
+        final QueryWarmUpReport report = new QueryWarmUpReport(repositoryName);
+        for (final String query : queries) {
+            targets.forEach((target, template) -> report.add(prepare(runner, query, target, template)));
+        }
+        final List<QueryWarmUpReport.Result> failures = report.getFailures();
+        if (!failures.isEmpty()) {
+            final IllegalStateException exception = new IllegalStateException("Could not prepare " + failures.size()
+                    + " queries of '" + report.getRepositoryName() + "'.");
+            failures.forEach(failure -> exception.addSuppressed(failure.getFailure()));
+            throw exception;
+        }
+        return report;
+    }
+
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static Map<String, JdbcTemplate> targets(final QueryRunner runner) {
+        final Map<String, JdbcTemplate> targets = new LinkedHashMap<>();
+        targets.put("primary", runner.getJdbcTemplate());
+        final DataSource replicas = runner.getReplicaDataSource();
+        if (replicas instanceof ReplicaDataSource) {
+            // Each replica parses and caches its statements separately, so each of them is warmed up.
+            final List<DataSource> dataSources = ((ReplicaDataSource) replicas).getReplicas();
+            for (int index = 0; index < dataSources.size(); index++) {
+                targets.put("replica " + index, new JdbcTemplate(dataSources.get(index)));
+            }
+        } else if (replicas != null) {
+            targets.put("replica", new JdbcTemplate(replicas));
+        }
+        return targets;
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static QueryWarmUpReport.Result prepare(final QueryRunner runner, final String query, final String target,
+            final JdbcTemplate template) {
+        final long start = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            final String sql = NamedParameterUtils.substituteNamedParameters(runner.getQueryCache().getParsedSql(query), null);
+            template.execute((ConnectionCallback<Object>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    return statement.getMetaData();
+                }
+            });
+            LOGGER.debug("Prepared '{}' on the {}.", query, target);
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not prepare '{}' on the {}.", query, target, e);
+            failure = e;
+        }
+        return new QueryWarmUpReport.Result(query, target, Duration.ofNanos(System.nanoTime() - start), failure);
+    }
+}
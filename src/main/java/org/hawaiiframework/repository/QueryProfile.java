@@ -0,0 +1,157 @@
+package org.hawaiiframework.repository;
+
+import java.time.Duration;
+
+/**
+ * The execution settings of a named query, that override the defaults of the JDBC template.
+ * <p>
+ * Settings that are not set keep the defaults. The read-only hint decides where a repository with read replicas sends a
+ * read: a query that is not read-only always reads from the primary, for instance because it locks rows or must see the
+ * latest writes.
+ *
+ * @see QueryProfiles
+ */
+public class QueryProfile {
+
+    /**
+     * The JDBC fetch size, {@code null} for the default.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Integer fetchSize;
+
+    /**
+     * The maximum number of rows, {@code null} for the default.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Integer maxRows;
+
+    /**
+     * The query timeout, {@code null} for the default.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Duration queryTimeout;
+
+    /**
+     * The read-only hint, {@code null} for the default (read-only for reads).
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Boolean readOnly;
+
+    /**
+     * Set the JDBC fetch size, the number of rows the driver fetches per round-trip.
+     *
+     * @param fetchSize the fetch size.
+     * @return this profile.
+     */
+    public QueryProfile fetchSize(final int fetchSize) {
+        this.fetchSize = requirePositive(fetchSize, "fetch size");
+        return this;
+    }
+
+    /**
+     * Limit the number of rows the query returns.
+     *
+     * @param maxRows the maximum number of rows.
+     * @return this profile.
+     */
+    public QueryProfile maxRows(final int maxRows) {
+        this.maxRows = requirePositive(maxRows, "maximum number of rows");
+        return this;
+    }
+
+    /**
+     * Set the query timeout. Inside a transaction with a timeout, the remaining time of the transaction applies when it is
+     * shorter.
+     *
+     * @param queryTimeout the query timeout, rounded up to whole seconds.
+     * @return this profile.
+     */
+    public QueryProfile queryTimeout(final Duration queryTimeout) {
+        if (queryTimeout.isNegative() || queryTimeout.isZero()) {
+            throw new IllegalArgumentException(String.format("The query timeout must be positive, got %s.", queryTimeout));
+        }
+        this.queryTimeout = queryTimeout;
+        return this;
+    }
+
+    /**
+     * Set the read-only hint.
+     *
+     * @param readOnly {@code false} to always read from the primary.
+     * @return this profile.
+     */
+    public QueryProfile readOnly(final boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
+    /**
+     * Gets the fetch size.
+     *
+     * @return fetchSize value, {@code null} for the default
+     */
+    public Integer getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Gets the maximum number of rows.
+     *
+     * @return maxRows value, {@code null} for the default
+     */
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Gets the query timeout.
+     *
+     * @return queryTimeout value, {@code null} for the default
+     */
+    public Duration getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Gets the query timeout in whole seconds, rounded up.
+     *
+     * @return the timeout in seconds, or {@code -1} for the default
+     */
+    public int getQueryTimeoutSeconds() {
+        return queryTimeout == null ? -1 : (int) Math.max(1L, (queryTimeout.toMillis() + 999L) / 1000L);
+    }
+
+    /**
+     * Gets the read-only hint.
+     *
+     * @return readOnly value, {@code null} for the default
+     */
+    public Boolean getReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Copy a profile with another maximum number of rows.
+     *
+     * @param profile the profile to copy, may be {@code null} for the defaults.
+     * @param maxRows the maximum number of rows of the copy.
+     * @return the copy.
+     */
+    @SuppressWarnings("PMD.DefaultPackage")
+    static QueryProfile withMaxRows(final QueryProfile profile, final int maxRows) {
+        final QueryProfile copy = new QueryProfile().maxRows(maxRows);
+        if (profile != null) {
+            copy.fetchSize = profile.fetchSize;
+            copy.queryTimeout = profile.queryTimeout;
+            copy.readOnly = profile.readOnly;
+        }
+        return copy;
+    }
+
+    private static int requirePositive(final int value, final String description) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(String.format("The %s must be positive, got %d.", description, value));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,146 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The execution profiles of named queries.
+ * <p>
+ * Profiles can be loaded from a properties file, typically kept next to the SQL files, with one line per query name and
+ * setting:
+ * <pre>
+ * export/all-orders.fetchSize=5000
+ * export/all-orders.queryTimeout=300
+ * person/by-id.maxRows=2
+ * person/by-id-for-update.readOnly=false
+ * </pre>
+ * The query timeout is in seconds, and the read-only hint is either {@code true} or {@code false}.
+ */
+public class QueryProfiles {
+
+    /**
+     * Property suffix of the fetch size.
+     */
+    private static final String FETCH_SIZE = "fetchSize";
+
+    /**
+     * Property suffix of the maximum number of rows.
+     */
+    private static final String MAX_ROWS = "maxRows";
+
+    /**
+     * Property suffix of the query timeout.
+     */
+    private static final String QUERY_TIMEOUT = "queryTimeout";
+
+    /**
+     * Property suffix of the read-only hint.
+     */
+    private static final String READ_ONLY = "readOnly";
+
+    /**
+     * The profiles, by query name.
+     */
+    private final ConcurrentMap<String, QueryProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Load profiles from a properties resource.
+     *
+     * @param resource the resource.
+     * @return the profiles.
+     * @throws IllegalArgumentException if a property is invalid.
+     */
+    public static QueryProfiles load(final Resource resource) {
+        final Properties properties = new Properties();
+        try (InputStream input = resource.getInputStream()) {
+            properties.load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load query profiles from " + resource.getDescription() + ".", e);
+        }
+        return of(properties);
+    }
+
+    /**
+     * Create profiles from properties.
+     *
+     * @param properties the properties.
+     * @return the profiles.
+     * @throws IllegalArgumentException if a property is invalid.
+     */
+    @SuppressWarnings({"PMD.ShortMethodName", "PMD.LawOfDemeter", "PMD.AvoidInstantiatingObjectsInLoops"})
+    public static QueryProfiles of(final Properties properties) {
+        final QueryProfiles queryProfiles = new QueryProfiles();
+        for (final Map.Entry<Object, Object> entry : properties.entrySet()) {
+            final String key = String.valueOf(entry.getKey());
+            final int separator = key.lastIndexOf('.');
+            if (separator <= 0) {
+                throw new IllegalArgumentException(String.format("Invalid query profile property '%s'.", key));
+            }
+            final QueryProfile profile =
+                queryProfiles.profiles.computeIfAbsent(key.substring(0, separator), queryName -> new QueryProfile());
+            apply(profile, key, key.substring(separator + 1), String.valueOf(entry.getValue()).trim());
+        }
+        return queryProfiles;
+    }
+
+    /**
+     * Set the profile of a query.
+     *
+     * @param queryName the query name.
+     * @param profile   the profile.
+     * @return this instance.
+     */
+    public QueryProfiles profile(final String queryName, final QueryProfile profile) {
+        profiles.put(queryName, profile);
+        return this;
+    }
+
+    /**
+     * Get the profile of a query.
+     *
+     * @param queryName the query name, may be {@code null}.
+     * @return the profile, or {@code null} if the query has no profile.
+     */
+    public QueryProfile get(final String queryName) {
+        return queryName == null ? null : profiles.get(queryName);
+    }
+
+    private static void apply(final QueryProfile profile, final String key, final String setting, final String value) {
+        try {
+            switch (setting) {
+                case FETCH_SIZE:
+                    profile.fetchSize(Integer.parseInt(value));
+                    break;
+                case MAX_ROWS:
+                    profile.maxRows(Integer.parseInt(value));
+                    break;
+                case QUERY_TIMEOUT:
+                    profile.queryTimeout(Duration.ofSeconds(Long.parseLong(value)));
+                    break;
+                case READ_ONLY:
+                    profile.readOnly(parseBoolean(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown setting '%s'.", setting));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid query profile property '%s=%s'.", key, value), e);
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static boolean parseBoolean(final String value) {
+        if (!Boolean.TRUE.toString().equalsIgnoreCase(value) && !Boolean.FALSE.toString().equalsIgnoreCase(value)) {
+            throw new IllegalArgumentException("Expected true or false.");
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
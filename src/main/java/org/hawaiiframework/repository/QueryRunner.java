@@ -0,0 +1,369 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.sql.SqlQueryResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Runs the statements of the named queries of a repository.
+ * <p>
+ * The runner resolves and parses the queries once, routes reads to the primary or to the replicas, applies the query
+ * profiles, and enters a {@link QueryContext} around each statement. A {@link BaseJdbcRepository} and its query helpers,
+ * such as {@link CursorQueries}, share one runner.
+ */
+final class QueryRunner {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryRunner.class);
+
+    /**
+     * The default JDBC fetch size for streaming queries.
+     */
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Flag to indicate that the current thread reads from the primary.
+     */
+    private static final ThreadLocal<Boolean> READ_FROM_PRIMARY = new ThreadLocal<>();
+
+    /**
+     * The cache of resolved and parsed queries.
+     */
+    private final SqlQueryCache queryCache;
+
+    /**
+     * The primary data source.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The data source for reads, the primary if there are no replicas.
+     */
+    private final DataSource readDataSource;
+
+    /**
+     * Flag to indicate the reads outside transactions go to replicas.
+     */
+    private final boolean hasReplicas;
+
+    /**
+     * The JDBC template of the primary.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The JDBC template with named query parameters of the primary.
+     */
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * The JDBC template with named query parameters for reads.
+     */
+    private final NamedParameterJdbcTemplate readNamedParameterJdbcTemplate;
+
+    /**
+     * The execution profiles of the queries.
+     */
+    private QueryProfiles queryProfiles = new QueryProfiles();
+
+    /**
+     * Constructor.
+     *
+     * @param queryResolver The SQL query resolver.
+     * @param primary       The data source for updates, and for reads in transactions.
+     * @param replicas      The data source for reads, or {@code null} if there are no replicas.
+     */
+    QueryRunner(final SqlQueryResolver queryResolver, final DataSource primary, final DataSource replicas) {
+        this.queryCache = new SqlQueryCache(queryResolver);
+        this.dataSource = primary;
+        this.jdbcTemplate = new ProfiledJdbcTemplate(primary, this::getQueryProfiles);
+        this.namedParameterJdbcTemplate = new CachingNamedParameterJdbcTemplate(jdbcTemplate, queryCache);
+        this.hasReplicas = replicas != null;
+        if (replicas == null) {
+            this.readDataSource = primary;
+            this.readNamedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        } else {
+            this.readDataSource = replicas;
+            this.readNamedParameterJdbcTemplate = new CachingNamedParameterJdbcTemplate(
+                new ProfiledJdbcTemplate(replicas, this::getQueryProfiles), queryCache);
+        }
+    }
+
+    /**
+     * Gets the cache of resolved and parsed queries.
+     *
+     * @return queryCache value
+     */
+    public SqlQueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Get the SQL of the named query.
+     *
+     * @param query the query name.
+     * @return the SQL.
+     */
+    public String sql(final String query) {
+        return queryCache.getSql(query);
+    }
+
+    /**
+     * Gets the execution profiles of the queries.
+     *
+     * @return queryProfiles value
+     */
+    public QueryProfiles getQueryProfiles() {
+        return queryProfiles;
+    }
+
+    /**
+     * Sets the execution profiles of the queries.
+     *
+     * @param queryProfiles the new value for queryProfiles
+     */
+    public void setQueryProfiles(final QueryProfiles queryProfiles) {
+        this.queryProfiles = Objects.requireNonNull(queryProfiles);
+    }
+
+    /**
+     * Get the profile of the named query.
+     *
+     * @param query the query name.
+     * @return the profile, or {@code null} if the query has none.
+     */
+    public QueryProfile getProfile(final String query) {
+        return queryProfiles.get(query);
+    }
+
+    /**
+     * Get the fetch size of the query's profile, or the default fetch size.
+     *
+     * @param query the query name.
+     * @return the fetch size.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public int getFetchSize(final String query) {
+        final QueryProfile profile = queryProfiles.get(query);
+        return profile == null || profile.getFetchSize() == null ? DEFAULT_FETCH_SIZE : profile.getFetchSize();
+    }
+
+    /**
+     * Gets the JDBC template of the primary.
+     *
+     * @return jdbcTemplate value
+     */
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /**
+     * Gets the JDBC template with named query parameters of the primary.
+     *
+     * @return namedParameterJdbcTemplate value
+     */
+    public NamedParameterJdbcTemplate getNamedParameterJdbcTemplate() {
+        return namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Gets the primary data source.
+     *
+     * @return dataSource value
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Get the data source of the replicas.
+     *
+     * @return the data source, or {@code null} if there are no replicas.
+     */
+    public DataSource getReplicaDataSource() {
+        return hasReplicas ? readDataSource : null;
+    }
+
+    /**
+     * Get the JDBC template with named query parameters for a read of the current query.
+     *
+     * @return the template of the primary or of the replicas.
+     */
+    public NamedParameterJdbcTemplate readTemplate() {
+        return isReadFromPrimary() ? namedParameterJdbcTemplate : readNamedParameterJdbcTemplate;
+    }
+
+    /**
+     * Gets the exception translator of the primary.
+     *
+     * @return the exception translator.
+     */
+    public SQLExceptionTranslator getExceptionTranslator() {
+        return jdbcTemplate.getExceptionTranslator();
+    }
+
+    /**
+     * Perform the reads of the action on the primary.
+     *
+     * @param action the action to perform.
+     * @param <T>    the type to return.
+     * @return the value returned by the action.
+     */
+    public <T> T onPrimary(final Supplier<T> action) {
+        final Boolean previous = READ_FROM_PRIMARY.get();
+        READ_FROM_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                READ_FROM_PRIMARY.remove();
+            } else {
+                READ_FROM_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Wrap an action that runs on another thread, so that it reads from the primary if the current thread does.
+     *
+     * @param action the action.
+     * @param <T>    the type to return.
+     * @return the action to run on the other thread.
+     */
+    public <T> Supplier<T> inheritPrimary(final Supplier<T> action) {
+        return READ_FROM_PRIMARY.get() == null ? action : () -> onPrimary(action);
+    }
+
+    /**
+     * Read the rows of the query.
+     *
+     * @param query      the query name.
+     * @param parameters the parameters.
+     * @param rowMapper  the row mapper to use.
+     * @param <T>        the type of the rows.
+     * @return the mapped rows.
+     */
+    public <T> List<T> query(final String query, final SqlParameterSource parameters, final RowMapper<T> rowMapper) {
+        return read(query, () -> readTemplate().query(sql(query), parameters, rowMapper));
+    }
+
+    /**
+     * Execute a read within a query context, and record the number of rows read.
+     *
+     * @param query  the query name.
+     * @param action the read.
+     * @param <T>    the type to return.
+     * @return the value returned by the read.
+     */
+    @SuppressWarnings("try")
+    public <T> T read(final String query, final Supplier<T> action) {
+        try (QueryContext context = QueryContext.enter(query)) {
+            final T result = action.get();
+            context.addRows(countRows(result));
+            return result;
+        }
+    }
+
+    /**
+     * Execute a statement that does not read rows within a query context.
+     *
+     * @param query  the query name.
+     * @param action the statement.
+     * @param <T>    the type to return.
+     * @return the value returned by the statement.
+     */
+    public <T> T write(final String query, final Supplier<T> action) {
+        return withContext(query, action);
+    }
+
+    /**
+     * Execute an action within a query context, without recording rows, for instance opening a cursor whose rows are
+     * read later.
+     *
+     * @param query  the query name.
+     * @param action the action.
+     * @param <T>    the type to return.
+     * @return the value returned by the action.
+     */
+    @SuppressWarnings({"unused", "try"})
+    public <T> T withContext(final String query, final Supplier<T> action) {
+        try (QueryContext context = QueryContext.enter(query)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Open a cursor over the named query. Call this within the {@link QueryContext} of the query, which counts the rows
+     * read.
+     *
+     * @param query      the query name.
+     * @param parameters the parameters.
+     * @param fetchSize  the JDBC fetch size.
+     * @return the open cursor.
+     */
+    public QueryCursor openCursor(final String query, final SqlParameterSource parameters, final int fetchSize) {
+        return openCursor(query, sql(query), queryCache.getParsedSql(query), parameters, getProfile(query), fetchSize);
+    }
+
+    /**
+     * Open a cursor over SQL derived from the named query. Call this within the {@link QueryContext} of the query, which
+     * counts the rows read.
+     *
+     * @param query      the query name.
+     * @param sql        the SQL.
+     * @param parsedSql  the parsed SQL.
+     * @param parameters the parameters.
+     * @param profile    the profile of the statement, may be {@code null}.
+     * @param fetchSize  the JDBC fetch size.
+     * @return the open cursor.
+     */
+    public QueryCursor openCursor(final String query, final String sql, final ParsedSql parsedSql,
+            final SqlParameterSource parameters, final QueryProfile profile, final int fetchSize) {
+        try {
+            return QueryCursor.open(isReadFromPrimary() ? dataSource : readDataSource, getExceptionTranslator(), sql, parsedSql,
+                parameters, profile, fetchSize);
+        } catch (DataAccessException e) {
+            LOGGER.debug("Error performing '{}'.", query);
+            throw e;
+        }
+    }
+
+    /**
+     * Determine whether reads go to the primary: when there are no replicas, when a transaction is active, or when forced.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private boolean isReadFromPrimary() {
+        return !hasReplicas
+                || TransactionSynchronizationManager.isActualTransactionActive()
+                || READ_FROM_PRIMARY.get() != null
+                || !isReadOnly(queryProfiles.get(QueryContext.currentQueryName(null)));
+    }
+
+    private static boolean isReadOnly(final QueryProfile profile) {
+        return profile == null || profile.getReadOnly() == null || profile.getReadOnly();
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static long countRows(final Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        return result == null ? 0L : 1L;
+    }
+}
@@ -0,0 +1,52 @@
+package org.hawaiiframework.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms up the named queries of repositories once all singletons have been created, so before the application starts
+ * serving requests and before its readiness probe passes.
+ * <p>
+ * Warm-up is opt-in: declare this class as a bean, for instance with all {@link BaseJdbcRepository} beans injected. If a
+ * query cannot be prepared, or a repository has no known queries, the application fails to start.
+ */
+public class QueryWarmUp implements SmartInitializingSingleton {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryWarmUp.class);
+
+    /**
+     * The repositories.
+     */
+    private final List<BaseJdbcRepository> repositories;
+
+    /**
+     * Constructor.
+     *
+     * @param repositories the repositories to warm up.
+     */
+    public QueryWarmUp(final List<? extends BaseJdbcRepository> repositories) {
+        this.repositories = new ArrayList<>(repositories);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if a repository has no queries to prepare, or a query cannot be prepared.
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void afterSingletonsInstantiated() {
+        for (final BaseJdbcRepository repository : repositories) {
+            final QueryWarmUpReport report = repository.warmUp();
+            LOGGER.info("Warmed up {} queries of '{}' on {} data sources in {} ms.", report.getQueryCount(),
+                report.getRepositoryName(), report.getTargetCount(), report.getDuration().toMillis());
+        }
+    }
+}
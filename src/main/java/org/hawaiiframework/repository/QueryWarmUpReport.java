@@ -0,0 +1,167 @@
+package org.hawaiiframework.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The result of warming up the named queries of a repository.
+ *
+ * @see BaseJdbcRepository#warmUp()
+ */
+public class QueryWarmUpReport {
+
+    /**
+     * The name of the repository.
+     */
+    private final String repositoryName;
+
+    /**
+     * The results per query and data source.
+     */
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryName the name of the repository.
+     */
+    public QueryWarmUpReport(final String repositoryName) {
+        this.repositoryName = repositoryName;
+    }
+
+    /**
+     * Add the result of preparing a query.
+     *
+     * @param result the result.
+     */
+    @SuppressWarnings("PMD.DefaultPackage")
+    void add(final Result result) {
+        results.add(result);
+    }
+
+    /**
+     * Gets the name of the repository.
+     *
+     * @return repositoryName value
+     */
+    public String getRepositoryName() {
+        return repositoryName;
+    }
+
+    /**
+     * Gets the results per query and data source.
+     *
+     * @return the results
+     */
+    public List<Result> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Gets the number of distinct queries that were prepared.
+     *
+     * @return the query count
+     */
+    public long getQueryCount() {
+        return results.stream().map(Result::getQueryName).distinct().count();
+    }
+
+    /**
+     * Gets the number of distinct data sources the queries were prepared on.
+     *
+     * @return the target count
+     */
+    public long getTargetCount() {
+        return results.stream().map(Result::getTarget).distinct().count();
+    }
+
+    /**
+     * Gets the results of the queries that could not be prepared.
+     *
+     * @return the failures
+     */
+    public List<Result> getFailures() {
+        return results.stream().filter(result -> result.getFailure() != null).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the total prepare time.
+     *
+     * @return the duration
+     */
+    public Duration getDuration() {
+        return Duration.ofNanos(results.stream().mapToLong(result -> result.getDuration().toNanos()).sum());
+    }
+
+    /**
+     * The result of preparing one query against one data source.
+     */
+    public static final class Result {
+
+        /**
+         * The query name.
+         */
+        private final String queryName;
+
+        /**
+         * The description of the data source, {@code primary} or {@code replica}.
+         */
+        private final String target;
+
+        /**
+         * The time it took to resolve and prepare the query.
+         */
+        private final Duration duration;
+
+        /**
+         * The failure, {@code null} if the query was prepared.
+         */
+        private final RuntimeException failure;
+
+        Result(final String queryName, final String target, final Duration duration, final RuntimeException failure) {
+            this.queryName = queryName;
+            this.target = target;
+            this.duration = duration;
+            this.failure = failure;
+        }
+
+        /**
+         * Gets the query name.
+         *
+         * @return queryName value
+         */
+        public String getQueryName() {
+            return queryName;
+        }
+
+        /**
+         * Gets the description of the data source.
+         *
+         * @return target value
+         */
+        public String getTarget() {
+            return target;
+        }
+
+        /**
+         * Gets the time it took to resolve and prepare the query.
+         *
+         * @return duration value
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Gets the failure.
+         *
+         * @return failure value, {@code null} if the query was prepared
+         */
+        public RuntimeException getFailure() {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package org.hawaiiframework.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory copy of a small, mostly static table, such as country or status codes, indexed by primary key.
+ * <p>
+ * The table is loaded as a whole into an immutable snapshot, optionally with secondary indexes, and can be refreshed in
+ * the background. A refresh builds a new snapshot and swaps it in with a single volatile write, so lookups never lock and
+ * never see a half-loaded table. A failed refresh is logged and keeps the previous snapshot.
+ *
+ * @param <K> The type of the primary key.
+ * @param <V> The type of the rows.
+ * @see BaseJdbcRepository
+ */
+public class ReferenceTable<K, V> implements AutoCloseable {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceTable.class);
+
+    /**
+     * The name of the table, the query name.
+     */
+    private final String name;
+
+    /**
+     * The loader of all rows.
+     */
+    private final Supplier<List<V>> loader;
+
+    /**
+     * The function that extracts the primary key from a row.
+     */
+    private final Function<V, K> keyOf;
+
+    /**
+     * The functions that extract the secondary keys from a row, by index name.
+     */
+    private final Map<String, Function<V, ?>> indexKeyOf = new LinkedHashMap<>();
+
+    /**
+     * The current snapshot, {@code null} until loaded.
+     */
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile Snapshot<K, V> snapshot;
+
+    /**
+     * The thread that refreshes the table, {@code null} if not scheduled.
+     */
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Constructor.
+     *
+     * @param name   the name of the table, used for logging and thread names.
+     * @param loader the loader of all rows.
+     * @param keyOf  the function that extracts the primary key from a row.
+     */
+    public ReferenceTable(final String name, final Supplier<List<V>> loader, final Function<V, K> keyOf) {
+        this.name = name;
+        this.loader = loader;
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Add a secondary index. Rows with a {@code null} secondary key are left out of the index.
+     *
+     * @param indexName the name of the index.
+     * @param indexKey  the function that extracts the secondary key from a row.
+     * @return this table.
+     * @throws IllegalStateException if the table has been loaded.
+     */
+    @SuppressWarnings("PMD.AvoidSynchronizedAtMethodLevel")
+    public synchronized ReferenceTable<K, V> index(final String indexName, final Function<V, ?> indexKey) {
+        if (snapshot != null) {
+            throw new IllegalStateException(String.format("Indexes must be added to reference table '%s' before it is loaded.", name));
+        }
+        indexKeyOf.put(indexName, indexKey);
+        return this;
+    }
+
+    /**
+     * Load the table, if it has not been loaded, and refresh it periodically in the background.
+     *
+     * @param interval the time between refreshes.
+     * @return this table.
+     */
+    @SuppressWarnings("PMD.AvoidSynchronizedAtMethodLevel")
+    public synchronized ReferenceTable<K, V> refreshEvery(final Duration interval) {
+        if (snapshot == null) {
+            refresh();
+        }
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "reference-table-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long nanos = interval.toNanos();
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Load all rows and swap in the new snapshot. Refreshes are serialized, so a slow refresh cannot overwrite a later one.
+     *
+     * @throws IllegalStateException if two rows have the same primary key.
+     */
+    @SuppressWarnings({"PMD.AvoidSynchronizedAtMethodLevel", "PMD.PrematureDeclaration"})
+    public synchronized void refresh() {
+        final long start = System.nanoTime();
+        final List<V> rows = loader.get();
+        final Map<K, V> byKey = new HashMap<>(rows.size() * 2);
+        for (final V row : rows) {
+            final K key = keyOf.apply(row);
+            if (byKey.putIfAbsent(key, row) != null) {
+                throw new IllegalStateException(String.format("Reference table '%s' has more than one row with key '%s'.", name, key));
+            }
+        }
+        final Map<String, Map<Object, List<V>>> indexes = new HashMap<>();
+        indexKeyOf.forEach((indexName, indexKey) -> indexes.put(indexName, buildIndex(rows, indexKey)));
+        snapshot = new Snapshot<>(Collections.unmodifiableMap(byKey), indexes, Collections.unmodifiableList(rows), Instant.now());
+        LOGGER.debug("Loaded {} rows of reference table '{}' in {} ms.", rows.size(), name,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Get a row by primary key.
+     *
+     * @param key the primary key.
+     * @return the row, if any.
+     * @throws IllegalStateException if the table has not been loaded.
+     */
+    public Optional<V> get(final K key) {
+        return Optional.ofNullable(current().byKey.get(key));
+    }
+
+    /**
+     * Get the rows by secondary key.
+     *
+     * @param indexName the name of the index.
+     * @param indexKey  the secondary key.
+     * @return the rows, in load order.
+     * @throws IllegalArgumentException if the table has no index with the name.
+     * @throws IllegalStateException    if the table has not been loaded.
+     */
+    public List<V> getByIndex(final String indexName, final Object indexKey) {
+        final Map<Object, List<V>> index = current().indexes.get(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException(String.format("Reference table '%s' has no index '%s'.", name, indexName));
+        }
+        return index.getOrDefault(indexKey, Collections.emptyList());
+    }
+
+    /**
+     * Get all rows.
+     *
+     * @return the rows, in load order.
+     * @throws IllegalStateException if the table has not been loaded.
+     */
+    public Collection<V> values() {
+        return current().rows;
+    }
+
+    /**
+     * Gets the time the current snapshot was loaded.
+     *
+     * @return the load time, or {@code null} if the table has not been loaded
+     */
+    public Instant getLoadedAt() {
+        final Snapshot<K, V> current = snapshot;
+        return current == null ? null : current.loadedAt;
+    }
+
+    /**
+     * Stop refreshing the table. The last snapshot remains available.
+     */
+    @Override
+    @SuppressWarnings("PMD.AvoidSynchronizedAtMethodLevel")
+    public synchronized void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    private Snapshot<K, V> current() {
+        final Snapshot<K, V> current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException(String.format("Reference table '%s' has not been loaded.", name));
+        }
+        return current;
+    }
+
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static <V> Map<Object, List<V>> buildIndex(final List<V> rows, final Function<V, ?> indexKey) {
+        final Map<Object, List<V>> index = new HashMap<>();
+        for (final V row : rows) {
+            final Object key = indexKey.apply(row);
+            if (key != null) {
+                index.computeIfAbsent(key, ignored -> new ArrayList<>()).add(row);
+            }
+        }
+        index.replaceAll((key, values) -> Collections.unmodifiableList(values));
+        return Collections.unmodifiableMap(index);
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not refresh reference table '{}', keeping the rows loaded at {}.", name, getLoadedAt(), e);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the table.
+     *
+     * @param <K> The type of the primary key.
+     * @param <V> The type of the rows.
+     */
+    private static final class Snapshot<K, V> {
+
+        /**
+         * The rows, by primary key.
+         */
+        private final Map<K, V> byKey;
+
+        /**
+         * The secondary indexes, by index name.
+         */
+        private final Map<String, Map<Object, List<V>>> indexes;
+
+        /**
+         * The rows, in load order.
+         */
+        private final List<V> rows;
+
+        /**
+         * The load time.
+         */
+        private final Instant loadedAt;
+
+        Snapshot(final Map<K, V> byKey, final Map<String, Map<Object, List<V>>> indexes, final List<V> rows,
+                final Instant loadedAt) {
+            this.byKey = byKey;
+            this.indexes = indexes;
+            this.rows = rows;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
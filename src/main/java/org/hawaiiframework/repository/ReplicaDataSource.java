@@ -0,0 +1,156 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Data source that spreads connections over a number of read replicas.
+ * <p>
+ * If the selected replica fails to hand out a connection, the other replicas are tried in turn before the exception of the
+ * last attempt is thrown. For {@link ReplicaSelection#LEAST_BUSY} the connections are wrapped, to keep track of the number
+ * of connections in use per replica.
+ */
+public class ReplicaDataSource extends AbstractDataSource {
+
+    /**
+     * The method name of {@link Connection#close()}.
+     */
+    private static final String CLOSE = "close";
+
+    /**
+     * The replicas.
+     */
+    private final List<DataSource> replicas;
+
+    /**
+     * The selection strategy.
+     */
+    private final ReplicaSelection selection;
+
+    /**
+     * The counter used to select replicas in turn.
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * The number of connections in use, per replica.
+     */
+    private final AtomicIntegerArray inUse;
+
+    /**
+     * Constructor.
+     *
+     * @param replicas  the replicas, at least one.
+     * @param selection the selection strategy.
+     */
+    public ReplicaDataSource(final List<DataSource> replicas, final ReplicaSelection selection) {
+        super();
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required.");
+        }
+        this.replicas = new ArrayList<>(replicas);
+        this.selection = selection;
+        this.inUse = new AtomicIntegerArray(replicas.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        final int first = select();
+        SQLException failure = null;
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            final int index = (first + attempt) % replicas.size();
+            try {
+                return track(index, connect(replicas.get(index), username, password));
+            } catch (SQLException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Gets the replicas.
+     *
+     * @return replicas value
+     */
+    public List<DataSource> getReplicas() {
+        return Collections.unmodifiableList(replicas);
+    }
+
+    /**
+     * Gets the number of connections in use per replica, as far as tracked.
+     *
+     * @param index the index of the replica.
+     * @return the number of connections in use
+     */
+    public int getConnectionsInUse(final int index) {
+        return inUse.get(index);
+    }
+
+    private int select() {
+        final int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        if (selection == ReplicaSelection.ROUND_ROBIN) {
+            return start;
+        }
+        int selected = start;
+        for (int offset = 1; offset < replicas.size(); offset++) {
+            final int index = (start + offset) % replicas.size();
+            if (inUse.get(index) < inUse.get(selected)) {
+                selected = index;
+            }
+        }
+        return selected;
+    }
+
+    private static Connection connect(final DataSource replica, final String username, final String password)
+            throws SQLException {
+        return username == null ? replica.getConnection() : replica.getConnection(username, password);
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private Connection track(final int index, final Connection connection) {
+        if (selection == ReplicaSelection.ROUND_ROBIN) {
+            return connection;
+        }
+        inUse.incrementAndGet(index);
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (CLOSE.equals(method.getName()) && released.compareAndSet(false, true)) {
+                    inUse.decrementAndGet(index);
+                }
+                return invoke(connection, method, args);
+            });
+    }
+
+    private static Object invoke(final Connection connection, final Method method, final Object... args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
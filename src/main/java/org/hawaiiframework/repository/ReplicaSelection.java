@@ -0,0 +1,17 @@
+package org.hawaiiframework.repository;
+
+/**
+ * The strategy a {@link ReplicaDataSource} uses to select the replica for a new connection.
+ */
+public enum ReplicaSelection {
+
+    /**
+     * Select the replicas in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Select the replica with the fewest connections in use by this application; ties are broken in turn.
+     */
+    LEAST_BUSY
+}
@@ -1,14 +1,32 @@
 package org.hawaiiframework.repository;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 /**
  * Utility to extract null values from a result set.
+ * <p>
+ * Next to the boxed accessors there are primitive ones, that take a value to return for SQL {@code NULL} or return an
+ * optional, so that reading numeric columns does not allocate an object per row. LOB columns can be copied to a stream,
+ * so that large values are never held in memory as a whole.
  */
 public final class ResultSetUtil {
 
+    /**
+     * The size of the buffer used to copy LOB columns, in bytes.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
     /**
      * Utility constructor.
      */
@@ -28,6 +46,45 @@ public final class ResultSetUtil {
         return getValueOrNull(resultSet, resultSet.getInt(columnLabel));
     }
 
+    /**
+     * Returns the Integer value.
+     *
+     * @param resultSet   The result set.
+     * @param columnIndex The index of the column to retrieve.
+     * @return The integer value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public static Integer getInteger(final ResultSet resultSet, final int columnIndex) throws SQLException {
+        return getValueOrNull(resultSet, resultSet.getInt(columnIndex));
+    }
+
+    /**
+     * Returns the int value, without boxing.
+     *
+     * @param resultSet   The result set.
+     * @param columnLabel The column to retrieve.
+     * @param nullValue   The value to return for SQL {@code NULL}.
+     * @return The int value, or {@code nullValue}.
+     * @throws SQLException in case of an error.
+     */
+    public static int getInt(final ResultSet resultSet, final String columnLabel, final int nullValue) throws SQLException {
+        final int value = resultSet.getInt(columnLabel);
+        return resultSet.wasNull() ? nullValue : value;
+    }
+
+    /**
+     * Returns the int value as optional.
+     *
+     * @param resultSet   The result set.
+     * @param columnLabel The column to retrieve.
+     * @return The int value, or empty for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     */
+    public static OptionalInt getOptionalInt(final ResultSet resultSet, final String columnLabel) throws SQLException {
+        final int value = resultSet.getInt(columnLabel);
+        return resultSet.wasNull() ? OptionalInt.empty() : OptionalInt.of(value);
+    }
+
     /**
      * Returns the Long value.
      *
@@ -39,6 +96,46 @@ public final class ResultSetUtil {
     public static Long getLong(final ResultSet resultSet, final String columnLabel) throws SQLException {
         return getValueOrNull(resultSet, resultSet.getLong(columnLabel));
     }
+
+    /**
+     * Returns the Long value.
+     *
+     * @param resultSet   The result set.
+     * @param columnIndex The index of the column to retrieve.
+     * @return The long value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public static Long getLong(final ResultSet resultSet, final int columnIndex) throws SQLException {
+        return getValueOrNull(resultSet, resultSet.getLong(columnIndex));
+    }
+
+    /**
+     * Returns the long value, without boxing.
+     *
+     * @param resultSet   The result set.
+     * @param columnLabel The column to retrieve.
+     * @param nullValue   The value to return for SQL {@code NULL}.
+     * @return The long value, or {@code nullValue}.
+     * @throws SQLException in case of an error.
+     */
+    public static long getLong(final ResultSet resultSet, final String columnLabel, final long nullValue) throws SQLException {
+        final long value = resultSet.getLong(columnLabel);
+        return resultSet.wasNull() ? nullValue : value;
+    }
+
+    /**
+     * Returns the long value as optional.
+     *
+     * @param resultSet   The result set.
+     * @param columnLabel The column to retrieve.
+     * @return The long value, or empty for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     */
+    public static OptionalLong getOptionalLong(final ResultSet resultSet, final String columnLabel) throws SQLException {
+        final long value = resultSet.getLong(columnLabel);
+        return resultSet.wasNull() ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
     /**
      * Returns the Date value.
      *
@@ -52,6 +149,153 @@ public final class ResultSetUtil {
         return convert(sqlDate);
     }
 
+    /**
+     * Returns the Date value.
+     *
+     * @param resultSet   The result set.
+     * @param columnIndex The index of the column to retrieve.
+     * @return The date value, or {@code null}.
+     * @throws SQLException in case of an error.
+     */
+    public static Date getDate(final ResultSet resultSet, final int columnIndex) throws SQLException {
+        final java.sql.Date sqlDate = getValueOrNull(resultSet, resultSet.getDate(columnIndex));
+        return convert(sqlDate);
+    }
+
+    /**
+     * Copy a binary (BLOB) column to an output stream, through a fixed-size buffer, without reading the whole value in memory.
+     *
+     * @param resultSet   The result set.
+     * @param columnLabel The column to copy.
+     * @param out         The stream to copy to, which is not closed.
+     * @return The number of bytes copied, or {@code -1} for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     * @throws IOException  in case of a write error.
+     */
+    public static long copyBinaryStream(final ResultSet resultSet, final String columnLabel, final OutputStream out)
+            throws SQLException, IOException {
+        return copyBinaryStream(resultSet, resultSet.findColumn(columnLabel), out);
+    }
+
+    /**
+     * Copy a binary (BLOB) column to an output stream, through a fixed-size buffer, without reading the whole value in memory.
+     *
+     * @param resultSet   The result set.
+     * @param columnIndex The index of the column to copy.
+     * @param out         The stream to copy to, which is not closed.
+     * @return The number of bytes copied, or {@code -1} for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     * @throws IOException  in case of a write error.
+     */
+    public static long copyBinaryStream(final ResultSet resultSet, final int columnIndex, final OutputStream out)
+            throws SQLException, IOException {
+        try (InputStream input = resultSet.getBinaryStream(columnIndex)) {
+            if (input == null) {
+                return -1L;
+            }
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            long count = 0;
+            int read = input.read(buffer);
+            while (read >= 0) {
+                out.write(buffer, 0, read);
+                count += read;
+                read = input.read(buffer);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Copy a binary (BLOB) column to a channel, through a fixed-size buffer, without reading the whole value in memory.
+     *
+     * @param resultSet   The result set.
+     * @param columnLabel The column to copy.
+     * @param channel     The channel to copy to, which is not closed.
+     * @return The number of bytes copied, or {@code -1} for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     * @throws IOException  in case of a write error.
+     */
+    public static long copyBinaryStream(final ResultSet resultSet, final String columnLabel, final WritableByteChannel channel)
+            throws SQLException, IOException {
+        return copyBinaryStream(resultSet, resultSet.findColumn(columnLabel), channel);
+    }
+
+    /**
+     * Copy a binary (BLOB) column to a channel, through a fixed-size buffer, without reading the whole value in memory.
+     *
+     * @param resultSet   The result set.
+     * @param columnIndex The index of the column to copy.
+     * @param channel     The channel to copy to, which is not closed.
+     * @return The number of bytes copied, or {@code -1} for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     * @throws IOException  in case of a write error.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public static long copyBinaryStream(final ResultSet resultSet, final int columnIndex, final WritableByteChannel channel)
+            throws SQLException, IOException {
+        try (InputStream input = resultSet.getBinaryStream(columnIndex)) {
+            if (input == null) {
+                return -1L;
+            }
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            long count = 0;
+            int read = input.read(buffer);
+            while (read >= 0) {
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+                count += read;
+                read = input.read(buffer);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Copy a character (CLOB) column to a writer, through a fixed-size buffer, without reading the whole value in memory.
+     *
+     * @param resultSet   The result set.
+     * @param columnLabel The column to copy.
+     * @param out         The writer to copy to, which is not closed.
+     * @return The number of characters copied, or {@code -1} for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     * @throws IOException  in case of a write error.
+     */
+    public static long copyCharacterStream(final ResultSet resultSet, final String columnLabel, final Writer out)
+            throws SQLException, IOException {
+        return copyCharacterStream(resultSet, resultSet.findColumn(columnLabel), out);
+    }
+
+    /**
+     * Copy a character (CLOB) column to a writer, through a fixed-size buffer, without reading the whole value in memory.
+     *
+     * @param resultSet   The result set.
+     * @param columnIndex The index of the column to copy.
+     * @param out         The writer to copy to, which is not closed.
+     * @return The number of characters copied, or {@code -1} for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     * @throws IOException  in case of a write error.
+     */
+    public static long copyCharacterStream(final ResultSet resultSet, final int columnIndex, final Writer out)
+            throws SQLException, IOException {
+        try (Reader input = resultSet.getCharacterStream(columnIndex)) {
+            if (input == null) {
+                return -1L;
+            }
+            final char[] buffer = new char[BUFFER_SIZE / 2];
+            long count = 0;
+            int read = input.read(buffer);
+            while (read >= 0) {
+                out.write(buffer, 0, read);
+                count += read;
+                read = input.read(buffer);
+            }
+            return count;
+        }
+    }
+
     private static Date convert(final java.sql.Date sqlDate) {
         if (sqlDate == null) {
             return null;
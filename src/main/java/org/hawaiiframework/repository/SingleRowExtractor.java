@@ -0,0 +1,49 @@
+package org.hawaiiframework.repository;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Result set extractor that maps the only row of a result set, reading at most two rows.
+ * <p>
+ * Unlike {@code queryForObject}, an empty result set is not an exception but yields {@code null}.
+ *
+ * @param <T> The type of the row.
+ */
+final class SingleRowExtractor<T> implements ResultSetExtractor<T> {
+
+    /**
+     * The row mapper to use.
+     */
+    private final RowMapper<T> rowMapper;
+
+    /**
+     * Constructor.
+     *
+     * @param rowMapper the row mapper to use.
+     */
+    SingleRowExtractor(final RowMapper<T> rowMapper) {
+        this.rowMapper = rowMapper;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IncorrectResultSizeDataAccessException if the result set has more than one row.
+     */
+    @Override
+    public T extractData(final ResultSet resultSet) throws SQLException {
+        T result = null;
+        if (resultSet.next()) {
+            result = rowMapper.mapRow(resultSet, 0);
+            if (resultSet.next()) {
+                throw new IncorrectResultSizeDataAccessException(1, 2);
+            }
+        }
+        return result;
+    }
+}
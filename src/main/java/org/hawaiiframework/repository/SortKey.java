@@ -0,0 +1,80 @@
+package org.hawaiiframework.repository;
+
+import java.util.regex.Pattern;
+
+/**
+ * A column of the sort order of a keyset-paginated query.
+ *
+ * @see BaseJdbcRepository
+ */
+public final class SortKey {
+
+    /**
+     * The pattern of valid column labels; labels are inlined in the SQL, so they must be plain identifiers.
+     */
+    private static final Pattern COLUMN_LABEL = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * The column label.
+     */
+    private final String column;
+
+    /**
+     * Flag to indicate a descending sort order.
+     */
+    private final boolean descending;
+
+    private SortKey(final String column, final boolean descending) {
+        if (!COLUMN_LABEL.matcher(column).matches()) {
+            throw new IllegalArgumentException("The sort key '" + column + "' is not a plain column label.");
+        }
+        this.column = column;
+        this.descending = descending;
+    }
+
+    /**
+     * Create an ascending sort key.
+     *
+     * @param column the column label.
+     * @return the sort key.
+     */
+    public static SortKey asc(final String column) {
+        return new SortKey(column, false);
+    }
+
+    /**
+     * Create a descending sort key.
+     *
+     * @param column the column label.
+     * @return the sort key.
+     */
+    public static SortKey desc(final String column) {
+        return new SortKey(column, true);
+    }
+
+    /**
+     * Gets the column label.
+     *
+     * @return column value
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets whether the sort order is descending.
+     *
+     * @return descending value
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return column + (descending ? " desc" : " asc");
+    }
+}
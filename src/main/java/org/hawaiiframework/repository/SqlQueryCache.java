@@ -0,0 +1,161 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.sql.SqlQueryResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Cache of resolved and parsed named queries.
+ * <p>
+ * Each named query is resolved through the {@link SqlQueryResolver} and parsed for named parameters once, on first use or
+ * when preloaded. The parsed statements are looked up by their SQL, which allows the {@link CachingNamedParameterJdbcTemplate}
+ * to skip its own (synchronized, size-bounded) parse cache for named queries.
+ */
+public class SqlQueryCache {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlQueryCache.class);
+
+    /**
+     * The SQL query resolver.
+     */
+    private final SqlQueryResolver queryResolver;
+
+    /**
+     * The resolved SQL, by query name.
+     */
+    private final ConcurrentMap<String, String> queries = new ConcurrentHashMap<>();
+
+    /**
+     * The parsed statements, by resolved SQL.
+     */
+    private final ConcurrentMap<String, ParsedSql> parsedStatements = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with a query resolver.
+     *
+     * @param queryResolver The SQL query resolver.
+     */
+    public SqlQueryCache(final SqlQueryResolver queryResolver) {
+        this.queryResolver = queryResolver;
+    }
+
+    /**
+     * Get the SQL of the named query, resolving and parsing it if it is not cached yet.
+     *
+     * @param queryName the name of the query.
+     * @return the query string.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public String getSql(final String queryName) {
+        return queries.computeIfAbsent(queryName, this::resolve);
+    }
+
+    /**
+     * Get the parsed statement of the named query, resolving and parsing it if it is not cached yet.
+     *
+     * @param queryName the name of the query.
+     * @return the parsed statement.
+     */
+    public ParsedSql getParsedSql(final String queryName) {
+        final String sql = getSql(queryName);
+        final ParsedSql parsedSql = findParsedSql(sql);
+        if (parsedSql == null) {
+            return NamedParameterUtils.parseSqlStatement(sql);
+        }
+        return parsedSql;
+    }
+
+    /**
+     * Find the parsed statement for SQL that was resolved through this cache.
+     *
+     * @param sql the resolved SQL.
+     * @return the parsed statement, or {@code null} if the SQL is not the SQL of a cached query.
+     */
+    public ParsedSql findParsedSql(final String sql) {
+        return parsedStatements.get(sql);
+    }
+
+    /**
+     * Get the parsed statement of SQL derived from a named query, such as a paginated variant, parsing it on first use.
+     * <p>
+     * Derived statements stay cached until {@link #invalidateAll()}, so the number of distinct derived statements should be
+     * bounded.
+     *
+     * @param sql the derived SQL.
+     * @return the parsed statement.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public ParsedSql getDerivedParsedSql(final String sql) {
+        return parsedStatements.computeIfAbsent(sql, NamedParameterUtils::parseSqlStatement);
+    }
+
+    /**
+     * Resolve and parse the named queries, so that broken or missing queries are reported at startup.
+     *
+     * @param queryNames the names of the queries to preload.
+     * @throws IllegalStateException if one of the queries cannot be resolved or parsed.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public void preload(final Collection<String> queryNames) {
+        for (final String queryName : queryNames) {
+            try {
+                getSql(queryName);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Could not preload query '" + queryName + "'.", e);
+            }
+        }
+        LOGGER.debug("Preloaded {} queries.", queryNames.size());
+    }
+
+    /**
+     * Get the names of the queries that are currently cached.
+     *
+     * @return the query names.
+     */
+    public Set<String> getQueryNames() {
+        return unmodifiableSet(queries.keySet());
+    }
+
+    /**
+     * Remove the named query from the cache, so that it is resolved again on next use.
+     *
+     * @param queryName the name of the query.
+     */
+    public void invalidate(final String queryName) {
+        final String sql = queries.remove(queryName);
+        if (sql != null) {
+            parsedStatements.remove(sql);
+        }
+    }
+
+    /**
+     * Remove all queries from the cache, for instance after reloading the SQL files during development.
+     */
+    public void invalidateAll() {
+        queries.clear();
+        parsedStatements.clear();
+        LOGGER.debug("Invalidated all cached queries.");
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private String resolve(final String queryName) {
+        LOGGER.debug("Resolving query '{}'.", queryName);
+        final String sql = queryResolver.resolveSqlQuery(queryName);
+        if (sql != null) {
+            parsedStatements.computeIfAbsent(sql, NamedParameterUtils::parseSqlStatement);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,153 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.cache.InvalidationPublisher;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes the invalidation events of the updates of a repository.
+ * <p>
+ * Inside a transaction an event is published after commit, so listeners never evict ahead of the change and nothing is
+ * published for a rollback.
+ */
+final class UpdateInvalidation {
+
+    /**
+     * The names of the parameters that hold the keys of the changed rows, by update query.
+     */
+    private final Map<String, String> keyParameters = new ConcurrentHashMap<>();
+
+    /**
+     * The publisher, may be {@code null}.
+     */
+    private InvalidationPublisher publisher;
+
+    /**
+     * Sets the publisher.
+     *
+     * @param publisher the new value for publisher, may be {@code null}
+     */
+    public void setPublisher(final InvalidationPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Set the parameter of an update query that holds the key of the changed row.
+     *
+     * @param query        the update query.
+     * @param keyParameter the name of the key parameter.
+     */
+    public void setKeyParameter(final String query, final String keyParameter) {
+        keyParameters.put(query, keyParameter);
+    }
+
+    /**
+     * Collect the keys of an executed chunk of statements, to publish them later.
+     *
+     * @param query   the update query.
+     * @param chunk   the parameters of the chunk.
+     * @param changed the keys of the chunks executed so far.
+     */
+    public void collect(final String query, final List<SqlParameterSource> chunk, final ChangedKeys changed) {
+        if (publisher != null) {
+            changed.add(keyParameters.get(query), chunk);
+        }
+    }
+
+    /**
+     * Publish the invalidation event of an executed statement, after commit if a transaction is active.
+     *
+     * @param query      the update query.
+     * @param parameters the parameters of the statement.
+     */
+    public void publish(final String query, final SqlParameterSource parameters) {
+        final ChangedKeys changed = new ChangedKeys();
+        collect(query, List.of(parameters), changed);
+        publish(query, changed);
+    }
+
+    /**
+     * Publish the invalidation event of executed statements, after commit if a transaction is active. Nothing is published
+     * if no statement has executed.
+     *
+     * @param query   the update query.
+     * @param changed the keys of the executed statements.
+     */
+    public void publish(final String query, final ChangedKeys changed) {
+        final InvalidationPublisher eventPublisher = publisher;
+        if (eventPublisher == null || !changed.executed) {
+            return;
+        }
+        final List<Object> keys = changed.getKeys();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publish(query, keys);
+                }
+            });
+        } else {
+            eventPublisher.publish(query, keys);
+        }
+    }
+
+    /**
+     * The keys of the rows changed by the executed statements of an update.
+     */
+    static final class ChangedKeys {
+
+        /**
+         * The keys, {@code null} once a statement did not identify its rows.
+         */
+        private List<Object> keys = new ArrayList<>();
+
+        /**
+         * Flag to indicate a statement has executed.
+         */
+        private boolean executed;
+
+        @SuppressWarnings("PMD.LawOfDemeter")
+        private void add(final String keyParameter, final List<SqlParameterSource> chunk) {
+            executed = true;
+            if (keyParameter == null) {
+                keys = null;
+            }
+            for (int index = 0; keys != null && index < chunk.size(); index++) {
+                final SqlParameterSource parameters = chunk.get(index);
+                if (parameters.hasValue(keyParameter)) {
+                    addKey(parameters.getValue(keyParameter));
+                } else {
+                    keys = null;
+                }
+            }
+        }
+
+        private void addKey(final Object key) {
+            if (key instanceof Collection) {
+                keys.addAll((Collection<?>) key);
+            } else {
+                keys.add(key);
+            }
+        }
+
+        /**
+         * Gets the keys.
+         *
+         * @return the keys, empty if any row may have changed
+         */
+        public List<Object> getKeys() {
+            return keys == null ? Collections.emptyList() : keys;
+        }
+    }
+}
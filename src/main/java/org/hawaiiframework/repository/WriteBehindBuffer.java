@@ -0,0 +1,281 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.metrics.HistogramSnapshot;
+import org.hawaiiframework.repository.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Buffer that collects updates of one named query and writes them in batches, for high-volume data that may be lost, such
+ * as last-seen timestamps.
+ * <p>
+ * Updates are keyed, and a pending update is replaced by a later update with the same key, so only the last write of a
+ * key reaches the database. The buffer is flushed when it holds a batch worth of updates, periodically, and on
+ * {@link #close()}. Flushes are serialized, so the updates of a key are written in submission order. When the buffer holds
+ * the maximum number of pending updates, a new key is only added after the submitting thread has flushed the buffer itself
+ * (back-pressure), so the maximum is never exceeded. A batch that fails is logged and dropped.
+ *
+ * @see BaseJdbcRepository
+ */
+public class WriteBehindBuffer implements AutoCloseable {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    /**
+     * The name of the buffer, the query name.
+     */
+    private final String name;
+
+    /**
+     * The writer of a batch of updates.
+     */
+    private final Consumer<List<SqlParameterSource>> writer;
+
+    /**
+     * The settings.
+     */
+    private final WriteBehindSettings settings;
+
+    /**
+     * The thread that flushes the buffer.
+     */
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * The lock that guards the pending updates.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The lock that serializes flushes.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * Flag to indicate a size-triggered flush has been scheduled.
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * The flush latencies in microseconds.
+     */
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+
+    /**
+     * The number of updates submitted.
+     */
+    private final LongAdder submitted = new LongAdder();
+
+    /**
+     * The number of updates replaced by a later update of the same key.
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * The number of updates written.
+     */
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * The number of updates dropped because their batch failed.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The pending updates, by key.
+     */
+    private Map<Object, SqlParameterSource> pending = new LinkedHashMap<>();
+
+    /**
+     * Flag to indicate the buffer has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param name     the name of the buffer, used for logging and thread names.
+     * @param writer   the writer of a batch of updates.
+     * @param settings the settings.
+     */
+    public WriteBehindBuffer(final String name, final Consumer<List<SqlParameterSource>> writer,
+            final WriteBehindSettings settings) {
+        this.name = name;
+        this.writer = writer;
+        this.settings = settings;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "write-behind-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long interval = settings.getFlushInterval().toNanos();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Submit an update.
+     *
+     * @param key    the key of the updated data; a pending update with the same key is replaced.
+     * @param update the parameters of the update.
+     * @throws IllegalStateException if the buffer has been closed.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void submit(final Object key, final SqlParameterSource update) {
+        int size = offer(key, update);
+        while (size < 0) {
+            flush();
+            size = offer(key, update);
+        }
+        submitted.increment();
+        if (size >= settings.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Write all pending updates now.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void flush() {
+        synchronized (flushLock) {
+            final Map<Object, SqlParameterSource> batch;
+            synchronized (lock) {
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            flushScheduled.set(false);
+            if (!batch.isEmpty()) {
+                write(new ArrayList<>(batch.values()));
+            }
+        }
+    }
+
+    /**
+     * Flush the pending updates and stop the periodic flushes. Updates submitted after closing are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Gets the number of pending updates.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Gets the flush latencies, in microseconds.
+     *
+     * @return the snapshot of the flush latencies
+     */
+    public HistogramSnapshot getFlushLatency() {
+        return flushLatency.snapshot();
+    }
+
+    /**
+     * Gets the number of updates submitted.
+     *
+     * @return the submitted count
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * Gets the number of updates replaced by a later update of the same key.
+     *
+     * @return the coalesced count
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the number of updates written.
+     *
+     * @return the written count
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Gets the number of updates dropped because their batch failed.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Add or replace the pending update of a key, unless that would exceed the maximum number of pending updates.
+     *
+     * @return the number of pending updates, or {@code -1} if the buffer is full.
+     */
+    private int offer(final Object key, final SqlParameterSource update) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("The write-behind buffer '" + name + "' has been closed.");
+            }
+            if (pending.size() >= settings.getMaximumPending() && !pending.containsKey(key)) {
+                return -1;
+            }
+            if (pending.put(key, update) != null) {
+                coalesced.increment();
+            }
+            return pending.size();
+        }
+    }
+
+    @SuppressWarnings({"PMD.AvoidCatchingGenericException", "PMD.LawOfDemeter"})
+    private void write(final List<SqlParameterSource> batch) {
+        final long start = System.nanoTime();
+        try {
+            writer.accept(batch);
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            dropped.add(batch.size());
+            LOGGER.warn("Dropped {} updates of '{}' after a failed flush.", batch.size(), name, e);
+        } finally {
+            flushLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Flush on the flusher thread, where an exception would stop the periodic flushes.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not flush '{}'.", name, e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.hawaiiframework.repository;
+
+import java.time.Duration;
+
+/**
+ * Settings of a {@link WriteBehindBuffer}.
+ * <p>
+ * By default a buffer holds at most {@value #DEFAULT_MAXIMUM_PENDING} pending updates, writes them in batches of
+ * {@value #DEFAULT_BATCH_SIZE} statements, and flushes every second.
+ */
+public class WriteBehindSettings {
+
+    /**
+     * The default maximum number of pending updates.
+     */
+    public static final int DEFAULT_MAXIMUM_PENDING = 10_000;
+
+    /**
+     * The default number of statements per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * The maximum number of pending updates.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private int maximumPending = DEFAULT_MAXIMUM_PENDING;
+
+    /**
+     * The number of statements per batch, also the number of pending updates that triggers a flush.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * The time between periodic flushes.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Duration flushInterval = Duration.ofSeconds(1L);
+
+    /**
+     * Limit the number of pending updates. When the limit is reached, the thread that submits an update flushes the buffer
+     * itself, which slows down producers that outpace the database.
+     *
+     * @param maximumPending the maximum number of pending updates.
+     * @return this settings instance.
+     */
+    public WriteBehindSettings maximumPending(final int maximumPending) {
+        if (maximumPending <= 0) {
+            throw new IllegalArgumentException(
+                String.format("The maximum number of pending updates must be positive, got %d.", maximumPending));
+        }
+        this.maximumPending = maximumPending;
+        return this;
+    }
+
+    /**
+     * Set the number of statements per batch.
+     *
+     * @param batchSize the number of statements per batch.
+     * @return this settings instance.
+     */
+    public WriteBehindSettings batchSize(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(String.format("The batch size must be positive, got %d.", batchSize));
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Set the time between periodic flushes.
+     *
+     * @param flushInterval the time between flushes.
+     * @return this settings instance.
+     */
+    public WriteBehindSettings flushInterval(final Duration flushInterval) {
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException(String.format("The flush interval must be positive, got %s.", flushInterval));
+        }
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    /**
+     * Gets maximumPending.
+     *
+     * @return maximumPending value
+     */
+    public int getMaximumPending() {
+        return maximumPending;
+    }
+
+    /**
+     * Gets batchSize.
+     *
+     * @return batchSize value
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Gets flushInterval.
+     *
+     * @return flushInterval value
+     */
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+}
@@ -0,0 +1,288 @@
+package org.hawaiiframework.repository.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * The cached results of one query.
+ * <p>
+ * Writes take the region's lock to keep the access order and total weight consistent; when the region is over its maximum
+ * weight the least recently used entries are evicted first. Lookups never wait for the lock: a hit is moved to the most
+ * recently used end only if the lock is free, so under heavy contention the order is approximate.
+ * <p>
+ * A result whose load started before the latest eviction is not stored, so a load that races with an update cannot bring
+ * back the value the update evicted.
+ */
+final class CacheRegion {
+
+    /**
+     * The settings of the region.
+     */
+    private final QueryCacheSettings settings;
+
+    /**
+     * The time to live of an entry, in nanoseconds.
+     */
+    private final long timeToLiveNanos;
+
+    /**
+     * The counters of the region.
+     */
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    /**
+     * The entries, by key.
+     */
+    private final ConcurrentMap<QueryCacheKey, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The keys from least to most recently used, guarded by {@link #lock}.
+     */
+    private final Map<QueryCacheKey, Boolean> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The lock for writes and for the access order.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The total weight of the entries, guarded by {@link #lock}.
+     */
+    private long weight;
+
+    /**
+     * The {@link System#nanoTime()} of the latest eviction, guarded by {@link #lock}.
+     */
+    private long lastEviction = System.nanoTime();
+
+    /**
+     * Construct a region.
+     *
+     * @param settings the settings of the region.
+     */
+    CacheRegion(final QueryCacheSettings settings) {
+        this.settings = settings;
+        this.timeToLiveNanos = settings.getTimeToLive().toNanos();
+    }
+
+    /**
+     * Look up a cached result.
+     *
+     * @param key the key.
+     * @return the cached value, or {@code null} on a cache miss.
+     */
+    public CachedValue get(final QueryCacheKey key) {
+        CachedValue result = null;
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.isExpired(System.nanoTime())) {
+                if (remove(key, entry)) {
+                    statistics.recordExpiration();
+                }
+            } else {
+                result = entry.value;
+                touch(key);
+            }
+        }
+        if (result == null) {
+            statistics.recordMiss();
+        } else {
+            statistics.recordHit();
+        }
+        return result;
+    }
+
+    /**
+     * Store a result, unless it is {@code null} and the region does not cache {@code null} results, or an eviction
+     * happened since the load of the result started.
+     *
+     * @param key       the key.
+     * @param value     the value, may be {@code null}.
+     * @param loadNanos the time it took to load the value, in nanoseconds.
+     */
+    public void put(final QueryCacheKey key, final Object value, final long loadNanos) {
+        if (value == null && !settings.isCacheNulls()) {
+            return;
+        }
+        final long now = System.nanoTime();
+        long entryWeight = 1L;
+        if (value != null) {
+            entryWeight = settings.getWeigher().applyAsLong(value);
+        }
+        final Entry entry = new Entry(CachedValue.of(value), entryWeight, now + timeToLiveNanos);
+        lock.lock();
+        try {
+            if (lastEviction - (now - loadNanos) < 0) {
+                final Entry previous = entries.put(key, entry);
+                if (previous != null) {
+                    weight -= previous.weight;
+                }
+                accessOrder.put(key, Boolean.TRUE);
+                weight += entryWeight;
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove a single result.
+     *
+     * @param key the key.
+     */
+    public void evict(final QueryCacheKey key) {
+        lock.lock();
+        try {
+            lastEviction = System.nanoTime();
+            final Entry removed = entries.remove(key);
+            if (removed != null) {
+                accessOrder.remove(key);
+                weight -= removed.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the results whose keys match.
+     *
+     * @param matches the predicate of the keys to remove.
+     */
+    public void evictIf(final Predicate<QueryCacheKey> matches) {
+        lock.lock();
+        try {
+            lastEviction = System.nanoTime();
+            final Iterator<QueryCacheKey> keys = accessOrder.keySet().iterator();
+            while (keys.hasNext()) {
+                final QueryCacheKey key = keys.next();
+                if (matches.test(key)) {
+                    keys.remove();
+                    weight -= entries.remove(key).weight;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove all results.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            lastEviction = System.nanoTime();
+            entries.clear();
+            accessOrder.clear();
+            weight = 0L;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove all expired results.
+     */
+    public void removeExpired() {
+        final long now = System.nanoTime();
+        entries.forEach((key, entry) -> {
+            if (entry.isExpired(now) && remove(key, entry)) {
+                statistics.recordExpiration();
+            }
+        });
+    }
+
+    /**
+     * Gets the counters of the region.
+     *
+     * @return the statistics
+     */
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void touch(final QueryCacheKey key) {
+        if (lock.tryLock()) {
+            try {
+                accessOrder.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean remove(final QueryCacheKey key, final Entry entry) {
+        lock.lock();
+        try {
+            final boolean removed = entries.remove(key, entry);
+            if (removed) {
+                accessOrder.remove(key);
+                weight -= entry.weight;
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow() {
+        final Iterator<QueryCacheKey> eldest = accessOrder.keySet().iterator();
+        while (weight > settings.getMaximumWeight() && eldest.hasNext()) {
+            final Entry evicted = entries.remove(eldest.next());
+            eldest.remove();
+            weight -= evicted.weight;
+            statistics.recordEviction();
+        }
+    }
+
+    /**
+     * A cached value with its weight and expiry time.
+     */
+    private static final class Entry {
+
+        /**
+         * The cached value.
+         */
+        private final CachedValue value;
+
+        /**
+         * The weight of the value.
+         */
+        private final long weight;
+
+        /**
+         * The {@link System#nanoTime()} at which the entry expires.
+         */
+        private final long expiresAt;
+
+        /**
+         * Construct an entry.
+         *
+         * @param value     the cached value.
+         * @param weight    the weight of the value.
+         * @param expiresAt the {@link System#nanoTime()} at which the entry expires.
+         */
+        Entry(final CachedValue value, final long weight, final long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Check whether the entry has expired.
+         *
+         * @param now the current {@link System#nanoTime()}.
+         * @return {@code true} if the entry has expired.
+         */
+        public boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
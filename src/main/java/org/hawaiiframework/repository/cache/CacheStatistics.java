@@ -0,0 +1,102 @@
+package org.hawaiiframework.repository.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a cache region.
+ */
+public class CacheStatistics {
+
+    /**
+     * The number of lookups that found a value.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups that found no value.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The number of entries removed to stay within the size or weight limit.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The number of entries removed because their time to live had passed.
+     */
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Record a hit.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Record a miss.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Record an eviction.
+     */
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * Record an expiration.
+     */
+    public void recordExpiration() {
+        expirations.increment();
+    }
+
+    /**
+     * Gets the number of lookups that found a value.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found no value.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entries removed to stay within the size or weight limit.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of entries removed because their time to live had passed.
+     *
+     * @return the number of expirations
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount()
+            + ", expirations=" + getExpirationCount();
+    }
+}
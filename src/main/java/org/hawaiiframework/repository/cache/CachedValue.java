@@ -0,0 +1,46 @@
+package org.hawaiiframework.repository.cache;
+
+/**
+ * A value found in a {@link QueryResultCache}.
+ * <p>
+ * The wrapper allows a cache to distinguish a cached {@code null}, for queries that found no result, from a cache miss.
+ */
+public final class CachedValue {
+
+    /**
+     * The cached {@code null}.
+     */
+    private static final CachedValue NULL = new CachedValue(null);
+
+    /**
+     * The value.
+     */
+    private final Object value;
+
+    private CachedValue(final Object value) {
+        this.value = value;
+    }
+
+    /**
+     * Wrap a cached value.
+     *
+     * @param value the value, may be {@code null}.
+     * @return the wrapper.
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public static CachedValue of(final Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        return new CachedValue(value);
+    }
+
+    /**
+     * Gets the value.
+     *
+     * @return the value, may be {@code null}
+     */
+    public Object getValue() {
+        return value;
+    }
+}
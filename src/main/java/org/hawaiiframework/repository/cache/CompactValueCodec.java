@@ -0,0 +1,242 @@
+package org.hawaiiframework.repository.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of cached values.
+ * <p>
+ * The types that typically come out of a result set (strings, numbers, dates and times, UUIDs, byte arrays) and lists and
+ * arrays of them are written with a one byte type tag and variable-length integers. Other values must be
+ * {@link Serializable}; they may fall back to Java serialization. Java-serialized values are only decoded with an
+ * {@link ObjectInputFilter} that names the classes to accept, since deserializing arbitrary classes from a shared store
+ * lets anyone who can write to the store run code.
+ */
+public final class CompactValueCodec {
+
+    /**
+     * Tag for {@link List}, decoded as an {@link ArrayList}. The tags of the scalar types are defined by {@link ScalarCodec}.
+     */
+    private static final int LIST = 14;
+
+    /**
+     * Tag for object arrays, decoded as an {@code Object[]}.
+     */
+    private static final int ARRAY = 15;
+
+    /**
+     * Tag for Java-serialized values.
+     */
+    private static final int SERIALIZED = 16;
+
+    /**
+     * Utility constructor.
+     */
+    private CompactValueCodec() {
+        // Do nothing.
+    }
+
+    /**
+     * Encode a value, falling back to Java serialization for values of other types.
+     *
+     * @param value the value, may be {@code null}.
+     * @return the encoded value.
+     * @throws IllegalArgumentException if the value is neither of a supported type nor serializable.
+     */
+    public static byte[] encode(final Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, value, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a value, rejecting Java-serialized values.
+     *
+     * @param bytes the encoded value.
+     * @return the value, may be {@code null}.
+     * @throws IllegalArgumentException if the bytes are not a valid encoding, or contain a Java-serialized value.
+     */
+    public static Object decode(final byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return read(input, null);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not decode value.", e);
+        }
+    }
+
+    /**
+     * Write a value, falling back to Java serialization for values of other types if allowed.
+     *
+     * @param out       the output to write to.
+     * @param value     the value, may be {@code null}.
+     * @param serialize whether values of other types are written with Java serialization.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the value is not of a supported type, and is not serializable or may not be
+     *                                  serialized.
+     */
+    public static void write(final DataOutput out, final Object value, final boolean serialize) throws IOException {
+        if (ScalarCodec.isScalar(value)) {
+            ScalarCodec.write(out, value);
+        } else if (value instanceof List) {
+            writeElements(out, LIST, (List<?>) value, serialize);
+        } else if (value instanceof Object[]) {
+            writeElements(out, ARRAY, Arrays.asList((Object[]) value), serialize);
+        } else if (serialize && value instanceof Serializable) {
+            out.writeByte(SERIALIZED);
+            ScalarCodec.writeBytes(out, serialize(value));
+        } else {
+            throw new IllegalArgumentException(String.format("Cannot encode a value of type '%s'.", value.getClass().getName()));
+        }
+    }
+
+    /**
+     * Read a value.
+     *
+     * @param input  the input to read from.
+     * @param filter the filter of the classes of Java-serialized values, or {@code null} to reject Java-serialized values.
+     * @return the value, may be {@code null}.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the input contains an unknown type tag, or a Java-serialized value that is rejected.
+     */
+    public static Object read(final DataInput input, final ObjectInputFilter filter) throws IOException {
+        final int tag = input.readUnsignedByte();
+        final Object value;
+        if (ScalarCodec.isScalarTag(tag)) {
+            value = ScalarCodec.read(tag, input);
+        } else if (tag == LIST) {
+            value = readElements(input, filter);
+        } else if (tag == ARRAY) {
+            value = readElements(input, filter).toArray();
+        } else if (tag == SERIALIZED && filter != null) {
+            value = readSerialized(input, filter);
+        } else {
+            throw unsupportedTag(tag);
+        }
+        return value;
+    }
+
+    /**
+     * Check whether a value is {@code null} or of one of the scalar types the codec encodes natively.
+     *
+     * @param value the value.
+     * @return {@code true} if the value is encoded without lists, arrays or Java serialization.
+     */
+    public static boolean isScalar(final Object value) {
+        return ScalarCodec.isScalar(value);
+    }
+
+    /**
+     * Check whether a value can be written: whether it is {@code null}, of a scalar type, a list or array of values that can
+     * be written, or serializable if Java serialization is allowed.
+     *
+     * @param value     the value.
+     * @param serialize whether values of other types are written with Java serialization.
+     * @return {@code true} if {@link #write(DataOutput, Object, boolean)} accepts the value's type.
+     */
+    public static boolean canEncode(final Object value, final boolean serialize) {
+        final boolean encodable;
+        if (value instanceof List) {
+            encodable = ((List<?>) value).stream().allMatch(element -> canEncode(element, serialize));
+        } else if (value instanceof Object[]) {
+            encodable = Arrays.stream((Object[]) value).allMatch(element -> canEncode(element, serialize));
+        } else {
+            encodable = isScalar(value) || serialize && value instanceof Serializable;
+        }
+        return encodable;
+    }
+
+    /**
+     * Read a scalar value, rejecting lists, arrays and Java-serialized values, so that input that is not trusted (such as
+     * a token supplied by a client) cannot trigger deserialization.
+     *
+     * @param input the input to read from.
+     * @return the value, may be {@code null}.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the input contains an unknown or non-scalar type tag.
+     */
+    public static Object readScalar(final DataInput input) throws IOException {
+        final int tag = input.readUnsignedByte();
+        if (!ScalarCodec.isScalarTag(tag)) {
+            throw unsupportedTag(tag);
+        }
+        return ScalarCodec.read(tag, input);
+    }
+
+    /**
+     * Write a signed long as a zig-zag encoded variable-length integer of one to ten bytes.
+     *
+     * @param out   the output to write to.
+     * @param value the value.
+     * @throws IOException in case of an I/O error.
+     */
+    public static void writeVarLong(final DataOutput out, final long value) throws IOException {
+        ScalarCodec.writeVarLong(out, value);
+    }
+
+    /**
+     * Read a zig-zag encoded variable-length integer.
+     *
+     * @param input the input to read from.
+     * @return the value.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the integer is longer than ten bytes.
+     */
+    public static long readVarLong(final DataInput input) throws IOException {
+        return ScalarCodec.readVarLong(input);
+    }
+
+    private static void writeElements(final DataOutput out, final int tag, final List<?> elements, final boolean serialize)
+            throws IOException {
+        ScalarCodec.writeTagged(out, tag, elements.size());
+        for (final Object element : elements) {
+            write(out, element, serialize);
+        }
+    }
+
+    private static List<Object> readElements(final DataInput input, final ObjectInputFilter filter) throws IOException {
+        final int size = ScalarCodec.readLength(input);
+        final List<Object> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(read(input, filter));
+        }
+        return elements;
+    }
+
+    private static byte[] serialize(final Object value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object readSerialized(final DataInput input, final ObjectInputFilter filter) throws IOException {
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(ScalarCodec.readBytes(input)))) {
+            objects.setObjectInputFilter(filter);
+            return objects.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Could not deserialize value.", e);
+        }
+    }
+
+    private static IllegalArgumentException unsupportedTag(final int tag) {
+        return new IllegalArgumentException(String.format("Unsupported type tag %d.", tag));
+    }
+}
@@ -0,0 +1,16 @@
+package org.hawaiiframework.repository.cache;
+
+/**
+ * Channel that carries {@link InvalidationEvent}s to the other nodes of the application.
+ *
+ * @see RedisInvalidationChannel
+ */
+public interface InvalidationChannel {
+
+    /**
+     * Send an event to the other nodes.
+     *
+     * @param event the event.
+     */
+    void send(InvalidationEvent event);
+}
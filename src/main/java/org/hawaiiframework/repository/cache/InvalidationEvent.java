@@ -0,0 +1,85 @@
+package org.hawaiiframework.repository.cache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Notification that an update query has changed data.
+ * <p>
+ * The keys identify the changed rows, as bound to the key parameter of the query; an event without keys means that any
+ * row may have changed.
+ */
+public final class InvalidationEvent {
+
+    /**
+     * The name of the update query.
+     */
+    private final String queryName;
+
+    /**
+     * The keys of the changed rows, empty if unknown.
+     */
+    private final List<Object> keys;
+
+    /**
+     * The id of the publisher the event originates from.
+     */
+    private final String origin;
+
+    /**
+     * Constructor.
+     *
+     * @param queryName the name of the update query.
+     * @param keys      the keys of the changed rows, empty if unknown.
+     * @param origin    the id of the publisher the event originates from.
+     */
+    public InvalidationEvent(final String queryName, final List<?> keys, final String origin) {
+        this.queryName = queryName;
+        this.keys = Collections.unmodifiableList(keys);
+        this.origin = origin;
+    }
+
+    /**
+     * Gets queryName.
+     *
+     * @return queryName value
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Gets keys.
+     *
+     * @return keys value, empty if unknown
+     */
+    public List<Object> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Check whether the event identifies the changed rows.
+     *
+     * @return {@code false} if any row may have changed.
+     */
+    public boolean hasKeys() {
+        return !keys.isEmpty();
+    }
+
+    /**
+     * Gets origin.
+     *
+     * @return origin value
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "InvalidationEvent{queryName='" + queryName + "', keys=" + keys + ", origin='" + origin + "'}";
+    }
+}
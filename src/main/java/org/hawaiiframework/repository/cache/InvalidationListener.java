@@ -0,0 +1,16 @@
+package org.hawaiiframework.repository.cache;
+
+/**
+ * Listener for {@link InvalidationEvent}s, typically a cache that evicts the changed entries.
+ */
+@FunctionalInterface
+public interface InvalidationListener {
+
+    /**
+     * Handle an invalidation event. Listeners are invoked on the thread that publishes or receives the event, so they
+     * should be quick.
+     *
+     * @param event the event.
+     */
+    void onInvalidation(InvalidationEvent event);
+}
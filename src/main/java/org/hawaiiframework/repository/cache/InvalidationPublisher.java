@@ -0,0 +1,116 @@
+package org.hawaiiframework.repository.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publisher of {@link InvalidationEvent}s to local listeners and, optionally, to the other nodes over a channel.
+ * <p>
+ * Each publisher has a unique id, carried by the events it publishes, so that it can ignore its own events when they
+ * come back over the channel. A listener that fails is logged and does not keep the other listeners from being notified.
+ */
+public class InvalidationPublisher {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvalidationPublisher.class);
+
+    /**
+     * The id of this publisher.
+     */
+    private final String id = UUID.randomUUID().toString();
+
+    /**
+     * The local listeners.
+     */
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The channel to the other nodes, may be {@code null}.
+     */
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile InvalidationChannel channel;
+
+    /**
+     * Add a local listener.
+     *
+     * @param listener the listener.
+     */
+    public void addListener(final InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a local listener.
+     *
+     * @param listener the listener.
+     */
+    public void removeListener(final InvalidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Set the channel to send events to the other nodes.
+     *
+     * @param channel the channel, or {@code null} to only notify local listeners.
+     */
+    public void setChannel(final InvalidationChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Publish that an update query has changed data, to the local listeners and the other nodes.
+     *
+     * @param queryName the name of the update query.
+     * @param keys      the keys of the changed rows, empty if unknown.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public void publish(final String queryName, final List<?> keys) {
+        final InvalidationEvent event = new InvalidationEvent(queryName, keys, id);
+        notifyListeners(event);
+        final InvalidationChannel current = channel;
+        if (current != null) {
+            try {
+                current.send(event);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not send {} to the other nodes.", event, e);
+            }
+        }
+    }
+
+    /**
+     * Handle an event received from another node, by notifying the local listeners. Events of this publisher are ignored.
+     *
+     * @param event the event.
+     */
+    public void receive(final InvalidationEvent event) {
+        if (!id.equals(event.getOrigin())) {
+            notifyListeners(event);
+        }
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return id value
+     */
+    public String getId() {
+        return id;
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void notifyListeners(final InvalidationEvent event) {
+        for (final InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(event);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Invalidation listener {} failed on {}.", listener, event, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.hawaiiframework.repository.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory query result cache with a time to live and a size or weight bound per region.
+ * <p>
+ * Regions are opt-in: only queries that are {@link #configure(String, QueryCacheSettings) configured} are cached.
+ * Expired entries are removed when they are looked up; call {@link #removeExpired()} periodically to also reclaim
+ * entries that are no longer looked up.
+ */
+public class LocalQueryResultCache implements QueryResultCache {
+
+    /**
+     * The regions, by query name.
+     */
+    private final ConcurrentMap<String, CacheRegion> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Configure caching for a query, replacing any existing region for the query.
+     *
+     * @param queryName the query name.
+     * @param settings  the settings of the region.
+     * @return this cache.
+     */
+    public LocalQueryResultCache configure(final String queryName, final QueryCacheSettings settings) {
+        regions.put(queryName, new CacheRegion(settings));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCached(final String queryName) {
+        return regions.containsKey(queryName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CachedValue get(final QueryCacheKey key) {
+        final CacheRegion region = regions.get(key.getQueryName());
+        if (region == null) {
+            return null;
+        }
+        return region.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(final QueryCacheKey key, final Object value) {
+        put(key, value, 0L);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is not stored if the region was evicted, entirely or in part, since the load of the value started.
+     */
+    @Override
+    public void put(final QueryCacheKey key, final Object value, final long loadNanos) {
+        final CacheRegion region = regions.get(key.getQueryName());
+        if (region != null) {
+            region.put(key, value, loadNanos);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(final QueryCacheKey key) {
+        final CacheRegion region = regions.get(key.getQueryName());
+        if (region != null) {
+            region.evict(key);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evictByParameter(final String queryName, final String parameterName, final Collection<?> values) {
+        final CacheRegion region = regions.get(queryName);
+        if (region != null) {
+            region.evictIf(key -> key.hasParameterValue(parameterName, values));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evictRegion(final String queryName) {
+        final CacheRegion region = regions.get(queryName);
+        if (region != null) {
+            region.clear();
+        }
+    }
+
+    /**
+     * Remove the expired entries of all regions.
+     */
+    public void removeExpired() {
+        regions.values().forEach(CacheRegion::removeExpired);
+    }
+
+    /**
+     * Gets the counters of all regions.
+     *
+     * @return the statistics, by query name
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        final Map<String, CacheStatistics> statistics = new HashMap<>();
+        regions.forEach((queryName, region) -> statistics.put(queryName, region.getStatistics()));
+        return statistics;
+    }
+}
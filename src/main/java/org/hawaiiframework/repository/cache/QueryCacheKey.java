@@ -0,0 +1,191 @@
+package org.hawaiiframework.repository.cache;
+
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Key of a cached query result: the query name, the shape of the result and the names and values of the query parameters.
+ * <p>
+ * The shape tells apart lookups of the same query that map the rows differently, such as a lookup of a single column
+ * and a lookup through a row mapper. Parameters are ordered by name, so parameter sources with the same values in a
+ * different order produce equal keys.
+ */
+public final class QueryCacheKey implements Serializable {
+
+    /**
+     * The prefix of shapes that are only stable within one JVM, such as the shapes of lambda row mappers.
+     */
+    public static final String LOCAL_SHAPE_PREFIX = "local:";
+
+    /**
+     * The serial version UID.
+     */
+    private static final long serialVersionUID = -2189345807135603718L;
+
+    /**
+     * The empty array, for queries without parameters.
+     */
+    private static final String[] NO_NAMES = new String[0];
+
+    /**
+     * The query name.
+     */
+    private final String queryName;
+
+    /**
+     * The shape of the result, for instance the class of the row mapper.
+     */
+    private final String shape;
+
+    /**
+     * The parameter names, in alphabetical order.
+     */
+    private final String[] parameterNames;
+
+    /**
+     * The parameter values, in the order of the parameter names.
+     */
+    private final Object[] parameterValues;
+
+    /**
+     * Construct a key.
+     *
+     * @param queryName       the query name.
+     * @param shape           the shape of the result, for instance the class of the row mapper.
+     * @param parameterNames  the parameter names, in alphabetical order.
+     * @param parameterValues the parameter values, in the order of the parameter names.
+     */
+    public QueryCacheKey(final String queryName, final String shape, final String[] parameterNames,
+            final Object... parameterValues) {
+        this.queryName = Objects.requireNonNull(queryName);
+        this.shape = Objects.requireNonNull(shape);
+        this.parameterNames = parameterNames.clone();
+        this.parameterValues = parameterValues.clone();
+    }
+
+    /**
+     * Create the key for the query name, result shape and parameters.
+     *
+     * @param queryName  the query name.
+     * @param shape      the shape of the result, for instance the class of the row mapper.
+     * @param parameters the query parameters.
+     * @return the key, or {@code null} if the parameter source cannot enumerate its parameter names.
+     */
+    @SuppressWarnings({"PMD.ShortMethodName", "PMD.LawOfDemeter"})
+    public static QueryCacheKey of(final String queryName, final String shape, final SqlParameterSource parameters) {
+        final String[] parameterNames;
+        if (parameters instanceof EmptySqlParameterSource) {
+            parameterNames = NO_NAMES;
+        } else {
+            parameterNames = parameters.getParameterNames();
+        }
+        if (parameterNames == null) {
+            return null;
+        }
+        final String[] names = parameterNames.clone();
+        Arrays.sort(names);
+        final Object[] values = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            values[i] = parameters.getValue(names[i]);
+        }
+        return new QueryCacheKey(queryName, shape, names, values);
+    }
+
+    /**
+     * Gets the query name.
+     *
+     * @return queryName value
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Gets the shape of the result.
+     *
+     * @return shape value
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    /**
+     * Check whether the shape of the result is the same in every JVM, so the key can be shared between instances.
+     *
+     * @return {@code false} if the shape starts with {@link #LOCAL_SHAPE_PREFIX}.
+     */
+    public boolean isShapeStable() {
+        return !shape.startsWith(LOCAL_SHAPE_PREFIX);
+    }
+
+    /**
+     * Gets the parameter names, in alphabetical order.
+     *
+     * @return a copy of the parameter names
+     */
+    public String[] getParameterNames() {
+        return parameterNames.clone();
+    }
+
+    /**
+     * Gets the parameter values, in the order of the parameter names.
+     *
+     * @return a copy of the parameter values
+     */
+    public Object[] getParameterValues() {
+        return parameterValues.clone();
+    }
+
+    /**
+     * Check whether the key binds one of the values to a parameter.
+     *
+     * @param parameterName the parameter name.
+     * @param values        the values.
+     * @return {@code true} if the key has the parameter, with one of the values.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public boolean hasParameterValue(final String parameterName, final Collection<?> values) {
+        final int index = Arrays.binarySearch(parameterNames, parameterName);
+        return index >= 0 && values.contains(parameterValues[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof QueryCacheKey)) {
+            return false;
+        }
+        final QueryCacheKey that = (QueryCacheKey) other;
+        return queryName.equals(that.queryName)
+            && shape.equals(that.shape)
+            && Arrays.equals(parameterNames, that.parameterNames)
+            && Arrays.deepEquals(parameterValues, that.parameterValues);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        final int hash = 31 * (31 * queryName.hashCode() + shape.hashCode()) + Arrays.hashCode(parameterNames);
+        return 31 * hash + Arrays.deepHashCode(parameterValues);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return queryName + Arrays.deepToString(parameterValues);
+    }
+}
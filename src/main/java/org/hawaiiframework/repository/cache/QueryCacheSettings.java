@@ -0,0 +1,135 @@
+package org.hawaiiframework.repository.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Settings for one region of a {@link LocalQueryResultCache}.
+ * <p>
+ * By default a region holds at most {@value #DEFAULT_MAXIMUM_SIZE} entries, and does not cache {@code null} results.
+ */
+public class QueryCacheSettings {
+
+    /**
+     * The default maximum number of entries.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+
+    /**
+     * The time to live of an entry.
+     */
+    private final Duration timeToLive;
+
+    /**
+     * The maximum total weight of the entries.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private long maximumWeight = DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * The function that determines the weight of a value.
+     */
+    private ToLongFunction<Object> weigher = value -> 1L;
+
+    /**
+     * Flag to indicate that {@code null} results are cached.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private boolean cacheNulls;
+
+    /**
+     * Construct settings with the time to live of an entry.
+     *
+     * @param timeToLive the time to live of an entry.
+     */
+    public QueryCacheSettings(final Duration timeToLive) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException(String.format("The time to live must be positive, got %s.", timeToLive));
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Create settings where entries expire the given time after they were stored.
+     *
+     * @param timeToLive the time to live of an entry.
+     * @return the settings.
+     */
+    public static QueryCacheSettings expireAfterWrite(final Duration timeToLive) {
+        return new QueryCacheSettings(timeToLive);
+    }
+
+    /**
+     * Limit the number of entries.
+     *
+     * @param maximumSize the maximum number of entries.
+     * @return this settings instance.
+     */
+    public QueryCacheSettings maximumSize(final long maximumSize) {
+        return maximumWeight(maximumSize, value -> 1L);
+    }
+
+    /**
+     * Limit the total weight of the entries, for instance to bound the memory held by results of different sizes.
+     *
+     * @param maximumWeight the maximum total weight.
+     * @param weigher       the function that determines the weight of a value; {@code null} values weigh one.
+     * @return this settings instance.
+     */
+    public QueryCacheSettings maximumWeight(final long maximumWeight, final ToLongFunction<Object> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException(String.format("The maximum weight must be positive, got %d.", maximumWeight));
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+        return this;
+    }
+
+    /**
+     * Set whether {@code null} results, queries that found no row, are cached.
+     *
+     * @param cacheNulls {@code true} to cache {@code null} results.
+     * @return this settings instance.
+     */
+    public QueryCacheSettings cacheNulls(final boolean cacheNulls) {
+        this.cacheNulls = cacheNulls;
+        return this;
+    }
+
+    /**
+     * Gets the time to live of an entry.
+     *
+     * @return timeToLive value
+     */
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Gets the maximum total weight of the entries.
+     *
+     * @return maximumWeight value
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Gets the function that determines the weight of a value.
+     *
+     * @return weigher value
+     */
+    public ToLongFunction<Object> getWeigher() {
+        return weigher;
+    }
+
+    /**
+     * Gets whether {@code null} results are cached.
+     *
+     * @return cacheNulls value
+     */
+    public boolean isCacheNulls() {
+        return cacheNulls;
+    }
+}
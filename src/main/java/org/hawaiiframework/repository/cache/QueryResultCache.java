@@ -0,0 +1,74 @@
+package org.hawaiiframework.repository.cache;
+
+import java.util.Collection;
+
+/**
+ * Cache of query results, organised in regions of one query name each.
+ * <p>
+ * Only queries for which a region is configured are cached.
+ */
+public interface QueryResultCache {
+
+    /**
+     * Check whether the results of the query are cached.
+     *
+     * @param queryName the query name.
+     * @return {@code true} if a region is configured for the query.
+     */
+    boolean isCached(String queryName);
+
+    /**
+     * Look up a cached result.
+     *
+     * @param key the key.
+     * @return the cached value, or {@code null} on a cache miss.
+     */
+    CachedValue get(QueryCacheKey key);
+
+    /**
+     * Store a result. A {@code null} value is only stored if the region caches {@code null} results.
+     *
+     * @param key   the key.
+     * @param value the value, may be {@code null}.
+     */
+    void put(QueryCacheKey key, Object value);
+
+    /**
+     * Store a result, with the time it took to load it. Caches that refresh entries ahead of their expiry use the load time
+     * to decide how early to refresh, and caches may skip a value that an eviction made stale while it was loading; by
+     * default it is ignored.
+     *
+     * @param key       the key.
+     * @param value     the value, may be {@code null}.
+     * @param loadNanos the time it took to load the value, in nanoseconds.
+     */
+    default void put(final QueryCacheKey key, final Object value, final long loadNanos) {
+        put(key, value);
+    }
+
+    /**
+     * Remove a single result.
+     *
+     * @param key the key.
+     */
+    void evict(QueryCacheKey key);
+
+    /**
+     * Remove the results of the query, of any shape, that bind one of the values to a parameter, for instance the lookups
+     * by id of the changed rows. By default all results of the query are removed.
+     *
+     * @param queryName     the query name.
+     * @param parameterName the parameter name.
+     * @param values        the parameter values.
+     */
+    default void evictByParameter(final String queryName, final String parameterName, final Collection<?> values) {
+        evictRegion(queryName);
+    }
+
+    /**
+     * Remove all results of the query.
+     *
+     * @param queryName the query name.
+     */
+    void evictRegion(String queryName);
+}
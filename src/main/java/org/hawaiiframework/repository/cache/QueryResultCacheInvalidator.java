@@ -0,0 +1,87 @@
+package org.hawaiiframework.repository.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listener that evicts the cached results of queries when an update query changes their data.
+ * <p>
+ * For each update query, configure the cached queries it affects. When an event carries the keys of the changed rows and
+ * the cached query has a key parameter, only the results of any shape that bind one of the keys to that parameter are
+ * evicted; otherwise all results of the cached query are. Keys are compared with {@code equals}, so the update and the
+ * cached query should bind keys of the same type.
+ *
+ * @see InvalidationPublisher#addListener(InvalidationListener)
+ */
+public class QueryResultCacheInvalidator implements InvalidationListener {
+
+    /**
+     * The cache to evict from.
+     */
+    private final QueryResultCache cache;
+
+    /**
+     * The cached queries affected by an update query, by update query.
+     */
+    private final Map<String, List<Target>> targets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param cache the cache to evict from.
+     */
+    public QueryResultCacheInvalidator(final QueryResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Evict the results of a cached query when an update query changes data.
+     *
+     * @param updateQuery  the name of the update query.
+     * @param cachedQuery  the name of the cached query.
+     * @param keyParameter the parameter of the cached query that holds the key of the changed rows, or {@code null} to
+     *                     always evict all results of the cached query.
+     * @return this invalidator.
+     */
+    public QueryResultCacheInvalidator evict(final String updateQuery, final String cachedQuery, final String keyParameter) {
+        targets.computeIfAbsent(updateQuery, query -> new CopyOnWriteArrayList<>()).add(new Target(cachedQuery, keyParameter));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onInvalidation(final InvalidationEvent event) {
+        for (final Target target : targets.getOrDefault(event.getQueryName(), List.of())) {
+            if (event.hasKeys() && target.keyParameter != null) {
+                cache.evictByParameter(target.cachedQuery, target.keyParameter, event.getKeys());
+            } else {
+                cache.evictRegion(target.cachedQuery);
+            }
+        }
+    }
+
+    /**
+     * A cached query affected by an update query.
+     */
+    private static final class Target {
+
+        /**
+         * The name of the cached query.
+         */
+        private final String cachedQuery;
+
+        /**
+         * The key parameter of the cached query, may be {@code null}.
+         */
+        private final String keyParameter;
+
+        Target(final String cachedQuery, final String keyParameter) {
+            this.cachedQuery = cachedQuery;
+            this.keyParameter = keyParameter;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.hawaiiframework.repository.cache;
+
+/**
+ * The Redis operations used by the {@link RedisQueryResultCache}.
+ * <p>
+ * This narrow interface keeps the cache independent of the Redis client, and allows it to be tested against an in-process
+ * stand-in.
+ */
+public interface RedisCacheStore {
+
+    /**
+     * Get a value.
+     *
+     * @param key the key.
+     * @return the value, or {@code null} if the key does not exist.
+     */
+    byte[] get(byte[] key);
+
+    /**
+     * Set a value that expires after the given time.
+     *
+     * @param key        the key.
+     * @param value      the value.
+     * @param ttlMillis  the time to live, in milliseconds.
+     */
+    void set(byte[] key, byte[] value, long ttlMillis);
+
+    /**
+     * Delete a key.
+     *
+     * @param key the key.
+     */
+    void delete(byte[] key);
+
+    /**
+     * Delete all keys that start with the prefix.
+     *
+     * @param prefix the key prefix.
+     */
+    void deleteByPrefix(byte[] prefix);
+}
@@ -0,0 +1,136 @@
+package org.hawaiiframework.repository.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link InvalidationChannel} over Redis pub/sub.
+ * <p>
+ * Events are encoded with the {@link CompactValueCodec}. An event with a key that is not a scalar value is sent without
+ * keys, which makes the other nodes treat any row as changed. Delivery is at most once: nodes that are not subscribed
+ * when an event is sent miss it, so caches fed by this channel should still have a time to live.
+ */
+public class RedisInvalidationChannel implements InvalidationChannel {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisInvalidationChannel.class);
+
+    /**
+     * The connection factory.
+     */
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * The name of the Redis channel.
+     */
+    private final String channelName;
+
+    /**
+     * Constructor.
+     *
+     * @param connectionFactory the connection factory.
+     * @param channelName       the name of the Redis channel.
+     */
+    public RedisInvalidationChannel(final RedisConnectionFactory connectionFactory, final String channelName) {
+        this.connectionFactory = connectionFactory;
+        this.channelName = channelName;
+    }
+
+    /**
+     * Send the events of the publisher over this channel, and deliver the events of other nodes to it.
+     *
+     * @param publisher the publisher.
+     * @param container the listener container that holds the subscription.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public void connect(final InvalidationPublisher publisher, final RedisMessageListenerContainer container) {
+        publisher.setChannel(this);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                publisher.receive(decode(message.getBody()));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Ignored an invalid message on channel '{}'.", channelName, e);
+            }
+        }, new ChannelTopic(channelName));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void send(final InvalidationEvent event) {
+        final RedisConnection connection = connectionFactory.getConnection();
+        try {
+            connection.publish(channelName.getBytes(StandardCharsets.UTF_8), encode(event));
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Encode an event.
+     *
+     * @param event the event.
+     * @return the message body, without keys if a key is not a scalar value.
+     */
+    @SuppressWarnings("PMD.DefaultPackage")
+    static byte[] encode(final InvalidationEvent event) {
+        // An event without keys means that any row may have changed, so the other nodes still evict enough.
+        final List<Object> keys = event.getKeys().stream().allMatch(CompactValueCodec::isScalar) ? event.getKeys() : List.of();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(event.getOrigin());
+            out.writeUTF(event.getQueryName());
+            CompactValueCodec.writeVarLong(out, keys.size());
+            for (final Object key : keys) {
+                CompactValueCodec.write(out, key, false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode an event. Only scalar keys are read, so a message can never make this node deserialize arbitrary objects.
+     *
+     * @param body the message body.
+     * @return the event.
+     * @throws IllegalArgumentException if the message body is not an event.
+     */
+    @SuppressWarnings({"PMD.DefaultPackage", "PMD.PrematureDeclaration"})
+    static InvalidationEvent decode(final byte[] body) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(body))) {
+            final String origin = input.readUTF();
+            final String queryName = input.readUTF();
+            final long keyCount = CompactValueCodec.readVarLong(input);
+            // Each key takes at least one byte, so a count beyond the remaining bytes is invalid.
+            if (keyCount < 0 || keyCount > input.available()) {
+                throw new IllegalArgumentException("Invalid key count " + keyCount + ".");
+            }
+            final List<Object> keys = new ArrayList<>((int) keyCount);
+            for (long i = 0; i < keyCount; i++) {
+                keys.add(CompactValueCodec.readScalar(input));
+            }
+            return new InvalidationEvent(queryName, keys, origin);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not an invalidation event.", e);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package org.hawaiiframework.repository.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Query result cache shared by all instances of an application through Redis, with an optional near cache in front.
+ * <p>
+ * Values are stored in the {@link CompactValueCodec} encoding, together with their expiry time and the time it took to load
+ * them. To avoid all instances reloading a hot key at the moment it expires, a lookup may treat an entry as expired
+ * slightly early: the closer the entry is to its expiry and the more expensive it was to load, the more likely it is that a
+ * single caller reloads it while the others are still served the cached value.
+ * <p>
+ * The near cache is a {@link LocalQueryResultCache}; only the queries configured in it are kept in memory, typically with a
+ * time to live much shorter than in Redis. Failures to reach Redis are logged and treated as cache misses.
+ * <p>
+ * The keys of the results of other shapes cannot be found in Redis without scanning, so
+ * {@link #evictByParameter(String, String, java.util.Collection) evicting by parameter} removes all results of the query.
+ * <p>
+ * Values of types the codec does not encode natively, such as the DTOs of a row mapper, are only cached if a
+ * {@link #deserializationFilter(ObjectInputFilter) deserialization filter} accepts their classes; without one, such values
+ * are kept in the near cache only. Results whose {@link QueryCacheKey#isShapeStable() shape} differs between JVMs, such as
+ * those of lambda row mappers, are never stored in Redis either. Both are logged once per query.
+ */
+public class RedisQueryResultCache implements QueryResultCache {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisQueryResultCache.class);
+
+    /**
+     * The version of the entry format.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The number of microseconds in a millisecond.
+     */
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    /**
+     * The separator between the parts of a key.
+     */
+    private static final char SEPARATOR = ':';
+
+    /**
+     * The escape of separators in query names.
+     */
+    private static final char ESCAPE = '\\';
+
+    /**
+     * The reason results of a lambda mapper are not stored.
+     */
+    private static final String UNSTABLE_SHAPE = "the shape of the result is not the same in other instances, use a named "
+        + "mapper class instead of a lambda";
+
+    /**
+     * The reason results of other types are not stored.
+     */
+    private static final String NOT_ENCODABLE = "the result is not of a type the codec encodes, configure a deserialization "
+        + "filter that accepts its classes";
+
+    /**
+     * The store.
+     */
+    private final RedisCacheStore store;
+
+    /**
+     * The prefix of all keys written by this cache.
+     */
+    private final String keyPrefix;
+
+    /**
+     * The regions, by query name.
+     */
+    private final ConcurrentMap<String, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * The optional near cache.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private LocalQueryResultCache nearCache;
+
+    /**
+     * The factor that scales how early entries are refreshed; zero disables early refreshes.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * The filter of the classes of Java-serialized values, or {@code null} to not cache such values.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private ObjectInputFilter deserializationFilter;
+
+    /**
+     * Constructor.
+     *
+     * @param store     the Redis store.
+     * @param keyPrefix the prefix of all keys written by this cache, for instance the application name.
+     */
+    public RedisQueryResultCache(final RedisCacheStore store, final String keyPrefix) {
+        this.store = store;
+        this.keyPrefix = keyPrefix;
+    }
+
+    /**
+     * Configure caching for a query. The maximum size or weight of the settings does not apply to Redis.
+     *
+     * @param queryName the query name.
+     * @param settings  the settings.
+     * @return this cache.
+     */
+    public RedisQueryResultCache configure(final String queryName, final QueryCacheSettings settings) {
+        regions.put(queryName, new Region(settings));
+        return this;
+    }
+
+    /**
+     * Set the near cache to consult before Redis.
+     *
+     * @param nearCache the near cache, or {@code null} for none.
+     * @return this cache.
+     */
+    public RedisQueryResultCache nearCache(final LocalQueryResultCache nearCache) {
+        this.nearCache = nearCache;
+        return this;
+    }
+
+    /**
+     * Set the factor that scales how early entries are refreshed. Values above one refresh earlier, zero disables early
+     * refreshes. The default is one.
+     *
+     * @param earlyRefreshBeta the factor.
+     * @return this cache.
+     */
+    public RedisQueryResultCache earlyRefreshBeta(final double earlyRefreshBeta) {
+        if (earlyRefreshBeta < 0) {
+            throw new IllegalArgumentException(String.format("The early refresh factor must not be negative, got %s.", earlyRefreshBeta));
+        }
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        return this;
+    }
+
+    /**
+     * Cache values of types the codec does not encode natively with Java serialization, reading back only the classes the
+     * filter accepts, for instance {@code ObjectInputFilter.Config.createFilter("com.example.dto.*;java.base/*;!*")}.
+     * Anyone who can write to Redis can make the cache deserialize the classes the filter accepts, so keep it narrow.
+     * <p>
+     * Queries whose results are DTOs or other objects need a filter to be cached in Redis at all.
+     *
+     * @param deserializationFilter the filter, or {@code null} to not cache such values; the default.
+     * @return this cache.
+     */
+    public RedisQueryResultCache deserializationFilter(final ObjectInputFilter deserializationFilter) {
+        this.deserializationFilter = deserializationFilter;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCached(final String queryName) {
+        return regions.containsKey(queryName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CachedValue get(final QueryCacheKey key) {
+        final Region region = regions.get(key.getQueryName());
+        if (region == null) {
+            return null;
+        }
+        CachedValue result = null;
+        if (nearCache != null) {
+            result = nearCache.get(key);
+        }
+        if (result == null && key.isShapeStable()) {
+            result = getRemote(key);
+        }
+        if (result == null) {
+            region.statistics.recordMiss();
+        } else {
+            region.statistics.recordHit();
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(final QueryCacheKey key, final Object value) {
+        put(key, value, 0L);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(final QueryCacheKey key, final Object value, final long loadNanos) {
+        final Region region = regions.get(key.getQueryName());
+        if (region == null || value == null && !region.settings.isCacheNulls()) {
+            return;
+        }
+        if (!key.isShapeStable()) {
+            logNotStored(region, key, UNSTABLE_SHAPE);
+        } else if (CompactValueCodec.canEncode(value, deserializationFilter != null)) {
+            putRemote(region, key, value, loadNanos);
+        } else {
+            logNotStored(region, key, NOT_ENCODABLE);
+        }
+        if (nearCache != null) {
+            nearCache.put(key, value, loadNanos);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(final QueryCacheKey key) {
+        if (nearCache != null) {
+            nearCache.evict(key);
+        }
+        try {
+            store.delete(encodeKey(key));
+        } catch (DataAccessException | IllegalArgumentException e) {
+            LOGGER.warn("Could not evict the cached result of '{}'.", key.getQueryName(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evictRegion(final String queryName) {
+        if (nearCache != null) {
+            nearCache.evictRegion(queryName);
+        }
+        try {
+            store.deleteByPrefix(regionPrefix(queryName).getBytes(StandardCharsets.UTF_8));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not evict the cached results of '{}'.", queryName, e);
+        }
+    }
+
+    /**
+     * Gets the counters of all regions. Evictions and expirations are handled by Redis, and are not counted.
+     *
+     * @return the statistics, by query name
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        final Map<String, CacheStatistics> statistics = new HashMap<>();
+        regions.forEach((queryName, region) -> statistics.put(queryName, region.statistics));
+        return statistics;
+    }
+
+    private void putRemote(final Region region, final QueryCacheKey key, final Object value, final long loadNanos) {
+        final long ttlMillis = region.settings.getTimeToLive().toMillis();
+        try {
+            final byte[] entry = encodeEntry(System.currentTimeMillis() + ttlMillis, loadNanos / 1000L, value);
+            store.set(encodeKey(key), entry, ttlMillis);
+        } catch (DataAccessException | IllegalArgumentException | UncheckedIOException e) {
+            LOGGER.warn("Could not cache the result of '{}'.", key.getQueryName(), e);
+        }
+    }
+
+    private static void logNotStored(final Region region, final QueryCacheKey key, final String reason) {
+        if (region.loggedReasons.add(reason)) {
+            LOGGER.info("Results of '{}' are not stored in Redis: {}.", key.getQueryName(), reason);
+        }
+    }
+
+    private CachedValue getRemote(final QueryCacheKey key) {
+        CachedValue result = null;
+        try {
+            final byte[] entry = store.get(encodeKey(key));
+            if (entry != null) {
+                result = decodeEntry(entry);
+            }
+        } catch (DataAccessException | IllegalArgumentException e) {
+            LOGGER.warn("Could not read the cached result of '{}'.", key.getQueryName(), e);
+        }
+        if (result != null && nearCache != null) {
+            nearCache.put(key, result.getValue());
+        }
+        return result;
+    }
+
+    private CachedValue decodeEntry(final byte[] entry) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry))) {
+            final int version = input.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown entry format version " + version + ".");
+            }
+            final long expiresAt = input.readLong();
+            final long loadMicros = CompactValueCodec.readVarLong(input);
+            if (shouldRefreshEarly(expiresAt, loadMicros)) {
+                return null;
+            }
+            return CachedValue.of(CompactValueCodec.read(input, deserializationFilter));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not decode cache entry.", e);
+        }
+    }
+
+    private boolean shouldRefreshEarly(final long expiresAt, final long loadMicros) {
+        final double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        final double headStartMillis = -loadMicros / MICROS_PER_MILLI * earlyRefreshBeta * Math.log(random);
+        return System.currentTimeMillis() + headStartMillis >= expiresAt;
+    }
+
+    private byte[] encodeEntry(final long expiresAt, final long loadMicros, final Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(expiresAt);
+            CompactValueCodec.writeVarLong(out, loadMicros);
+            CompactValueCodec.write(out, value, deserializationFilter != null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] encodeKey(final QueryCacheKey key) {
+        final byte[] prefix = (regionPrefix(key.getQueryName()) + key.getShape() + SEPARATOR).getBytes(StandardCharsets.UTF_8);
+        final byte[] names = CompactValueCodec.encode(key.getParameterNames());
+        final byte[] values = CompactValueCodec.encode(key.getParameterValues());
+        final byte[] encoded = new byte[prefix.length + names.length + values.length];
+        System.arraycopy(prefix, 0, encoded, 0, prefix.length);
+        System.arraycopy(names, 0, encoded, prefix.length, names.length);
+        System.arraycopy(values, 0, encoded, prefix.length + names.length, values.length);
+        return encoded;
+    }
+
+    private String regionPrefix(final String queryName) {
+        // Separators in the query name are escaped, so the prefix of one query is never the prefix of another.
+        final StringBuilder prefix = new StringBuilder(keyPrefix).append(SEPARATOR);
+        for (final char character : queryName.toCharArray()) {
+            if (character == SEPARATOR || character == ESCAPE) {
+                prefix.append(ESCAPE);
+            }
+            prefix.append(character);
+        }
+        return prefix.append(SEPARATOR).toString();
+    }
+
+    /**
+     * The settings and counters of a query.
+     */
+    private static final class Region {
+
+        /**
+         * The settings.
+         */
+        private final QueryCacheSettings settings;
+
+        /**
+         * The counters.
+         */
+        private final CacheStatistics statistics = new CacheStatistics();
+
+        /**
+         * The reasons results were not stored that have been logged.
+         */
+        private final Set<String> loggedReasons = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Constructor.
+         *
+         * @param settings the settings.
+         */
+        Region(final QueryCacheSettings settings) {
+            this.settings = settings;
+        }
+    }
+}
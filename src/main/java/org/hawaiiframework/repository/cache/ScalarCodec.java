@@ -0,0 +1,435 @@
+package org.hawaiiframework.repository.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The scalar types of the {@link CompactValueCodec}: their type tags, and how they are written and read.
+ */
+final class ScalarCodec {
+
+    /**
+     * Tag for {@code null}.
+     */
+    private static final int NULL = 0;
+
+    /**
+     * Tag for {@link Boolean#TRUE}.
+     */
+    private static final int TRUE = 1;
+
+    /**
+     * Tag for {@link Boolean#FALSE}.
+     */
+    private static final int FALSE = 2;
+
+    /**
+     * Tag for {@link Integer}.
+     */
+    private static final int INTEGER = 3;
+
+    /**
+     * Tag for {@link Long}.
+     */
+    private static final int LONG = 4;
+
+    /**
+     * Tag for {@link Double}.
+     */
+    private static final int DOUBLE = 5;
+
+    /**
+     * Tag for {@link String}.
+     */
+    private static final int STRING = 6;
+
+    /**
+     * Tag for {@link BigDecimal}.
+     */
+    private static final int BIG_DECIMAL = 7;
+
+    /**
+     * Tag for {@code byte[]}.
+     */
+    private static final int BYTES = 8;
+
+    /**
+     * Tag for {@link Date}.
+     */
+    private static final int DATE = 9;
+
+    /**
+     * Tag for {@link java.sql.Date}.
+     */
+    private static final int SQL_DATE = 10;
+
+    /**
+     * Tag for {@link Timestamp}.
+     */
+    private static final int TIMESTAMP = 11;
+
+    /**
+     * Tag for {@link LocalDate}.
+     */
+    private static final int LOCAL_DATE = 12;
+
+    /**
+     * Tag for {@link Instant}.
+     */
+    private static final int INSTANT = 13;
+
+    /**
+     * Tag for {@link Short}; the tags of the scalar types added later follow those of lists, arrays and Java-serialized
+     * values.
+     */
+    private static final int SHORT = 17;
+
+    /**
+     * Tag for {@link Float}.
+     */
+    private static final int FLOAT = 18;
+
+    /**
+     * Tag for {@link UUID}.
+     */
+    private static final int UUID_TAG = 19;
+
+    /**
+     * Tag for {@link LocalDateTime}.
+     */
+    private static final int LOCAL_DATE_TIME = 20;
+
+    /**
+     * Tag for {@link OffsetDateTime}.
+     */
+    private static final int OFFSET_DATE_TIME = 21;
+
+    /**
+     * The writers for values of a scalar class, by class.
+     */
+    private static final Map<Class<?>, ValueWriter> WRITERS = createWriters();
+
+    /**
+     * The readers of the scalar types, by tag.
+     */
+    private static final ValueReader[] READERS = createReaders();
+
+    /**
+     * Utility constructor.
+     */
+    private ScalarCodec() {
+        // Do nothing.
+    }
+
+    /**
+     * Check whether a value is {@code null} or of one of the scalar types.
+     *
+     * @param value the value.
+     * @return {@code true} if the value is scalar.
+     */
+    public static boolean isScalar(final Object value) {
+        return value == null || WRITERS.containsKey(value.getClass());
+    }
+
+    /**
+     * Check whether a type tag is the tag of a scalar type.
+     *
+     * @param tag the type tag.
+     * @return {@code true} if the tag is scalar.
+     */
+    public static boolean isScalarTag(final int tag) {
+        return tag >= 0 && tag < READERS.length && READERS[tag] != null;
+    }
+
+    /**
+     * Write a scalar value, including its type tag.
+     *
+     * @param out   the output to write to.
+     * @param value the value, which must be {@link #isScalar(Object) scalar}.
+     * @throws IOException in case of an I/O error.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public static void write(final DataOutput out, final Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            WRITERS.get(value.getClass()).write(out, value);
+        }
+    }
+
+    /**
+     * Read a scalar value, after its type tag has been read.
+     *
+     * @param tag   the type tag, which must be {@link #isScalarTag(int) scalar}.
+     * @param input the input to read from.
+     * @return the value, may be {@code null}.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the value is out of the range of its type.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public static Object read(final int tag, final DataInput input) throws IOException {
+        try {
+            return READERS[tag].read(input);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(String.format("Invalid value of type tag %d.", tag), e);
+        }
+    }
+
+    /**
+     * Write a type tag followed by a variable-length integer.
+     *
+     * @param out   the output to write to.
+     * @param tag   the type tag.
+     * @param value the value.
+     * @throws IOException in case of an I/O error.
+     */
+    public static void writeTagged(final DataOutput out, final int tag, final long value) throws IOException {
+        out.writeByte(tag);
+        writeVarLong(out, value);
+    }
+
+    /**
+     * Write a byte array, preceded by its length.
+     *
+     * @param out   the output to write to.
+     * @param value the bytes.
+     * @throws IOException in case of an I/O error.
+     */
+    public static void writeBytes(final DataOutput out, final byte[] value) throws IOException {
+        writeVarLong(out, value.length);
+        out.write(value);
+    }
+
+    /**
+     * Read a byte array written by {@link #writeBytes(DataOutput, byte[])}.
+     *
+     * @param input the input to read from.
+     * @return the bytes.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the length is invalid.
+     */
+    public static byte[] readBytes(final DataInput input) throws IOException {
+        final byte[] value = new byte[readLength(input)];
+        input.readFully(value);
+        return value;
+    }
+
+    /**
+     * Read a length or element count, checking it before anything is allocated.
+     *
+     * @param input the input to read from.
+     * @return the length.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the length is negative or beyond the end of the input.
+     */
+    public static int readLength(final DataInput input) throws IOException {
+        // Each element takes at least one byte, so the remaining bytes also bound element counts.
+        final long length = readVarLong(input);
+        if (length < 0 || length > remaining(input)) {
+            throw new IllegalArgumentException(String.format("Invalid length %d.", length));
+        }
+        return (int) length;
+    }
+
+    /**
+     * Write a signed long as a zig-zag encoded variable-length integer of one to ten bytes.
+     *
+     * @param out   the output to write to.
+     * @param value the value.
+     * @throws IOException in case of an I/O error.
+     */
+    public static void writeVarLong(final DataOutput out, final long value) throws IOException {
+        long remaining = (value << 1) ^ (value >> 63);
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * Read a zig-zag encoded variable-length integer.
+     *
+     * @param input the input to read from.
+     * @return the value.
+     * @throws IOException              in case of an I/O error.
+     * @throws IllegalArgumentException if the integer is longer than ten bytes.
+     */
+    public static long readVarLong(final DataInput input) throws IOException {
+        long result = 0;
+        int shift = 0;
+        int current;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new IllegalArgumentException("Invalid variable-length integer.");
+            }
+            current = input.readUnsignedByte();
+            result |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return (result >>> 1) ^ -(result & 1);
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static int remaining(final DataInput input) throws IOException {
+        // The available bytes of an in-memory stream are exactly the remaining bytes; other input can only be bounded by the
+        // maximum array size.
+        return input instanceof InputStream ? ((InputStream) input).available() : Integer.MAX_VALUE - 8;
+    }
+
+    private static Map<Class<?>, ValueWriter> createWriters() {
+        final Map<Class<?>, ValueWriter> writers = new HashMap<>();
+        writers.put(Boolean.class, (out, value) -> out.writeByte((Boolean) value ? TRUE : FALSE));
+        writers.put(Integer.class, (out, value) -> writeTagged(out, INTEGER, (Integer) value));
+        writers.put(Long.class, (out, value) -> writeTagged(out, LONG, (Long) value));
+        writers.put(Double.class, (out, value) -> {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        });
+        writers.put(String.class, (out, value) -> {
+            out.writeByte(STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        });
+        writers.put(BigDecimal.class, (out, value) -> {
+            writeTagged(out, BIG_DECIMAL, ((BigDecimal) value).scale());
+            writeBytes(out, ((BigDecimal) value).unscaledValue().toByteArray());
+        });
+        writers.put(byte[].class, (out, value) -> {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        });
+        writers.put(Date.class, (out, value) -> writeTagged(out, DATE, ((Date) value).getTime()));
+        writers.put(java.sql.Date.class, (out, value) -> writeTagged(out, SQL_DATE, ((Date) value).getTime()));
+        writers.put(Timestamp.class, (out, value) -> {
+            writeTagged(out, TIMESTAMP, ((Timestamp) value).getTime());
+            writeVarLong(out, ((Timestamp) value).getNanos());
+        });
+        writers.put(LocalDate.class, (out, value) -> writeTagged(out, LOCAL_DATE, ((LocalDate) value).toEpochDay()));
+        writers.put(Instant.class, (out, value) -> {
+            writeTagged(out, INSTANT, ((Instant) value).getEpochSecond());
+            writeVarLong(out, ((Instant) value).getNano());
+        });
+        addExtendedWriters(writers);
+        return writers;
+    }
+
+    private static void addExtendedWriters(final Map<Class<?>, ValueWriter> writers) {
+        writers.put(Short.class, (out, value) -> writeTagged(out, SHORT, (Short) value));
+        writers.put(Float.class, (out, value) -> {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        });
+        writers.put(UUID.class, (out, value) -> {
+            out.writeByte(UUID_TAG);
+            out.writeLong(((UUID) value).getMostSignificantBits());
+            out.writeLong(((UUID) value).getLeastSignificantBits());
+        });
+        writers.put(LocalDateTime.class, (out, value) -> {
+            writeTagged(out, LOCAL_DATE_TIME, ((LocalDateTime) value).toLocalDate().toEpochDay());
+            writeVarLong(out, ((LocalDateTime) value).toLocalTime().toNanoOfDay());
+        });
+        writers.put(OffsetDateTime.class, (out, value) -> {
+            final OffsetDateTime dateTime = (OffsetDateTime) value;
+            writeTagged(out, OFFSET_DATE_TIME, dateTime.toEpochSecond());
+            writeVarLong(out, dateTime.getNano());
+            writeVarLong(out, dateTime.getOffset().getTotalSeconds());
+        });
+    }
+
+    private static ValueReader[] createReaders() {
+        final ValueReader[] readers = new ValueReader[OFFSET_DATE_TIME + 1];
+        readers[NULL] = input -> null;
+        readers[TRUE] = input -> Boolean.TRUE;
+        readers[FALSE] = input -> Boolean.FALSE;
+        readers[INTEGER] = input -> (int) readVarLong(input);
+        readers[LONG] = ScalarCodec::readVarLong;
+        readers[DOUBLE] = DataInput::readDouble;
+        readers[STRING] = input -> new String(readBytes(input), StandardCharsets.UTF_8);
+        readers[BIG_DECIMAL] = input -> {
+            final int scale = (int) readVarLong(input);
+            return new BigDecimal(new BigInteger(readBytes(input)), scale);
+        };
+        readers[BYTES] = ScalarCodec::readBytes;
+        readers[DATE] = input -> new Date(readVarLong(input));
+        readers[SQL_DATE] = input -> new java.sql.Date(readVarLong(input));
+        readers[TIMESTAMP] = input -> {
+            final Timestamp timestamp = new Timestamp(readVarLong(input));
+            timestamp.setNanos((int) readVarLong(input));
+            return timestamp;
+        };
+        readers[LOCAL_DATE] = input -> LocalDate.ofEpochDay(readVarLong(input));
+        readers[INSTANT] = input -> {
+            final long epochSecond = readVarLong(input);
+            return Instant.ofEpochSecond(epochSecond, readVarLong(input));
+        };
+        addExtendedReaders(readers);
+        return readers;
+    }
+
+    private static void addExtendedReaders(final ValueReader... readers) {
+        readers[SHORT] = input -> (short) readVarLong(input);
+        readers[FLOAT] = DataInput::readFloat;
+        readers[UUID_TAG] = input -> {
+            final long mostSignificantBits = input.readLong();
+            return new UUID(mostSignificantBits, input.readLong());
+        };
+        readers[LOCAL_DATE_TIME] = input -> {
+            final LocalDate date = LocalDate.ofEpochDay(readVarLong(input));
+            return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong(input)));
+        };
+        readers[OFFSET_DATE_TIME] = input -> {
+            final long epochSecond = readVarLong(input);
+            final Instant instant = Instant.ofEpochSecond(epochSecond, readVarLong(input));
+            return OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds((int) readVarLong(input)));
+        };
+    }
+
+    /**
+     * Writes a value of a known class, including its type tag.
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+
+        /**
+         * Write the value.
+         *
+         * @param out   the output to write to.
+         * @param value the value.
+         * @throws IOException in case of an I/O error.
+         */
+        void write(DataOutput out, Object value) throws IOException;
+    }
+
+    /**
+     * Reads a value, after its type tag has been read.
+     */
+    @FunctionalInterface
+    private interface ValueReader {
+
+        /**
+         * Read the value.
+         *
+         * @param input the input to read from.
+         * @return the value.
+         * @throws IOException in case of an I/O error.
+         */
+        Object read(DataInput input) throws IOException;
+    }
+}
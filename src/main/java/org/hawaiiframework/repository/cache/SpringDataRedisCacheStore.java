@@ -0,0 +1,131 @@
+package org.hawaiiframework.repository.cache;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RedisCacheStore} on top of a Spring Data Redis connection factory.
+ * <p>
+ * Deleting by prefix uses {@code SCAN}, which does not block the server but does walk the whole key space; region
+ * evictions are expected to be rare.
+ */
+public class SpringDataRedisCacheStore implements RedisCacheStore {
+
+    /**
+     * The number of keys to scan and delete per round trip.
+     */
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    /**
+     * The characters that have a special meaning in a key pattern.
+     */
+    private static final String PATTERN_CHARACTERS = "*?[]\\";
+
+    /**
+     * The empty key array, to convert the lists of keys to delete.
+     */
+    private static final byte[][] NO_KEYS = new byte[0][];
+
+    /**
+     * The connection factory.
+     */
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * Constructor.
+     *
+     * @param connectionFactory the connection factory.
+     */
+    public SpringDataRedisCacheStore(final RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public byte[] get(final byte[] key) {
+        final RedisConnection connection = connectionFactory.getConnection();
+        try {
+            return connection.stringCommands().get(key);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void set(final byte[] key, final byte[] value, final long ttlMillis) {
+        final RedisConnection connection = connectionFactory.getConnection();
+        try {
+            connection.stringCommands().pSetEx(key, ttlMillis, value);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void delete(final byte[] key) {
+        final RedisConnection connection = connectionFactory.getConnection();
+        try {
+            connection.keyCommands().del(key);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void deleteByPrefix(final byte[] prefix) {
+        final ScanOptions options = ScanOptions.scanOptions().match(toPattern(prefix)).count(SCAN_BATCH_SIZE).build();
+        final RedisConnection connection = connectionFactory.getConnection();
+        try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+            final List<byte[]> keys = new ArrayList<>(SCAN_BATCH_SIZE);
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() == SCAN_BATCH_SIZE) {
+                    connection.keyCommands().del(keys.toArray(NO_KEYS));
+                    keys.clear();
+                }
+            }
+            if (!keys.isEmpty()) {
+                connection.keyCommands().del(keys.toArray(NO_KEYS));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static String toPattern(final byte[] prefix) {
+        final String text = new String(prefix, StandardCharsets.UTF_8);
+        final StringBuilder pattern = new StringBuilder(text.length() + 1);
+        for (final char character : text.toCharArray()) {
+            if (PATTERN_CHARACTERS.indexOf(character) >= 0) {
+                pattern.append('\\');
+            }
+            pattern.append(character);
+        }
+        return pattern.append('*').toString();
+    }
+}
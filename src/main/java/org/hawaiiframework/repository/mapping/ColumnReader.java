@@ -0,0 +1,21 @@
+package org.hawaiiframework.repository.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the value of a column of the current row.
+ */
+@FunctionalInterface
+interface ColumnReader {
+
+    /**
+     * Read the value of a column.
+     *
+     * @param resultSet the result set.
+     * @param column    the one-based column index.
+     * @return the value, {@code null} for SQL {@code NULL}.
+     * @throws SQLException in case of an error.
+     */
+    Object read(ResultSet resultSet, int column) throws SQLException;
+}
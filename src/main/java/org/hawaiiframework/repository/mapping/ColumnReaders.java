@@ -0,0 +1,97 @@
+package org.hawaiiframework.repository.mapping;
+
+import org.hawaiiframework.repository.ResultSetUtil;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link ColumnReader}s per property type.
+ * <p>
+ * SQL {@code NULL} is read as {@code null} for all types, as {@link ResultSetUtil} does; for primitive properties the
+ * mapper then leaves the default value.
+ */
+final class ColumnReaders {
+
+    /**
+     * The readers, by property type.
+     */
+    private static final Map<Class<?>, ColumnReader> READERS = new HashMap<>();
+
+    static {
+        register(ResultSetUtil::getInteger, Integer.class, int.class);
+        register(ResultSetUtil::getLong, Long.class, long.class);
+        register(ResultSetUtil::getDate, Date.class);
+        register(ResultSet::getString, String.class);
+        register(ResultSet::getBigDecimal, BigDecimal.class);
+        register(ResultSet::getTimestamp, Timestamp.class);
+        register(ResultSet::getBytes, byte[].class);
+        register((resultSet, column) -> nullable(resultSet, resultSet.getBoolean(column)), Boolean.class, boolean.class);
+        register((resultSet, column) -> nullable(resultSet, resultSet.getDouble(column)), Double.class, double.class);
+        register((resultSet, column) -> nullable(resultSet, resultSet.getFloat(column)), Float.class, float.class);
+        register((resultSet, column) -> nullable(resultSet, resultSet.getShort(column)), Short.class, short.class);
+        register((resultSet, column) -> nullable(resultSet, resultSet.getByte(column)), Byte.class, byte.class);
+        register((resultSet, column) -> toInstant(resultSet.getTimestamp(column)), Instant.class);
+        register((resultSet, column) -> resultSet.getObject(column, LocalDate.class), LocalDate.class);
+        register((resultSet, column) -> resultSet.getObject(column, LocalDateTime.class), LocalDateTime.class);
+    }
+
+    /**
+     * Utility constructor.
+     */
+    private ColumnReaders() {
+        // Do nothing.
+    }
+
+    /**
+     * Get the reader for a property type. Enums are read by name; other types are converted by the driver.
+     *
+     * @param type the property type.
+     * @return the reader.
+     */
+    public static ColumnReader forType(final Class<?> type) {
+        ColumnReader reader = READERS.get(type);
+        if (reader == null) {
+            reader = type.isEnum() ? enumReader(type) : (resultSet, column) -> resultSet.getObject(column, type);
+        }
+        return reader;
+    }
+
+    private static void register(final ColumnReader reader, final Class<?>... types) {
+        for (final Class<?> type : types) {
+            READERS.put(type, reader);
+        }
+    }
+
+    private static Object nullable(final ResultSet resultSet, final Object value) throws SQLException {
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Instant toInstant(final Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static ColumnReader enumReader(final Class<?> type) {
+        final Map<String, Object> constants = new HashMap<>();
+        for (final Object constant : type.getEnumConstants()) {
+            constants.put(((Enum<?>) constant).name(), constant);
+        }
+        return (resultSet, column) -> {
+            final String name = resultSet.getString(column);
+            final Object constant = name == null ? null : constants.get(name);
+            if (name != null && constant == null) {
+                throw new SQLException("No constant '" + name + "' in " + type.getName() + ".");
+            }
+            return constant;
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package org.hawaiiframework.repository.mapping;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Row mapper that maps the columns of a row to the properties of a bean, like
+ * {@link org.springframework.jdbc.core.BeanPropertyRowMapper}, without reflection per row.
+ * <p>
+ * A specialised mapping is generated once per bean class and column layout, and shared by all mappers of the class. The
+ * class must have a no-argument constructor; columns are matched to setters by name, ignoring case and underscores. SQL
+ * {@code NULL} is mapped to {@code null}, as {@link org.hawaiiframework.repository.ResultSetUtil} does, and leaves primitive
+ * properties at their default value.
+ *
+ * @param <T> The type of the bean.
+ */
+public final class GeneratedRowMapper<T> implements RowMapper<T> {
+
+    /**
+     * The mappings per column layout, by bean class.
+     */
+    private static final ClassValue<ConcurrentMap<List<String>, MappingPlan<?>>> PLANS =
+        new ClassValue<>() {
+            @Override
+            protected ConcurrentMap<List<String>, MappingPlan<?>> computeValue(final Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    /**
+     * The bean class.
+     */
+    private final Class<T> type;
+
+    /**
+     * The result set and mapping seen last.
+     */
+    @SuppressWarnings("PMD.AvoidUsingVolatile")
+    private volatile LastPlan<T> lastPlan;
+
+    private GeneratedRowMapper(final Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Create a row mapper for a bean class.
+     *
+     * @param type the bean class.
+     * @param <T>  the type of the bean.
+     * @return the row mapper.
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public static <T> GeneratedRowMapper<T> of(final Class<T> type) {
+        return new GeneratedRowMapper<>(type);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public T mapRow(final ResultSet resultSet, final int rowNum) throws SQLException {
+        LastPlan<T> last = lastPlan;
+        if (last == null || last.resultSet != resultSet) {
+            last = new LastPlan<>(resultSet, getPlan(resultSet.getMetaData()));
+            lastPlan = last;
+        }
+        return last.plan.mapRow(resultSet);
+    }
+
+    @SuppressWarnings({"unchecked", "PMD.LawOfDemeter"})
+    private MappingPlan<T> getPlan(final ResultSetMetaData metaData) throws SQLException {
+        final List<String> columnLabels = new ArrayList<>(metaData.getColumnCount());
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            columnLabels.add(metaData.getColumnLabel(column));
+        }
+        return (MappingPlan<T>) PLANS.get(type).computeIfAbsent(columnLabels, labels -> MappingPlan.create(type, labels));
+    }
+
+    /**
+     * The mapping of a result set.
+     *
+     * @param <T> The type of the bean.
+     */
+    private static final class LastPlan<T> {
+
+        /**
+         * The result set.
+         */
+        private final ResultSet resultSet;
+
+        /**
+         * The mapping.
+         */
+        private final MappingPlan<T> plan;
+
+        LastPlan(final ResultSet resultSet, final MappingPlan<T> plan) {
+            this.resultSet = resultSet;
+            this.plan = plan;
+        }
+    }
+}
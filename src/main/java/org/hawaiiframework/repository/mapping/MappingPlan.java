@@ -0,0 +1,180 @@
+package org.hawaiiframework.repository.mapping;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The specialised mapping of one column layout to one bean class.
+ * <p>
+ * The constructor and the setters are bound to functional interfaces with {@link LambdaMetafactory}, so mapping a row
+ * involves no reflection. Columns are matched to properties by name, ignoring case and underscores, so column
+ * {@code first_name} maps to property {@code firstName}; columns without a matching setter are ignored.
+ *
+ * @param <T> The type of the bean.
+ */
+final class MappingPlan<T> {
+
+    /**
+     * The prefix of setter names.
+     */
+    private static final String SETTER_PREFIX = "set";
+
+    /**
+     * The bean constructor.
+     */
+    private final Supplier<T> constructor;
+
+    /**
+     * The property writers, one per mapped column.
+     */
+    private final PropertyWriter[] writers;
+
+    private MappingPlan(final Supplier<T> constructor, final PropertyWriter... writers) {
+        this.constructor = constructor;
+        this.writers = writers;
+    }
+
+    /**
+     * Create the mapping of a column layout to a bean class.
+     *
+     * @param type         the bean class, which must have a no-argument constructor.
+     * @param columnLabels the column labels, in column order.
+     * @param <T>          the type of the bean.
+     * @return the mapping.
+     * @throws IllegalArgumentException if the mapping cannot be generated for the class.
+     */
+    @SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.AvoidInstantiatingObjectsInLoops", "PMD.LawOfDemeter"})
+    public static <T> MappingPlan<T> create(final Class<T> type, final List<String> columnLabels) {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            final Map<String, Method> setters = findSetters(type);
+            final List<PropertyWriter> writers = new ArrayList<>();
+            for (int index = 0; index < columnLabels.size(); index++) {
+                final Method setter = setters.get(normalize(columnLabels.get(index)));
+                if (setter != null) {
+                    final Class<?> propertyType = setter.getParameterTypes()[0];
+                    writers.add(new PropertyWriter(index + 1, ColumnReaders.forType(propertyType), bindSetter(lookup, type, setter),
+                        propertyType.isPrimitive()));
+                }
+            }
+            return new MappingPlan<>(bindConstructor(lookup, type), writers.toArray(new PropertyWriter[0]));
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot generate a row mapper for " + type.getName() + ".", e);
+        }
+    }
+
+    /**
+     * Map the current row to a new bean.
+     *
+     * @param resultSet the result set.
+     * @return the bean.
+     * @throws SQLException in case of an error.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public T mapRow(final ResultSet resultSet) throws SQLException {
+        final T bean = constructor.get();
+        for (final PropertyWriter writer : writers) {
+            final Object value = writer.reader.read(resultSet, writer.column);
+            if (value != null || !writer.primitive) {
+                writer.setter.accept(bean, value);
+            }
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static Map<String, Method> findSetters(final Class<?> type) {
+        final List<Method> candidates = new ArrayList<>();
+        for (final Method method : type.getMethods()) {
+            if (isSetter(method)) {
+                candidates.add(method);
+            }
+        }
+        candidates.sort(Comparator.comparing(Method::getName).thenComparing(method -> method.getParameterTypes()[0].getName()));
+        final Map<String, Method> setters = new HashMap<>();
+        for (final Method method : candidates) {
+            setters.putIfAbsent(normalize(method.getName().substring(SETTER_PREFIX.length())), method);
+        }
+        return setters;
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static boolean isSetter(final Method method) {
+        return method.getName().length() > SETTER_PREFIX.length()
+                && method.getName().startsWith(SETTER_PREFIX)
+                && method.getParameterCount() == 1
+                && !Modifier.isStatic(method.getModifiers());
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static String normalize(final String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    @SuppressWarnings({"unchecked", "PMD.LawOfDemeter"})
+    private static <T> Supplier<T> bindConstructor(final MethodHandles.Lookup lookup, final Class<T> type) throws Throwable {
+        final MethodHandle handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+        final CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+            MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+        return (Supplier<T>) site.getTarget().invoke();
+    }
+
+    @SuppressWarnings({"unchecked", "PMD.LawOfDemeter"})
+    private static BiConsumer<Object, Object> bindSetter(final MethodHandles.Lookup lookup, final Class<?> type,
+            final Method setter) throws Throwable {
+        final MethodHandle handle = lookup.unreflect(setter);
+        final Class<?> valueType = MethodType.methodType(setter.getParameterTypes()[0]).wrap().returnType();
+        final CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+            MethodType.methodType(void.class, Object.class, Object.class), handle, MethodType.methodType(void.class, type, valueType));
+        return (BiConsumer<Object, Object>) site.getTarget().invoke();
+    }
+
+    /**
+     * Writes one column to one property.
+     */
+    private static final class PropertyWriter {
+
+        /**
+         * The one-based column index.
+         */
+        private final int column;
+
+        /**
+         * The reader of the column.
+         */
+        private final ColumnReader reader;
+
+        /**
+         * The setter of the property.
+         */
+        private final BiConsumer<Object, Object> setter;
+
+        /**
+         * Flag to indicate the property is primitive, so SQL {@code NULL} leaves the default value.
+         */
+        private final boolean primitive;
+
+        PropertyWriter(final int column, final ColumnReader reader, final BiConsumer<Object, Object> setter,
+                final boolean primitive) {
+            this.column = column;
+            this.reader = reader;
+            this.setter = setter;
+            this.primitive = primitive;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.hawaiiframework.repository.metrics;
+
+/**
+ * Point-in-time copy of a {@link LatencyHistogram}.
+ */
+public class HistogramSnapshot {
+
+    /**
+     * The counts per bucket.
+     */
+    private final long[] counts;
+
+    /**
+     * The number of recorded values.
+     */
+    private final long count;
+
+    /**
+     * The sum of the recorded values.
+     */
+    private final long sum;
+
+    /**
+     * The largest recorded value.
+     */
+    private final long max;
+
+    /**
+     * Constructor.
+     *
+     * @param counts the counts per bucket.
+     * @param sum    the sum of the recorded values.
+     * @param max    the largest recorded value.
+     */
+    HistogramSnapshot(final long[] counts, final long sum, final long max) {
+        this.counts = counts;
+        long total = 0;
+        for (final long bucketCount : counts) {
+            total += bucketCount;
+        }
+        this.count = total;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return the mean, or zero if no values were recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return the maximum
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the value, or zero if no values were recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (count == 0) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulative = 0;
+        int index = 0;
+        while (index < counts.length - 1 && cumulative + counts[index] < rank) {
+            cumulative += counts[index];
+            index++;
+        }
+        return Math.min(LatencyHistogram.valueOf(index), max);
+    }
+}
@@ -0,0 +1,102 @@
+package org.hawaiiframework.repository.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, such as latencies in microseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into sixteen buckets of equal width, which bounds the
+ * relative error of reported percentiles to about three percent over the whole range of {@code long}. Recording a value is a
+ * handful of atomic increments, so the histogram is cheap enough to leave on in production.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits that select the sub-bucket within a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of sub-buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The total number of buckets.
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * The counts per bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * The sum of all recorded values.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The largest recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Record a value. Negative values are recorded as zero.
+     *
+     * @param value the value.
+     */
+    public void record(final long value) {
+        final long nonNegative = Math.max(0L, value);
+        counts.incrementAndGet(indexOf(nonNegative));
+        sum.add(nonNegative);
+        max.accumulate(nonNegative);
+    }
+
+    /**
+     * Take a snapshot of the recorded values.
+     *
+     * @return the snapshot.
+     */
+    public HistogramSnapshot snapshot() {
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(snapshot, sum.sum(), max.get());
+    }
+
+    /**
+     * Get the bucket of a value.
+     *
+     * @param value the non-negative value.
+     * @return the bucket index.
+     */
+    @SuppressWarnings("PMD.DefaultPackage")
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the value that represents a bucket: the middle of the range of values counted in the bucket.
+     *
+     * @param index the bucket index.
+     * @return the value.
+     */
+    @SuppressWarnings("PMD.DefaultPackage")
+    static long valueOf(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + ((1L << shift) >> 1);
+    }
+}
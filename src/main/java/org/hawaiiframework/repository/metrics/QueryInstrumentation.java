@@ -0,0 +1,36 @@
+package org.hawaiiframework.repository.metrics;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+
+/**
+ * Utility to wrap a data source with datasource-proxy listeners, before handing it to a repository.
+ * <p>
+ * For example: {@code QueryInstrumentation.instrument(dataSource, new QueryMetricsListener(queryMetrics))}.
+ */
+public final class QueryInstrumentation {
+
+    /**
+     * Utility constructor.
+     */
+    private QueryInstrumentation() {
+        // Do nothing.
+    }
+
+    /**
+     * Wrap the data source so that the listeners are notified of every statement executed through it.
+     *
+     * @param dataSource the data source to wrap.
+     * @param listeners  the listeners.
+     * @return the instrumented data source.
+     */
+    public static DataSource instrument(final DataSource dataSource, final QueryExecutionListener... listeners) {
+        final ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource);
+        for (final QueryExecutionListener listener : listeners) {
+            builder.listener(listener);
+        }
+        return builder.build();
+    }
+}
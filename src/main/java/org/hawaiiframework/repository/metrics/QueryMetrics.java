@@ -0,0 +1,52 @@
+package org.hawaiiframework.repository.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link QueryStatistics} per named query.
+ * <p>
+ * Statements executed outside of a named query are recorded under {@value #UNNAMED_QUERY}.
+ */
+public class QueryMetrics {
+
+    /**
+     * The name under which statements outside of a named query are recorded.
+     */
+    public static final String UNNAMED_QUERY = "(unnamed)";
+
+    /**
+     * The statistics, by query name.
+     */
+    private final ConcurrentMap<String, QueryStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Get the statistics of a query, creating them on first use.
+     *
+     * @param queryName the query name.
+     * @return the statistics.
+     */
+    public QueryStatistics getStatistics(final String queryName) {
+        return statistics.computeIfAbsent(queryName, QueryStatistics::new);
+    }
+
+    /**
+     * Take a snapshot of the statistics of all queries, for instance to expose them on a metrics endpoint.
+     *
+     * @return the snapshots, by query name.
+     */
+    public Map<String, QueryStatisticsSnapshot> snapshot() {
+        final Map<String, QueryStatisticsSnapshot> snapshots = new TreeMap<>();
+        statistics.forEach((queryName, queryStatistics) -> snapshots.put(queryName, queryStatistics.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Remove the statistics of all queries.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package org.hawaiiframework.repository.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.hawaiiframework.repository.QueryContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Datasource-proxy listener that records the statements executed through a data source in {@link QueryMetrics}.
+ * <p>
+ * Statements are attributed to the named query of the current {@link QueryContext}. Latencies are measured with
+ * {@link System#nanoTime()}, since datasource-proxy only reports whole milliseconds.
+ */
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    /**
+     * The start time of the statement the current thread is executing.
+     */
+    private static final ThreadLocal<long[]> START_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * The metrics to record in.
+     */
+    private final QueryMetrics metrics;
+
+    /**
+     * Constructor.
+     *
+     * @param metrics the metrics to record in.
+     */
+    public QueryMetricsListener(final QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        START_NANOS.get()[0] = System.nanoTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        final long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - START_NANOS.get()[0]);
+        final QueryContext context = QueryContext.current();
+        final QueryStatistics statistics = metrics.getStatistics(QueryContext.currentQueryName(QueryMetrics.UNNAMED_QUERY));
+
+        statistics.recordExecution(latencyMicros, execInfo.isSuccess());
+        if (execInfo.isBatch()) {
+            statistics.recordBatch(execInfo.getBatchSize());
+        }
+        statistics.recordRowsAffected(countAffectedRows(execInfo.getResult()));
+        if (context != null) {
+            context.onClose(this, statistics::recordRowsReturned);
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static long countAffectedRows(final Object result) {
+        long rows = 0;
+        if (result instanceof Number) {
+            rows = Math.max(0L, ((Number) result).longValue());
+        } else if (result instanceof int[]) {
+            for (final int rowCount : (int[]) result) {
+                rows += Math.max(0, rowCount);
+            }
+        }
+        return rows;
+    }
+}
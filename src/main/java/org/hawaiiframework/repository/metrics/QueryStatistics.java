@@ -0,0 +1,182 @@
+package org.hawaiiframework.repository.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters and latency histogram of one named query.
+ */
+public class QueryStatistics {
+
+    /**
+     * The query name.
+     */
+    private final String queryName;
+
+    /**
+     * The latencies of the executed statements, in microseconds.
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * The number of statements that failed.
+     */
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * The number of rows read by the repository.
+     */
+    private final LongAdder rowsReturned = new LongAdder();
+
+    /**
+     * The number of rows reported as affected by updates.
+     */
+    private final LongAdder rowsAffected = new LongAdder();
+
+    /**
+     * The number of executed batches.
+     */
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * The number of statements executed in batches.
+     */
+    private final LongAdder batchedStatements = new LongAdder();
+
+    /**
+     * The size of the largest batch.
+     */
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Constructor.
+     *
+     * @param queryName the query name.
+     */
+    public QueryStatistics(final String queryName) {
+        this.queryName = queryName;
+    }
+
+    /**
+     * Record the execution of a statement.
+     *
+     * @param latencyMicros the latency, in microseconds.
+     * @param success       whether the statement succeeded.
+     */
+    public void recordExecution(final long latencyMicros, final boolean success) {
+        latency.record(latencyMicros);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Record the number of rows read by the repository.
+     *
+     * @param rows the number of rows.
+     */
+    public void recordRowsReturned(final long rows) {
+        rowsReturned.add(rows);
+    }
+
+    /**
+     * Record the number of rows affected by an update.
+     *
+     * @param rows the number of rows.
+     */
+    public void recordRowsAffected(final long rows) {
+        rowsAffected.add(rows);
+    }
+
+    /**
+     * Record the execution of a batch.
+     *
+     * @param batchSize the number of statements in the batch.
+     */
+    public void recordBatch(final int batchSize) {
+        batches.increment();
+        batchedStatements.add(batchSize);
+        maxBatchSize.accumulate(batchSize);
+    }
+
+    /**
+     * Take a snapshot of the counters.
+     *
+     * @return the snapshot.
+     */
+    public QueryStatisticsSnapshot snapshot() {
+        return new QueryStatisticsSnapshot(this);
+    }
+
+    /**
+     * Gets the query name.
+     *
+     * @return queryName value
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Gets the latency histogram.
+     *
+     * @return latency value
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Gets the number of statements that failed.
+     *
+     * @return the number of errors
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Gets the number of rows read by the repository.
+     *
+     * @return the number of rows
+     */
+    public long getRowsReturned() {
+        return rowsReturned.sum();
+    }
+
+    /**
+     * Gets the number of rows reported as affected by updates.
+     *
+     * @return the number of rows
+     */
+    public long getRowsAffected() {
+        return rowsAffected.sum();
+    }
+
+    /**
+     * Gets the number of executed batches.
+     *
+     * @return the number of batches
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Gets the number of statements executed in batches.
+     *
+     * @return the number of statements
+     */
+    public long getBatchedStatementCount() {
+        return batchedStatements.sum();
+    }
+
+    /**
+     * Gets the size of the largest batch.
+     *
+     * @return the batch size
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+}
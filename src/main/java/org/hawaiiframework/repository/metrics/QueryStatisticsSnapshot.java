@@ -0,0 +1,181 @@
+package org.hawaiiframework.repository.metrics;
+
+/**
+ * Point-in-time copy of the {@link QueryStatistics} of one named query. Latencies are in microseconds.
+ */
+public class QueryStatisticsSnapshot {
+
+    /**
+     * The query name.
+     */
+    private final String queryName;
+
+    /**
+     * The latencies of the executed statements.
+     */
+    private final HistogramSnapshot latency;
+
+    /**
+     * The number of statements that failed.
+     */
+    private final long errorCount;
+
+    /**
+     * The number of rows read by the repository.
+     */
+    private final long rowsReturned;
+
+    /**
+     * The number of rows reported as affected by updates.
+     */
+    private final long rowsAffected;
+
+    /**
+     * The number of executed batches.
+     */
+    private final long batchCount;
+
+    /**
+     * The number of statements executed in batches.
+     */
+    private final long batchedStatementCount;
+
+    /**
+     * The size of the largest batch.
+     */
+    private final long maxBatchSize;
+
+    /**
+     * Construct a snapshot of the statistics.
+     *
+     * @param statistics the statistics.
+     */
+    QueryStatisticsSnapshot(final QueryStatistics statistics) {
+        this.queryName = statistics.getQueryName();
+        this.latency = statistics.getLatency().snapshot();
+        this.errorCount = statistics.getErrorCount();
+        this.rowsReturned = statistics.getRowsReturned();
+        this.rowsAffected = statistics.getRowsAffected();
+        this.batchCount = statistics.getBatchCount();
+        this.batchedStatementCount = statistics.getBatchedStatementCount();
+        this.maxBatchSize = statistics.getMaxBatchSize();
+    }
+
+    /**
+     * Gets the query name.
+     *
+     * @return queryName value
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Gets the latency histogram, in microseconds.
+     *
+     * @return latency value
+     */
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * Gets the number of executed statements; a batch counts as one statement.
+     *
+     * @return the number of statements
+     */
+    public long getExecutionCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Gets the median latency.
+     *
+     * @return the latency, in microseconds
+     */
+    public long getP50() {
+        return latency.getValueAtPercentile(50.0);
+    }
+
+    /**
+     * Gets the 99th percentile latency.
+     *
+     * @return the latency, in microseconds
+     */
+    public long getP99() {
+        return latency.getValueAtPercentile(99.0);
+    }
+
+    /**
+     * Gets the 99.9th percentile latency.
+     *
+     * @return the latency, in microseconds
+     */
+    public long getP999() {
+        return latency.getValueAtPercentile(99.9);
+    }
+
+    /**
+     * Gets the number of statements that failed.
+     *
+     * @return errorCount value
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Gets the number of rows read by the repository.
+     *
+     * @return rowsReturned value
+     */
+    public long getRowsReturned() {
+        return rowsReturned;
+    }
+
+    /**
+     * Gets the number of rows reported as affected by updates.
+     *
+     * @return rowsAffected value
+     */
+    public long getRowsAffected() {
+        return rowsAffected;
+    }
+
+    /**
+     * Gets the number of executed batches.
+     *
+     * @return batchCount value
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Gets the number of statements executed in batches.
+     *
+     * @return batchedStatementCount value
+     */
+    public long getBatchedStatementCount() {
+        return batchedStatementCount;
+    }
+
+    /**
+     * Gets the size of the largest batch.
+     *
+     * @return maxBatchSize value
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return queryName + ": executions=" + getExecutionCount() + ", errors=" + errorCount + ", p50=" + getP50() + "us, p99="
+            + getP99() + "us, p999=" + getP999() + "us, max=" + latency.getMax() + "us, rowsReturned=" + rowsReturned
+            + ", rowsAffected=" + rowsAffected + ", batches=" + batchCount + ", maxBatchSize=" + maxBatchSize;
+    }
+}
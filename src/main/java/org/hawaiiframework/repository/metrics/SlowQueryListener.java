@@ -0,0 +1,260 @@
+package org.hawaiiframework.repository.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.apache.commons.lang3.StringUtils;
+import org.hawaiiframework.logging.MdcPropagatingExecutor;
+import org.hawaiiframework.repository.QueryContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Datasource-proxy listener that logs the plan of slow queries, so that plan regressions show up in the logs.
+ * <p>
+ * When a select takes longer than the threshold, the listener captures its SQL and bound parameters and explains it on the
+ * executor, on a connection of its own data source. Use the plain data source there, not the instrumented one, so that
+ * the explains are not measured themselves. The plan is logged as a warning with the Kibana log fields of the slow
+ * statement, so it ends up in the same log transaction. Explains are rate limited per query, see
+ * {@link SlowQuerySettings}. The parameter values are bound to the explain, but only logged if the settings allow it,
+ * since they may hold personal data. The listener is opt-in: add it to a data source with {@link QueryInstrumentation}.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    /**
+     * The maximum length of a parameter value in log lines.
+     */
+    private static final int MAXIMUM_VALUE_LENGTH = 100;
+
+    /**
+     * The maximum number of queries whose last explain is tracked; a slow query beyond it is not explained until the
+     * interval of a tracked query has passed.
+     */
+    private static final int MAXIMUM_TRACKED_QUERIES = 1000;
+
+    /**
+     * The start time of the statement the current thread is executing.
+     */
+    private static final ThreadLocal<long[]> START_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * The data source to explain on.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The executor to explain on.
+     */
+    private final Executor executor;
+
+    /**
+     * The settings.
+     */
+    private final SlowQuerySettings settings;
+
+    /**
+     * The time of the last explain, by query.
+     */
+    private final ConcurrentMap<String, Long> lastExplainNanos = new ConcurrentHashMap<>();
+
+    /**
+     * The number of explains in progress.
+     */
+    private final AtomicInteger explainsInProgress = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource the data source to explain on, which should not be instrumented.
+     * @param executor   the executor to explain on, which should not run tasks on the calling thread.
+     * @param settings   the settings.
+     */
+    public SlowQueryListener(final DataSource dataSource, final Executor executor, final SlowQuerySettings settings) {
+        this.dataSource = dataSource;
+        this.executor = new MdcPropagatingExecutor(executor);
+        this.settings = settings;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        START_NANOS.get()[0] = System.nanoTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        final long nanos = System.nanoTime() - START_NANOS.get()[0];
+        if (nanos >= settings.getThreshold().toNanos() && isSingleSelect(execInfo, queryInfoList)) {
+            final QueryInfo queryInfo = queryInfoList.get(0);
+            final String sql = queryInfo.getQuery();
+            final String queryName = QueryContext.currentQueryName(StringUtils.abbreviate(sql, MAXIMUM_VALUE_LENGTH));
+            // The explain slot is claimed first, so a statement that finds all slots taken does not use up the interval.
+            if (acquire()) {
+                if (isDue(queryName)) {
+                    submitExplain(queryName, queryInfo, nanos);
+                } else {
+                    explainsInProgress.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private void submitExplain(final String queryName, final QueryInfo queryInfo, final long nanos) {
+        final List<ParameterSetOperation> parameters =
+            queryInfo.getParametersList().isEmpty() ? List.of() : sorted(queryInfo.getParametersList().get(0));
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        try {
+            executor.execute(() -> explain(queryName, queryInfo.getQuery(), parameters, millis));
+        } catch (RejectedExecutionException e) {
+            explainsInProgress.decrementAndGet();
+            LOGGER.debug("Skipped the explain of slow query '{}'.", queryName, e);
+        }
+    }
+
+    /**
+     * Check whether the plan of the query may be explained now, and if so, record that it is.
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private boolean isDue(final String queryName) {
+        final long now = System.nanoTime();
+        final long interval = settings.getMinimumInterval().toNanos();
+        if (lastExplainNanos.size() >= MAXIMUM_TRACKED_QUERIES) {
+            // Outside a query context the names are SQL, so their number is not bounded; only recent explains are kept.
+            lastExplainNanos.values().removeIf(last -> now - last >= interval);
+        }
+        final Long last = lastExplainNanos.get(queryName);
+        if (last == null) {
+            return lastExplainNanos.size() < MAXIMUM_TRACKED_QUERIES && lastExplainNanos.putIfAbsent(queryName, now) == null;
+        }
+        return now - last >= interval && lastExplainNanos.replace(queryName, last, now);
+    }
+
+    /**
+     * Claim one of the concurrent explains.
+     */
+    private boolean acquire() {
+        final boolean acquired = explainsInProgress.incrementAndGet() <= settings.getMaximumConcurrentExplains();
+        if (!acquired) {
+            explainsInProgress.decrementAndGet();
+        }
+        return acquired;
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void explain(final String queryName, final String sql, final List<ParameterSetOperation> parameters,
+            final long millis) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(settings.getExplainPrefix() + sql)) {
+            for (final ParameterSetOperation parameter : parameters) {
+                bind(statement, parameter);
+            }
+            LOGGER.warn("Slow query '{}' took {} ms, parameters {}, plan:\n{}", queryName, millis, describe(parameters),
+                readPlan(statement));
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.warn("Slow query '{}' took {} ms, parameters {}; could not explain it.", queryName, millis,
+                describe(parameters), e);
+        } finally {
+            explainsInProgress.decrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static boolean isSingleSelect(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        if (execInfo.isBatch() || queryInfoList.size() != 1) {
+            return false;
+        }
+        final String statement = queryInfoList.get(0).getQuery().trim().toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("with");
+    }
+
+    private static List<ParameterSetOperation> sorted(final List<ParameterSetOperation> operations) {
+        final List<ParameterSetOperation> parameters = new ArrayList<>();
+        for (final ParameterSetOperation operation : operations) {
+            final Object[] args = operation.getArgs();
+            if (args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.add(operation);
+            }
+        }
+        parameters.sort(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]));
+        return parameters;
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static void bind(final PreparedStatement statement, final ParameterSetOperation parameter) throws SQLException {
+        final int index = (Integer) parameter.getArgs()[0];
+        final Object value = valueOf(parameter);
+        if (value == null) {
+            final Object sqlType = parameter.getArgs()[1];
+            statement.setNull(index, isSetNull(parameter) && sqlType instanceof Integer ? (Integer) sqlType : Types.NULL);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static Object valueOf(final ParameterSetOperation parameter) {
+        return isSetNull(parameter) ? null : parameter.getArgs()[1];
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static boolean isSetNull(final ParameterSetOperation parameter) {
+        return "setNull".equals(parameter.getMethod().getName());
+    }
+
+    private List<String> describe(final List<ParameterSetOperation> parameters) {
+        final List<String> values = new ArrayList<>(parameters.size());
+        for (final ParameterSetOperation parameter : parameters) {
+            values.add(settings.isLogParameterValues()
+                ? StringUtils.abbreviate(String.valueOf(valueOf(parameter)), MAXIMUM_VALUE_LENGTH) : "?");
+        }
+        return values;
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static String readPlan(final PreparedStatement statement) throws SQLException {
+        final StringBuilder plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            final int columnCount = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                String separator = "";
+                for (int column = 1; column <= columnCount; column++) {
+                    plan.append(separator).append(resultSet.getString(column));
+                    separator = " | ";
+                }
+                plan.append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
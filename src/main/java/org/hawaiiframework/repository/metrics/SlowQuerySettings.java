@@ -0,0 +1,151 @@
+package org.hawaiiframework.repository.metrics;
+
+import java.time.Duration;
+
+/**
+ * Settings of a {@link SlowQueryListener}.
+ * <p>
+ * By default a statement is slow when it takes a second or more, the plan of a query is explained at most once every five
+ * minutes, one plan is explained at a time, plans are requested with {@value #DEFAULT_EXPLAIN_PREFIX}, which suits
+ * PostgreSQL, MySQL and H2, and parameter values are not logged.
+ */
+public class SlowQuerySettings {
+
+    /**
+     * The default statement prefix that requests the plan.
+     */
+    public static final String DEFAULT_EXPLAIN_PREFIX = "EXPLAIN ";
+
+    /**
+     * The latency from which a statement is slow.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Duration threshold = Duration.ofSeconds(1L);
+
+    /**
+     * The minimum time between two plans of the same query.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Duration minimumInterval = Duration.ofMinutes(5L);
+
+    /**
+     * The maximum number of plans that are explained at the same time.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private int maximumConcurrentExplains = 1;
+
+    /**
+     * The statement prefix that requests the plan.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private String explainPrefix = DEFAULT_EXPLAIN_PREFIX;
+
+    /**
+     * Flag to indicate the parameter values of slow statements are logged.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private boolean logParameterValues;
+
+    /**
+     * Set the latency from which a statement is slow.
+     *
+     * @param threshold the threshold.
+     * @return this settings instance.
+     */
+    public SlowQuerySettings threshold(final Duration threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+
+    /**
+     * Set the minimum time between two plans of the same query, so that a query that is slow all the time does not load
+     * the database with explains.
+     *
+     * @param minimumInterval the minimum interval.
+     * @return this settings instance.
+     */
+    public SlowQuerySettings minimumInterval(final Duration minimumInterval) {
+        this.minimumInterval = minimumInterval;
+        return this;
+    }
+
+    /**
+     * Limit the number of plans that are explained at the same time; slow statements beyond the limit are not explained.
+     *
+     * @param maximumConcurrentExplains the maximum number of concurrent explains.
+     * @return this settings instance.
+     */
+    public SlowQuerySettings maximumConcurrentExplains(final int maximumConcurrentExplains) {
+        this.maximumConcurrentExplains = maximumConcurrentExplains;
+        return this;
+    }
+
+    /**
+     * Set the statement prefix that requests the plan of the dialect, such as {@code "EXPLAIN (FORMAT TEXT) "}. The
+     * prefix must not execute the statement, so do not use {@code EXPLAIN ANALYZE}.
+     *
+     * @param explainPrefix the prefix, including a trailing space.
+     * @return this settings instance.
+     */
+    public SlowQuerySettings explainPrefix(final String explainPrefix) {
+        this.explainPrefix = explainPrefix;
+        return this;
+    }
+
+    /**
+     * Log the parameter values of slow statements. Only enable this if the parameters hold no personal or otherwise
+     * sensitive data, or the logs may hold it.
+     *
+     * @param logParameterValues {@code true} to log the values, {@code false} to log a {@code ?} per parameter.
+     * @return this settings instance.
+     */
+    public SlowQuerySettings logParameterValues(final boolean logParameterValues) {
+        this.logParameterValues = logParameterValues;
+        return this;
+    }
+
+    /**
+     * Gets threshold.
+     *
+     * @return threshold value
+     */
+    public Duration getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Gets minimumInterval.
+     *
+     * @return minimumInterval value
+     */
+    public Duration getMinimumInterval() {
+        return minimumInterval;
+    }
+
+    /**
+     * Gets maximumConcurrentExplains.
+     *
+     * @return maximumConcurrentExplains value
+     */
+    public int getMaximumConcurrentExplains() {
+        return maximumConcurrentExplains;
+    }
+
+    /**
+     * Gets explainPrefix.
+     *
+     * @return explainPrefix value
+     */
+    public String getExplainPrefix() {
+        return explainPrefix;
+    }
+
+    /**
+     * Gets logParameterValues.
+     *
+     * @return logParameterValues value
+     */
+    public boolean isLogParameterValues() {
+        return logParameterValues;
+    }
+}
@@ -0,0 +1,217 @@
+package org.hawaiiframework.repository.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.apache.commons.lang3.StringUtils;
+import org.hawaiiframework.logging.KibanaLogTransaction;
+import org.hawaiiframework.logging.KibanaLogTransactionListener;
+import org.hawaiiframework.logging.model.KibanaLogFields;
+import org.hawaiiframework.repository.QueryContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hawaiiframework.logging.model.KibanaLogFieldNames.TX_ID;
+
+/**
+ * Listener that counts the statements executed in each {@link KibanaLogTransaction}, to spot transactions that issue many
+ * queries, such as an assembler calling a repository in a loop.
+ * <p>
+ * The listener must be added both to the data source (see {@link QueryInstrumentation}) and to the log transactions (see
+ * {@link KibanaLogTransaction#addListener(KibanaLogTransactionListener)}). Statements are attributed to a transaction by
+ * its transaction id, so statements executed on other threads that carry the transaction's log fields are counted too.
+ * When the transaction closes, one summary line is logged, and a warning if one of the thresholds is exceeded.
+ * <p>
+ * At most {@value #MAXIMUM_TRANSACTIONS} transactions are tracked at a time. Once that many are open, transactions that
+ * were started longer than the {@link #maximumTransactionAge(Duration) maximum transaction age} ago are assumed never to
+ * be closed and are dropped; if none are, new transactions are not tracked until some close.
+ */
+public class TransactionQueryListener implements QueryExecutionListener, KibanaLogTransactionListener {
+
+    /**
+     * The maximum number of open transactions tracked.
+     */
+    public static final int MAXIMUM_TRANSACTIONS = 10_000;
+
+    /**
+     * The logger to use.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionQueryListener.class);
+
+    /**
+     * The maximum length of SQL text used as query shape in log lines.
+     */
+    private static final int MAXIMUM_SHAPE_LENGTH = 200;
+
+    /**
+     * The start time of the statement the current thread is executing.
+     */
+    private static final ThreadLocal<long[]> START_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * The default maximum age of an open transaction.
+     */
+    private static final Duration DEFAULT_MAXIMUM_TRANSACTION_AGE = Duration.ofHours(1);
+
+    /**
+     * The thresholds.
+     */
+    private final TransactionQueryThresholds thresholds;
+
+    /**
+     * The supplier of the transaction id of the current thread.
+     */
+    private final Supplier<String> currentTxId;
+
+    /**
+     * The statistics of the open transactions, by transaction id.
+     */
+    private final ConcurrentMap<String, TransactionQueryStatistics> transactions = new ConcurrentHashMap<>();
+
+    /**
+     * The age beyond which an open transaction may be dropped.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Duration maximumTransactionAge = DEFAULT_MAXIMUM_TRANSACTION_AGE;
+
+    /**
+     * Construct a listener with the default thresholds.
+     */
+    public TransactionQueryListener() {
+        this(new TransactionQueryThresholds());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param thresholds the thresholds.
+     */
+    public TransactionQueryListener(final TransactionQueryThresholds thresholds) {
+        this(thresholds, () -> KibanaLogFields.get(TX_ID));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param thresholds  the thresholds.
+     * @param currentTxId the supplier of the transaction id of the current thread.
+     */
+    TransactionQueryListener(final TransactionQueryThresholds thresholds, final Supplier<String> currentTxId) {
+        this.thresholds = thresholds;
+        this.currentTxId = currentTxId;
+    }
+
+    /**
+     * Set the age beyond which an open transaction may be dropped, once {@value #MAXIMUM_TRANSACTIONS} transactions are
+     * open. The default is one hour.
+     *
+     * @param maximumTransactionAge the maximum age.
+     * @return this listener.
+     */
+    public TransactionQueryListener maximumTransactionAge(final Duration maximumTransactionAge) {
+        this.maximumTransactionAge = maximumTransactionAge;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStart(final String txId, final String transactionType) {
+        if (transactions.size() >= MAXIMUM_TRANSACTIONS) {
+            evictStale();
+        }
+        if (transactions.size() < MAXIMUM_TRANSACTIONS) {
+            transactions.put(txId, new TransactionQueryStatistics(transactionType));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void onClose(final String txId) {
+        final TransactionQueryStatistics statistics = transactions.remove(txId);
+        if (statistics != null && statistics.getStatementCount() > 0) {
+            log(statistics);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        START_NANOS.get()[0] = System.nanoTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        final long nanos = System.nanoTime() - START_NANOS.get()[0];
+        final String txId = currentTxId.get();
+        final TransactionQueryStatistics statistics = txId == null ? null : transactions.get(txId);
+        if (statistics != null) {
+            statistics.recordStatement(getShape(queryInfoList), nanos);
+        }
+    }
+
+    /**
+     * Gets the number of open transactions that are tracked.
+     *
+     * @return the number of transactions
+     */
+    public int getOpenTransactionCount() {
+        return transactions.size();
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private void evictStale() {
+        final long now = System.nanoTime();
+        final long maximumAgeNanos = maximumTransactionAge.toNanos();
+        final int before = transactions.size();
+        transactions.values().removeIf(statistics -> now - statistics.getStartNanos() >= maximumAgeNanos);
+        final int dropped = before - transactions.size();
+        if (dropped > 0) {
+            LOGGER.warn("Dropped {} transactions that were open for more than {}; are all log transactions closed?",
+                    dropped, maximumTransactionAge);
+        }
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private static String getShape(final List<QueryInfo> queryInfoList) {
+        final QueryContext context = QueryContext.current();
+        if (context != null) {
+            return context.getQueryName();
+        }
+        final String sql = queryInfoList.isEmpty() ? QueryMetrics.UNNAMED_QUERY : queryInfoList.get(0).getQuery();
+        return StringUtils.abbreviate(sql, MAXIMUM_SHAPE_LENGTH);
+    }
+
+    @SuppressWarnings("PMD.LawOfDemeter")
+    private void log(final TransactionQueryStatistics statistics) {
+        final long databaseMillis = TimeUnit.NANOSECONDS.toMillis(statistics.getDatabaseNanos());
+        LOGGER.info("Transaction '{}' executed {} statements in {} ms; most repeated query '{}' ({} times).",
+                statistics.getTransactionType(), statistics.getStatementCount(), databaseMillis,
+                statistics.getMostRepeatedShape(), statistics.getMostRepeatedCount());
+        if (thresholds.isExceeded(statistics)) {
+            LOGGER.warn("Transaction '{}' exceeded the query thresholds: {} statements (max {}), {} ms (max {}), "
+                            + "query '{}' executed {} times (max {}).",
+                    statistics.getTransactionType(), statistics.getStatementCount(), thresholds.getMaximumStatements(),
+                    databaseMillis, thresholds.getMaximumDatabaseTime(), statistics.getMostRepeatedShape(),
+                    statistics.getMostRepeatedCount(), thresholds.getMaximumRepeats());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.hawaiiframework.repository.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statements executed in one log transaction.
+ * <p>
+ * Statements are grouped by shape: the name of the named query, or the SQL text for statements outside of a named query.
+ * At most {@value #MAXIMUM_SHAPES} distinct shapes are tracked, so a transaction that executes many distinct statements
+ * does not hold on to unbounded memory.
+ */
+public class TransactionQueryStatistics {
+
+    /**
+     * The maximum number of distinct query shapes tracked.
+     */
+    public static final int MAXIMUM_SHAPES = 1_000;
+
+    /**
+     * The transaction type.
+     */
+    private final String transactionType;
+
+    /**
+     * The {@link System#nanoTime()} at which the transaction started.
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * The number of statements.
+     */
+    private final LongAdder statementCount = new LongAdder();
+
+    /**
+     * The total database time in nanoseconds.
+     */
+    private final LongAdder databaseNanos = new LongAdder();
+
+    /**
+     * The number of executions, by query shape.
+     */
+    private final ConcurrentMap<String, LongAdder> shapeCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param transactionType the transaction type.
+     */
+    public TransactionQueryStatistics(final String transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    /**
+     * Record the execution of a statement.
+     *
+     * @param shape the query shape.
+     * @param nanos the execution time in nanoseconds.
+     */
+    public void recordStatement(final String shape, final long nanos) {
+        statementCount.increment();
+        databaseNanos.add(nanos);
+        LongAdder count = shapeCounts.get(shape);
+        if (count == null && shapeCounts.size() < MAXIMUM_SHAPES) {
+            count = shapeCounts.computeIfAbsent(shape, key -> new LongAdder());
+        }
+        if (count != null) {
+            count.increment();
+        }
+    }
+
+    /**
+     * Gets the transaction type.
+     *
+     * @return transactionType value
+     */
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the transaction started.
+     *
+     * @return startNanos value
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Gets the number of statements.
+     *
+     * @return the statement count
+     */
+    public long getStatementCount() {
+        return statementCount.sum();
+    }
+
+    /**
+     * Gets the total database time in nanoseconds.
+     *
+     * @return the database time
+     */
+    public long getDatabaseNanos() {
+        return databaseNanos.sum();
+    }
+
+    /**
+     * Gets the query shape that was executed most often.
+     *
+     * @return the shape, or {@code null} if no statements were executed
+     */
+    @SuppressWarnings("PMD.LawOfDemeter")
+    public String getMostRepeatedShape() {
+        String mostRepeated = null;
+        long mostRepeatedCount = 0;
+        for (final Map.Entry<String, LongAdder> entry : shapeCounts.entrySet()) {
+            final long count = entry.getValue().sum();
+            if (count > mostRepeatedCount) {
+                mostRepeated = entry.getKey();
+                mostRepeatedCount = count;
+            }
+        }
+        return mostRepeated;
+    }
+
+    /**
+     * Gets the number of executions of the query shape that was executed most often.
+     *
+     * @return the count
+     */
+    public long getMostRepeatedCount() {
+        long mostRepeatedCount = 0;
+        for (final LongAdder count : shapeCounts.values()) {
+            mostRepeatedCount = Math.max(mostRepeatedCount, count.sum());
+        }
+        return mostRepeatedCount;
+    }
+}
@@ -0,0 +1,112 @@
+package org.hawaiiframework.repository.metrics;
+
+import java.time.Duration;
+
+/**
+ * Thresholds for the statements executed in one log transaction, beyond which a warning is logged.
+ * <p>
+ * By default a transaction may execute {@value #DEFAULT_MAXIMUM_STATEMENTS} statements, the same query shape may be
+ * executed {@value #DEFAULT_MAXIMUM_REPEATS} times, and there is no limit on the database time.
+ */
+public class TransactionQueryThresholds {
+
+    /**
+     * The default maximum number of statements.
+     */
+    public static final int DEFAULT_MAXIMUM_STATEMENTS = 100;
+
+    /**
+     * The default maximum number of executions of the same query shape.
+     */
+    public static final int DEFAULT_MAXIMUM_REPEATS = 20;
+
+    /**
+     * The maximum number of statements.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private int maximumStatements = DEFAULT_MAXIMUM_STATEMENTS;
+
+    /**
+     * The maximum number of executions of the same query shape.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private int maximumRepeats = DEFAULT_MAXIMUM_REPEATS;
+
+    /**
+     * The maximum total database time, {@code null} for no limit.
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private Duration maximumDatabaseTime;
+
+    /**
+     * Limit the number of statements.
+     *
+     * @param maximumStatements the maximum number of statements.
+     * @return this thresholds instance.
+     */
+    public TransactionQueryThresholds maximumStatements(final int maximumStatements) {
+        this.maximumStatements = maximumStatements;
+        return this;
+    }
+
+    /**
+     * Limit the number of executions of the same query shape, which usually indicates an N+1 query pattern.
+     *
+     * @param maximumRepeats the maximum number of executions.
+     * @return this thresholds instance.
+     */
+    public TransactionQueryThresholds maximumRepeats(final int maximumRepeats) {
+        this.maximumRepeats = maximumRepeats;
+        return this;
+    }
+
+    /**
+     * Limit the total time spent executing statements.
+     *
+     * @param maximumDatabaseTime the maximum database time.
+     * @return this thresholds instance.
+     */
+    public TransactionQueryThresholds maximumDatabaseTime(final Duration maximumDatabaseTime) {
+        this.maximumDatabaseTime = maximumDatabaseTime;
+        return this;
+    }
+
+    /**
+     * Check whether the statistics of a transaction exceed one of the thresholds.
+     *
+     * @param statistics the statistics.
+     * @return {@code true} if a threshold is exceeded.
+     */
+    public boolean isExceeded(final TransactionQueryStatistics statistics) {
+        return statistics.getStatementCount() > maximumStatements
+                || statistics.getMostRepeatedCount() > maximumRepeats
+                || maximumDatabaseTime != null && statistics.getDatabaseNanos() > maximumDatabaseTime.toNanos();
+    }
+
+    /**
+     * Gets maximumStatements.
+     *
+     * @return maximumStatements value
+     */
+    public int getMaximumStatements() {
+        return maximumStatements;
+    }
+
+    /**
+     * Gets maximumRepeats.
+     *
+     * @return maximumRepeats value
+     */
+    public int getMaximumRepeats() {
+        return maximumRepeats;
+    }
+
+    /**
+     * Gets maximumDatabaseTime.
+     *
+     * @return maximumDatabaseTime value, {@code null} for no limit
+     */
+    public Duration getMaximumDatabaseTime() {
+        return maximumDatabaseTime;
+    }
+}
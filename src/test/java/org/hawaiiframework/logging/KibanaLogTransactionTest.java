@@ -0,0 +1,85 @@
+package org.hawaiiframework.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Kibana log transaction")
+class KibanaLogTransactionTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    private final List<KibanaLogTransactionListener> listeners = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        listeners.forEach(KibanaLogTransaction::removeListener);
+    }
+
+    @Test
+    @DisplayName("Notifies the listeners of the start and close of a transaction, with its id")
+    void notifiesListeners() {
+        add(new RecordingListener());
+
+        new KibanaLogTransaction("GET /orders").close();
+
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).startsWith("start GET /orders "));
+        assertEquals(events.get(0).substring("start GET /orders ".length()), events.get(1).substring("close ".length()));
+    }
+
+    @Test
+    @DisplayName("A failing listener neither keeps the others from being notified nor fails the transaction")
+    void failingListener() {
+        add(new KibanaLogTransactionListener() {
+            @Override
+            public void onStart(final String txId, final String transactionType) {
+                throw new IllegalStateException("Listener failure.");
+            }
+
+            @Override
+            public void onClose(final String txId) {
+                throw new IllegalStateException("Listener failure.");
+            }
+        });
+        add(new RecordingListener());
+
+        assertDoesNotThrow(() -> new KibanaLogTransaction("GET /orders").close());
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    @DisplayName("A removed listener is no longer notified")
+    void removedListener() {
+        var listener = new RecordingListener();
+        add(listener);
+        KibanaLogTransaction.removeListener(listener);
+
+        new KibanaLogTransaction("GET /orders").close();
+
+        assertTrue(events.isEmpty());
+    }
+
+    private void add(final KibanaLogTransactionListener listener) {
+        listeners.add(listener);
+        KibanaLogTransaction.addListener(listener);
+    }
+
+    private class RecordingListener implements KibanaLogTransactionListener {
+
+        @Override
+        public void onStart(final String txId, final String transactionType) {
+            events.add("start " + transactionType + " " + txId);
+        }
+
+        @Override
+        public void onClose(final String txId) {
+            events.add("close " + txId);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Async query executors")
+class AsyncQueryExecutorsTest {
+
+    @Test
+    @DisplayName("A query the full executor rejects gets a failed future, and does not run on the calling thread")
+    void rejectsWhenFull() {
+        var executor = AsyncQueryExecutors.newBoundedExecutor("query", 1, 1);
+        var release = new CountDownLatch(1);
+        try {
+            var running = AsyncQueryExecutors.supplyAsync(() -> await(release), executor);
+            var queued = AsyncQueryExecutors.supplyAsync(() -> "queued", executor);
+            var rejected = AsyncQueryExecutors.supplyAsync(() -> Thread.currentThread().getName(), executor);
+
+            var exception = assertThrows(CompletionException.class, rejected::join);
+            assertTrue(exception.getCause() instanceof RejectedExecutionException);
+
+            release.countDown();
+            assertEquals("running", running.join());
+            assertEquals("queued", queued.join());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static String await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "running";
+    }
+}
@@ -0,0 +1,131 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.cache.InvalidationEvent;
+import org.hawaiiframework.repository.cache.InvalidationPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Batch updates")
+class BatchUpdatesTest {
+
+    private static final String QUERY = "person/update_name";
+
+    private static final String SQL = "update person set name = :name where id = :id";
+
+    private final List<InvalidationEvent> events = new ArrayList<>();
+
+    private PreparedStatement statement;
+
+    private BatchUpdates batchUpdates;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        var metaData = mock(DatabaseMetaData.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.getConnection()).thenReturn(connection);
+
+        var publisher = new InvalidationPublisher();
+        publisher.addListener(events::add);
+        var invalidation = new UpdateInvalidation();
+        invalidation.setPublisher(publisher);
+        invalidation.setKeyParameter(QUERY, "id");
+        batchUpdates = new BatchUpdates(new QueryRunner(name -> SQL, dataSource, null), invalidation);
+    }
+
+    @Test
+    @DisplayName("Splits the statements into chunks of the batch size, the last one holding the remainder")
+    void splitsIntoChunks() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] {1, 1}, new int[] {1, 0}, new int[] {1});
+
+        var result = batchUpdates.batchUpdate(QUERY, updates(5).iterator(), 2);
+
+        assertEquals(List.of(2, 2, 1), result.getChunks().stream().map(BatchChunkResult::getSize).collect(Collectors.toList()));
+        assertEquals(List.of(0, 1, 2), result.getChunks().stream().map(BatchChunkResult::getIndex).collect(Collectors.toList()));
+        assertEquals(5, result.getStatementCount());
+        verify(statement, times(5)).addBatch();
+        verify(statement, times(3)).executeBatch();
+    }
+
+    @Test
+    @DisplayName("Reports the row counts of each chunk")
+    void reportsRowCounts() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] {1, 1}, new int[] {1, 0}, new int[] {1});
+
+        var result = batchUpdates.batchUpdate(QUERY, updates(5).iterator(), 2);
+
+        assertArrayEquals(new int[] {1, 0}, result.getChunks().get(1).getRowCounts());
+        assertEquals(1, result.getChunks().get(1).getAffectedRows());
+        assertEquals(4, result.getAffectedRows());
+    }
+
+    @Test
+    @DisplayName("Sends a single chunk if the statements fit the batch size")
+    void singleChunk() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] {1, 1});
+
+        var result = batchUpdates.batchUpdate(QUERY, updates(2).iterator(), 2);
+
+        assertEquals(1, result.getChunks().size());
+        assertEquals(List.of(1L, 2L), events.get(0).getKeys());
+    }
+
+    @Test
+    @DisplayName("Publishes the keys of the chunks that executed before a chunk failed")
+    void publishesAfterFailure() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] {1, 1}).thenThrow(new SQLException("Deadlock.", "40001"));
+
+        assertThrows(DataAccessException.class, () -> batchUpdates.batchUpdate(QUERY, updates(5).iterator(), 2));
+
+        assertEquals(1, events.size());
+        assertEquals(List.of(1L, 2L), events.get(0).getKeys());
+    }
+
+    @Test
+    @DisplayName("Publishes nothing if the first chunk fails")
+    void publishesNothingIfNothingExecuted() throws SQLException {
+        when(statement.executeBatch()).thenThrow(new SQLException("Deadlock.", "40001"));
+
+        assertThrows(DataAccessException.class, () -> batchUpdates.batchUpdate(QUERY, updates(5).iterator(), 2));
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Rejects a batch size below one")
+    void rejectsInvalidBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> batchUpdates.batchUpdate(QUERY, updates(1).iterator(), 0));
+    }
+
+    private static List<SqlParameterSource> updates(final int count) {
+        return LongStream.rangeClosed(1, count)
+            .mapToObj(id -> new MapSqlParameterSource("id", id).addValue("name", "Person " + id))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,95 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Batching loader")
+class BatchingLoaderTest {
+
+    @Test
+    @DisplayName("Coalesces lookups into batches of at most the maximum size")
+    void coalescesLookups() {
+        var batches = new ArrayList<List<Integer>>();
+        var loader = new BatchingLoader<Integer, String>(keys -> {
+            batches.add(keys);
+            return keys.stream().filter(key -> key != 4).collect(Collectors.toMap(key -> key, key -> "value-" + key));
+        }, Runnable::run, Duration.ofMinutes(1), 3);
+
+        var first = loader.load(1);
+        var duplicate = loader.load(1);
+        loader.load(2);
+        var third = loader.load(3);
+        var missing = loader.load(4);
+        loader.flush();
+
+        assertEquals(List.of(List.of(1, 2, 3), List.of(4)), batches);
+        assertEquals("value-1", first.join());
+        assertEquals("value-1", duplicate.join());
+        assertEquals("value-3", third.join());
+        assertNull(missing.join());
+        assertEquals(2, loader.getBatchCount());
+        assertEquals(5, loader.getLoadCount());
+    }
+
+    @Test
+    @DisplayName("Loads the pending batch on the executor when the window has passed")
+    void loadsAfterWindow() {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var loader = new BatchingLoader<Integer, Integer>(keys -> Map.of(1, 10), executor, Duration.ofMillis(5), 100);
+
+            assertEquals(Integer.valueOf(10), loader.load(1).join());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Fails a timed batch that the executor would run on the timer thread")
+    void neverLoadsOnTimer() {
+        var loader = new BatchingLoader<Integer, Integer>(keys -> Map.of(1, 10), Runnable::run, Duration.ofMillis(5), 100);
+
+        var exception = assertThrows(CompletionException.class, () -> loader.load(1).join());
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        assertEquals(0, loader.getBatchCount());
+    }
+
+    @Test
+    @DisplayName("Fails all lookups of a batch that cannot be loaded")
+    void failsBatch() {
+        var loader = new BatchingLoader<Integer, Integer>(keys -> {
+            throw new IllegalStateException("database down");
+        }, Runnable::run, Duration.ofMinutes(1), 2);
+
+        var first = loader.load(1);
+        var second = loader.load(2);
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    @DisplayName("Fails all lookups of a batch when loading throws an error")
+    void failsBatchOnError() {
+        var loader = new BatchingLoader<Integer, Integer>(keys -> {
+            throw new AssertionError("broken");
+        }, Runnable::run, Duration.ofMinutes(1), 2);
+
+        var first = loader.load(1);
+        assertThrows(AssertionError.class, () -> loader.load(2));
+
+        var exception = assertThrows(CompletionException.class, first::join);
+        assertTrue(exception.getCause() instanceof AssertionError);
+    }
+}
@@ -0,0 +1,63 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.cache.LocalQueryResultCache;
+import org.hawaiiframework.repository.cache.QueryCacheKey;
+import org.hawaiiframework.repository.cache.QueryCacheSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cached reads")
+class CachedReadsTest {
+
+    private static final String QUERY = "country/find_by_code";
+
+    @Test
+    @DisplayName("Serves a cached result of the same shape only")
+    void shapes() {
+        var reads = reads();
+        var parameters = new MapSqlParameterSource("code", "NL");
+
+        assertEquals("Nederland", reads.get(QUERY, "names", parameters, () -> "Nederland"));
+
+        assertEquals("Nederland", reads.get(QUERY, "names", parameters, () -> fail("Expected a cached result.")));
+        assertEquals(42L, (long) reads.get(QUERY, CachedReads.shapeOf(Long.class), parameters, () -> 42L));
+    }
+
+    @Test
+    @DisplayName("The shapes of lambda mappers are marked as local to the JVM, those of named classes are not")
+    void lambdaShapes() {
+        RowMapper<String> lambda = (resultSet, rowNum) -> resultSet.getString(1);
+
+        assertTrue(CachedReads.shapeOf(lambda).startsWith(QueryCacheKey.LOCAL_SHAPE_PREFIX));
+        assertEquals(SingleColumnRowMapper.class.getName(), CachedReads.shapeOf(new SingleColumnRowMapper<>(String.class)));
+    }
+
+    @Test
+    @DisplayName("Never serves a cached null result to a lookup that requires a result")
+    void requiredResult() {
+        var reads = reads();
+        var parameters = new MapSqlParameterSource("code", "XX");
+
+        assertNull(reads.get(QUERY, "names", parameters, () -> null));
+
+        assertNull(reads.get(QUERY, "names", parameters, () -> fail("Expected a cached result.")));
+        assertThrows(EmptyResultDataAccessException.class, () -> reads.getRequired(QUERY, "names", parameters, () -> {
+            throw new EmptyResultDataAccessException(1);
+        }));
+    }
+
+    private static CachedReads reads() {
+        var reads = new CachedReads();
+        reads.setResultCache(new LocalQueryResultCache()
+            .configure(QUERY, QueryCacheSettings.expireAfterWrite(Duration.ofMinutes(5)).cacheNulls(true)));
+        return reads;
+    }
+}
@@ -0,0 +1,44 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Column index")
+class ColumnIndexTest {
+
+    @Test
+    @DisplayName("Finds columns by label ignoring case, the first matching column winning")
+    void indexOf() throws SQLException {
+        var columnIndex = ColumnIndex.of(metaData("ID", "first_name", "id", "First_Name"));
+
+        assertEquals(1, columnIndex.indexOf("ID"));
+        assertEquals(1, columnIndex.indexOf("id"));
+        assertEquals(2, columnIndex.indexOf("first_name"));
+        assertEquals(2, columnIndex.indexOf("FIRST_NAME"));
+        assertEquals(2, columnIndex.indexOf("First_Name"));
+    }
+
+    @Test
+    @DisplayName("Rejects an unknown label")
+    void unknownLabel() throws SQLException {
+        var columnIndex = ColumnIndex.of(metaData("id"));
+
+        assertThrows(SQLException.class, () -> columnIndex.indexOf("name"));
+    }
+
+    private static ResultSetMetaData metaData(final String... labels) throws SQLException {
+        var metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int column = 1; column <= labels.length; column++) {
+            when(metaData.getColumnLabel(column)).thenReturn(labels[column - 1]);
+        }
+        return metaData;
+    }
+}
@@ -0,0 +1,106 @@
+package org.hawaiiframework.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Column JSON row writer")
+class ColumnJsonRowWriterTest {
+
+    @Test
+    @DisplayName("Writes a field per column, named after the lower case column label")
+    void writesValues() throws SQLException, IOException {
+        var resultSet = resultSet(new String[] {"NAME", "Age", "Balance", "Score", "Active", "Born", "Updated", "Photo", "Note"},
+            "Jane", 42, new BigDecimal("12.50"), 1.5d, true, java.sql.Date.valueOf(LocalDate.of(1980, 2, 29)),
+            Timestamp.valueOf(LocalDateTime.of(2020, 1, 2, 3, 4, 5)), new byte[] {1, 2, 3}, null);
+
+        assertEquals("{\"name\":\"Jane\",\"age\":42,\"balance\":12.50,\"score\":1.5,\"active\":true,\"born\":\"1980-02-29\","
+                + "\"updated\":\"2020-01-02T03:04:05\",\"photo\":\"AQID\",\"note\":null}", write(resultSet));
+    }
+
+    @Test
+    @DisplayName("Writes a big integer as an exact number")
+    void writesBigInteger() throws SQLException, IOException {
+        var resultSet = resultSet(new String[] {"id"}, new BigInteger("123456789012345678901234567890"));
+
+        assertEquals("{\"id\":123456789012345678901234567890}", write(resultSet));
+    }
+
+    @Test
+    @DisplayName("Writes a float without widening it to a double")
+    void writesFloat() throws SQLException, IOException {
+        var resultSet = resultSet(new String[] {"ratio"}, 0.1f);
+
+        assertEquals("{\"ratio\":0.1}", write(resultSet));
+    }
+
+    @Test
+    @DisplayName("Writes a character LOB as a string, and frees it")
+    void writesClob() throws SQLException, IOException {
+        var clob = mock(Clob.class);
+        when(clob.getCharacterStream()).thenReturn(new StringReader("A \"long\" note"));
+        var resultSet = resultSet(new String[] {"note"}, clob);
+
+        assertEquals("{\"note\":\"A \\\"long\\\" note\"}", write(resultSet));
+        verify(clob).free();
+    }
+
+    @Test
+    @DisplayName("Writes a binary LOB as Base64, and frees it")
+    void writesBlob() throws SQLException, IOException {
+        var blob = mock(Blob.class);
+        when(blob.getBinaryStream()).thenReturn(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        var resultSet = resultSet(new String[] {"photo"}, blob);
+
+        assertEquals("{\"photo\":\"AQID\"}", write(resultSet));
+        verify(blob).free();
+    }
+
+    @Test
+    @DisplayName("Writes other values as their string representation without a codec")
+    void writesOtherValues() throws SQLException, IOException {
+        var resultSet = resultSet(new String[] {"period"}, java.time.Period.ofDays(3));
+
+        assertEquals("{\"period\":\"P3D\"}", write(resultSet));
+    }
+
+    private static String write(final ResultSet resultSet) throws SQLException, IOException {
+        var json = new StringWriter();
+        try (var generator = new JsonFactory().createGenerator(json)) {
+            new ColumnJsonRowWriter().writeRow(resultSet, 0, generator);
+        }
+        return json.toString();
+    }
+
+    private static ResultSet resultSet(final String[] labels, final Object... values) throws SQLException {
+        var resultSet = mock(ResultSet.class);
+        var metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int index = 0; index < labels.length; index++) {
+            when(metaData.getColumnLabel(index + 1)).thenReturn(labels[index]);
+            when(resultSet.getObject(index + 1)).thenReturn(values[index]);
+        }
+        return resultSet;
+    }
+}
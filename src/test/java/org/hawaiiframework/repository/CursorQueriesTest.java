@@ -0,0 +1,70 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Cursor queries")
+class CursorQueriesTest {
+
+    private static final String QUERY = "person/find_ids";
+
+    private static final String SQL = "select id from person";
+
+    private final List<Long> rowsReturned = new ArrayList<>();
+
+    private ResultSet resultSet;
+
+    private CursorQueries cursorQueries;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        var statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        // Like the query metrics listener, record the rows returned when the context of the statement closes.
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            QueryContext.current().onClose(this, rowsReturned::add);
+            return resultSet;
+        });
+        cursorQueries = new CursorQueries(new QueryRunner(name -> SQL, dataSource, null));
+    }
+
+    @Test
+    @DisplayName("Counts the rows handed to the callback handler in the context of the statement")
+    void forEachRowCountsRows() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, true, false);
+
+        cursorQueries.forEachRow(QUERY, EmptySqlParameterSource.INSTANCE, row -> { });
+
+        assertEquals(List.of(3L), rowsReturned);
+    }
+
+    @Test
+    @DisplayName("Counts the rows of a primitive list")
+    void getLongListCountsRows() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(7L, 11L);
+
+        var values = cursorQueries.getLongList(QUERY, EmptySqlParameterSource.INSTANCE);
+
+        assertEquals(2, values.size());
+        assertEquals(List.of(2L), rowsReturned);
+    }
+}
@@ -0,0 +1,44 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IN list chunker")
+class InListChunkerTest {
+
+    @Test
+    @DisplayName("Pads the last chunk up to the next bucket size with its last key")
+    void padsLastChunk() {
+        var chunks = InListChunker.chunk(List.of(1, 2, 3), 1000);
+
+        assertEquals(List.of(List.of(1, 2, 3, 3, 3, 3, 3, 3)), chunks);
+    }
+
+    @Test
+    @DisplayName("Splits deduplicated keys into chunks of a few distinct sizes")
+    void splitsIntoBuckets() {
+        var keys = IntStream.range(0, 2100).boxed().collect(Collectors.toList());
+        keys.add(0);
+
+        var chunks = InListChunker.chunk(keys, 1000);
+
+        assertEquals(List.of(1000, 1000, 128), chunks.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(2100, chunks.stream().flatMap(List::stream).collect(Collectors.toCollection(HashSet::new)).size());
+    }
+
+    @Test
+    @DisplayName("Caps the bucket size at the maximum chunk size")
+    void capsBucketSize() {
+        assertEquals(8, InListChunker.bucketSize(1, 1000));
+        assertEquals(512, InListChunker.bucketSize(300, 1000));
+        assertEquals(1000, InListChunker.bucketSize(600, 1000));
+        assertTrue(InListChunker.chunk(List.of(), 10).isEmpty());
+    }
+}
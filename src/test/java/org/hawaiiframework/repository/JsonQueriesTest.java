@@ -0,0 +1,67 @@
+package org.hawaiiframework.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("JSON queries")
+class JsonQueriesTest {
+
+    private static final String SQL = "select id from person";
+
+    private JsonQueries jsonQueries;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        var statement = mock(PreparedStatement.class);
+        var resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        var runner = new QueryRunner(name -> SQL, dataSource, null);
+        jsonQueries = new JsonQueries(runner, new CursorQueries(runner));
+    }
+
+    @Test
+    @DisplayName("Writes the rows as the elements of an array")
+    void writesArray() throws IOException {
+        assertEquals("[{\"id\":1},{\"id\":2}]", write(JsonFormat.ARRAY));
+    }
+
+    @Test
+    @DisplayName("Writes each row on its own line, without separators")
+    void writesNdjson() throws IOException {
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", write(JsonFormat.NDJSON));
+    }
+
+    private String write(final JsonFormat format) throws IOException {
+        var json = new StringWriter();
+        try (var generator = new JsonFactory().createGenerator(json)) {
+            assertEquals(2L, jsonQueries.writeJson("person/find_ids", EmptySqlParameterSource.INSTANCE, generator, format,
+                (resultSet, rowNum, rowGenerator) -> {
+                    rowGenerator.writeStartObject();
+                    rowGenerator.writeNumberField("id", resultSet.getLong(1));
+                    rowGenerator.writeEndObject();
+                }));
+        }
+        return json.toString();
+    }
+}
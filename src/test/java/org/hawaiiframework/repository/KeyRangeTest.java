@@ -0,0 +1,64 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Key range")
+class KeyRangeTest {
+
+    @Test
+    @DisplayName("Splits into consecutive partitions of almost equal size")
+    void split() {
+        assertEquals("[[0, 3), [3, 6), [6, 10)]", toString(new KeyRange(0L, 10L).split(3)));
+        assertEquals("[[-5, 0), [0, 5)]", toString(new KeyRange(-5L, 5L).split(2)));
+    }
+
+    @Test
+    @DisplayName("Splits a range with fewer keys than partitions into single keys")
+    void splitIntoSingleKeys() {
+        assertEquals("[[7, 8), [8, 9)]", toString(new KeyRange(7L, 9L).split(4)));
+    }
+
+    @Test
+    @DisplayName("Splits ranges larger than the largest long without overflowing")
+    void splitWithoutOverflow() {
+        var ranges = new KeyRange(Long.MIN_VALUE, Long.MAX_VALUE).split(4);
+
+        assertEquals(4, ranges.size());
+        assertEquals(Long.MIN_VALUE, ranges.get(0).getFrom());
+        assertEquals(-4611686018427387905L, ranges.get(0).getTo());
+        assertEquals(-1L, ranges.get(1).getTo());
+        assertEquals(Long.MAX_VALUE, ranges.get(3).getTo());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).getTo(), ranges.get(i).getFrom());
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects empty ranges and a non-positive number of partitions")
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyRange(5L, 5L));
+        assertThrows(IllegalArgumentException.class, () -> new KeyRange(0L, 10L).split(0));
+    }
+
+    @Test
+    @DisplayName("Adds its bounds to the parameters of a query")
+    void parameters() {
+        var parameters = new KeyRange(0L, 10L).parameters(new MapSqlParameterSource("status", "open"));
+
+        assertEquals(0L, parameters.getValue(KeyRange.FROM_PARAMETER));
+        assertEquals(10L, parameters.getValue(KeyRange.TO_PARAMETER));
+        assertEquals("open", parameters.getValue("status"));
+        assertTrue(parameters.hasValue(KeyRange.TO_PARAMETER));
+    }
+
+    private static String toString(final List<KeyRange> ranges) {
+        return ranges.stream().map(KeyRange::toString).collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,138 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.hawaiiframework.repository.cache.CompactValueCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Keyset pagination")
+class KeysetQueryTest {
+
+    private static final List<SortKey> SORT_KEYS = List.of(SortKey.desc("created_at"), SortKey.asc("id"));
+
+    private static final List<SortKey> ASCENDING_KEYS = List.of(SortKey.asc("created_at"), SortKey.asc("id"));
+
+    @Test
+    @DisplayName("The first page only orders by the sort keys, and limits the rows")
+    void firstPage() {
+        assertEquals("select * from (select * from orders) keyset_page order by created_at desc, id asc fetch first 11 rows only",
+            KeysetQuery.sql("select * from orders", SORT_KEYS, false, KeysetDialect.STANDARD, 11));
+    }
+
+    @Test
+    @DisplayName("Next pages with mixed directions seek past the sort key values of the previous page")
+    void nextPage() {
+        assertEquals("select * from (select * from orders) keyset_page where (created_at < :keyset_after_0)"
+                + " or (created_at = :keyset_after_0 and id > :keyset_after_1) order by created_at desc, id asc"
+                + " fetch first 11 rows only",
+            KeysetQuery.sql("select * from orders", SORT_KEYS, true, KeysetDialect.STANDARD, 11));
+    }
+
+    @Test
+    @DisplayName("Next pages with one direction seek with a row value comparison")
+    void nextPageRowValues() {
+        assertEquals("select * from (select * from orders) keyset_page where (created_at, id) > (:keyset_after_0, :keyset_after_1)"
+                + " order by created_at asc, id asc limit 11",
+            KeysetQuery.sql("select * from orders", ASCENDING_KEYS, true, KeysetDialect.MYSQL, 11));
+        assertEquals("select * from (select * from orders) keyset_page where (created_at, id) < (:keyset_after_0, :keyset_after_1)"
+                + " order by created_at desc, id desc fetch first 11 rows only",
+            KeysetQuery.sql("select * from orders", List.of(SortKey.desc("created_at"), SortKey.desc("id")), true,
+                KeysetDialect.STANDARD, 11));
+    }
+
+    @Test
+    @DisplayName("Dialects without row values expand the seek, and the generic dialect has no limit clause")
+    void nextPageWithoutRowValues() {
+        assertEquals("select * from (select * from orders) keyset_page where (created_at > :keyset_after_0)"
+                + " or (created_at = :keyset_after_0 and id > :keyset_after_1) order by created_at asc, id asc",
+            KeysetQuery.sql("select * from orders", ASCENDING_KEYS, true, KeysetDialect.GENERIC, 11));
+        assertEquals("select * from (select * from orders) keyset_page where (created_at > :keyset_after_0)"
+                + " or (created_at = :keyset_after_0 and id > :keyset_after_1) order by created_at asc, id asc"
+                + " offset 0 rows fetch next 11 rows only",
+            KeysetQuery.sql("select * from orders", ASCENDING_KEYS, true, KeysetDialect.SQL_SERVER, 11));
+    }
+
+    @Test
+    @DisplayName("Tokens round-trip the sort key values")
+    void tokenRoundTrip() {
+        var createdAt = new Timestamp(1_600_000_000_123L);
+        createdAt.setNanos(123_456_789);
+
+        var token = KeysetToken.encode("orders", SORT_KEYS, createdAt, 42L);
+        var values = KeysetToken.decode(token, "orders", SORT_KEYS);
+
+        assertEquals(createdAt, values[0]);
+        assertEquals(42L, values[1]);
+    }
+
+    @Test
+    @DisplayName("Tokens round-trip a timestamp sort key with a UUID tiebreaker")
+    void tokenRoundTripUuidTiebreaker() {
+        var sortKeys = List.of(SortKey.desc("created_at"), SortKey.asc("id"));
+        var createdAt = OffsetDateTime.of(2020, 9, 13, 14, 26, 40, 123_456_789, ZoneOffset.ofHours(2));
+        var id = UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+
+        var values = KeysetToken.decode(KeysetToken.encode("orders", sortKeys, createdAt, id), "orders", sortKeys);
+
+        assertEquals(createdAt, values[0]);
+        assertEquals(id, values[1]);
+    }
+
+    @Test
+    @DisplayName("Tokens round-trip local date-times, shorts and floats")
+    void tokenRoundTripOtherTypes() {
+        var sortKeys = List.of(SortKey.asc("placed_at"), SortKey.asc("priority"), SortKey.desc("score"));
+        var placedAt = LocalDateTime.of(2020, 2, 29, 23, 59, 59, 999_999_999);
+
+        var token = KeysetToken.encode("orders", sortKeys, placedAt, (short) -3, 0.25f);
+        var values = KeysetToken.decode(token, "orders", sortKeys);
+
+        assertEquals(placedAt, values[0]);
+        assertEquals((short) -3, values[1]);
+        assertEquals(0.25f, values[2]);
+    }
+
+    @Test
+    @DisplayName("Tokens of another query or tampered tokens are rejected")
+    void invalidTokens() {
+        var token = KeysetToken.encode("orders", SORT_KEYS, new Timestamp(0L), 42L);
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(token, "customers", SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(token + "AAAA", "orders", SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.asc("id; drop table orders"));
+    }
+
+    @Test
+    @DisplayName("Tokens with a negative or oversized length are rejected before allocating")
+    void invalidLengths() throws IOException {
+        var sortKeys = List.of(SortKey.asc("name"));
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(stringToken(sortKeys, -1L), "customers", sortKeys));
+        assertThrows(IllegalArgumentException.class,
+            () -> KeysetToken.decode(stringToken(sortKeys, Integer.MAX_VALUE), "customers", sortKeys));
+    }
+
+    private static String stringToken(final List<SortKey> sortKeys, final long length) throws IOException {
+        var bytes = Base64.getUrlDecoder().decode(KeysetToken.encode("customers", sortKeys, "x"));
+        var tampered = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(tampered)) {
+            // The version, the fingerprint and the type tag, followed by the tampered length and the value.
+            out.write(bytes, 0, 6);
+            CompactValueCodec.writeVarLong(out, length);
+            out.write('x');
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tampered.toByteArray());
+    }
+}
@@ -0,0 +1,80 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("LOB queries")
+class LobQueriesTest {
+
+    private static final String QUERY = "document/content";
+
+    private final MapSqlParameterSource parameters = new MapSqlParameterSource("id", 42L);
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private ResultSet resultSet;
+
+    private LobQueries lobQueries;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        var statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getBinaryStream(1)).thenReturn(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        lobQueries = new LobQueries(new QueryRunner(name -> "select content from document where id = :id", dataSource, null));
+    }
+
+    @Test
+    @DisplayName("Copies the value of the only row")
+    void oneRow() throws SQLException, IOException {
+        when(resultSet.next()).thenReturn(true, false);
+
+        assertEquals(OptionalLong.of(3L), lobQueries.copyBlob(QUERY, parameters, out));
+        assertArrayEquals(new byte[] {1, 2, 3}, out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Copies nothing if there is no row")
+    void noRows() throws SQLException, IOException {
+        when(resultSet.next()).thenReturn(false);
+
+        assertEquals(OptionalLong.empty(), lobQueries.copyBlob(QUERY, parameters, out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    @DisplayName("Rejects a second row after copying the value of the first, without reading further")
+    void multipleRows() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, true);
+
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> lobQueries.copyBlob(QUERY, parameters, out));
+
+        assertArrayEquals(new byte[] {1, 2, 3}, out.toByteArray());
+        verify(resultSet, times(2)).next();
+    }
+}
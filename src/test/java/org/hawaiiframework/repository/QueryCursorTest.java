@@ -0,0 +1,97 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Query cursor")
+class QueryCursorTest {
+
+    private static final String SQL = "select id from person";
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+    }
+
+    @Test
+    @DisplayName("Streams the rows with the fetch size, and releases the connection once after the last row")
+    void streamsRows() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+
+        try (var rows = open().stream((row, rowNum) -> row.getLong(1))) {
+            assertEquals(List.of(1L, 2L), rows.collect(Collectors.toList()));
+        }
+
+        verify(statement).setFetchSize(100);
+        verify(resultSet).close();
+        verify(statement).close();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Counts the rows handed to the callback handler, and releases the connection")
+    void countsRows() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, true, false);
+
+        assertEquals(3L, open().forEachRow(row -> { }));
+
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Releases the connection when the statement fails with a runtime exception")
+    void releasesOnRuntimeException() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new IllegalStateException("Broken driver."));
+
+        assertThrows(IllegalStateException.class, this::open);
+
+        verify(statement).close();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Translates an SQL exception, and releases the connection")
+    void releasesOnSqlException() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new SQLException("Syntax error."));
+
+        assertThrows(UncategorizedSQLException.class, this::open);
+
+        verify(statement).close();
+        verify(connection).close();
+    }
+
+    private QueryCursor open() {
+        return QueryCursor.open(dataSource, mock(SQLExceptionTranslator.class), SQL, NamedParameterUtils.parseSqlStatement(SQL),
+            EmptySqlParameterSource.INSTANCE, null, 100);
+    }
+}
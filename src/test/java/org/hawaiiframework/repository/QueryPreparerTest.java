@@ -0,0 +1,69 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.sql.SqlQueryResolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Query preparer")
+class QueryPreparerTest {
+
+    private static final String SQL = "select id from person";
+
+    @Test
+    @DisplayName("Fails when there are no queries to prepare")
+    void noQueries() {
+        var runner = new QueryRunner(mock(SqlQueryResolver.class), mock(DataSource.class), null);
+
+        assertThrows(IllegalStateException.class, () -> QueryPreparer.warmUp("PersonRepository", runner));
+    }
+
+    @Test
+    @DisplayName("Prepares each query on the primary and on each replica")
+    void preparesOnEachReplica() throws SQLException {
+        var queryResolver = mock(SqlQueryResolver.class);
+        when(queryResolver.resolveSqlQuery("findPerson")).thenReturn(SQL);
+        when(queryResolver.resolveSqlQuery("findPeople")).thenReturn(SQL);
+        var primary = connection();
+        var first = connection();
+        var second = connection();
+        var runner = new QueryRunner(queryResolver, dataSource(primary),
+            new ReplicaDataSource(List.of(dataSource(first), dataSource(second)), ReplicaSelection.ROUND_ROBIN));
+        runner.getQueryCache().preload(List.of("findPerson", "findPeople"));
+
+        var report = QueryPreparer.warmUp("PersonRepository", runner);
+
+        assertEquals(List.of("primary", "replica 0", "replica 1"),
+            report.getResults().stream().map(QueryWarmUpReport.Result::getTarget).distinct().collect(Collectors.toList()));
+        assertEquals(6, report.getResults().size());
+        assertEquals(2, report.getQueryCount());
+        assertEquals(3, report.getTargetCount());
+        verify(primary, times(2)).prepareStatement(SQL);
+        verify(first, times(2)).prepareStatement(SQL);
+        verify(second, times(2)).prepareStatement(SQL);
+    }
+
+    private static Connection connection() throws SQLException {
+        var connection = mock(Connection.class);
+        when(connection.prepareStatement(SQL)).thenReturn(mock(PreparedStatement.class));
+        return connection;
+    }
+
+    private static DataSource dataSource(final Connection connection) throws SQLException {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,49 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Query profiles")
+class QueryProfilesTest {
+
+    @Test
+    @DisplayName("Reads the settings of each query")
+    void readsSettings() {
+        var profiles = QueryProfiles.of(properties("export/all-orders.fetchSize", "5000", "export/all-orders.queryTimeout", "300",
+            "person/by-id-for-update.readOnly", "FALSE"));
+
+        assertEquals(5000, profiles.get("export/all-orders").getFetchSize());
+        assertEquals(Duration.ofSeconds(300), profiles.get("export/all-orders").getQueryTimeout());
+        assertEquals(Boolean.FALSE, profiles.get("person/by-id-for-update").getReadOnly());
+        assertNull(profiles.get("person/by-id"));
+    }
+
+    @Test
+    @DisplayName("Rejects a read-only hint that is neither true nor false")
+    void rejectsInvalidBoolean() {
+        var exception = assertThrows(IllegalArgumentException.class,
+            () -> QueryProfiles.of(properties("person/by-id-for-update.readOnly", "flase")));
+
+        assertEquals("Invalid query profile property 'person/by-id-for-update.readOnly=flase'.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Rejects unknown settings and properties without a query name")
+    void rejectsInvalidProperties() {
+        assertThrows(IllegalArgumentException.class, () -> QueryProfiles.of(properties("person/by-id.fetchsize", "10")));
+        assertThrows(IllegalArgumentException.class, () -> QueryProfiles.of(properties("fetchSize", "10")));
+    }
+
+    private static Properties properties(final String... keysAndValues) {
+        var properties = new Properties();
+        for (int index = 0; index < keysAndValues.length; index += 2) {
+            properties.setProperty(keysAndValues[index], keysAndValues[index + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,113 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Query runner")
+class QueryRunnerTest {
+
+    private static final String QUERY = "country/find_all";
+
+    private DataSource primary;
+
+    private DataSource replicas;
+
+    private QueryRunner runner;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = dataSource();
+        replicas = dataSource();
+        runner = new QueryRunner(name -> "select name from country", primary, replicas);
+    }
+
+    @Test
+    @DisplayName("Reads outside transactions from the replicas")
+    void readsFromReplicas() throws SQLException {
+        read();
+
+        verify(replicas).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Reads from the primary within onPrimary, also on threads that inherit it")
+    void onPrimary() throws SQLException {
+        runner.onPrimary(this::read);
+        runner.onPrimary(() -> CompletableFuture.supplyAsync(runner.inheritPrimary(this::read)).join());
+
+        verify(primary, times(2)).getConnection();
+        verify(replicas, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Reads within an active transaction from the primary")
+    void activeTransaction() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            read();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(primary).getConnection();
+        verify(replicas, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Reads queries whose profile is not read-only from the primary")
+    void notReadOnly() throws SQLException {
+        runner.setQueryProfiles(new QueryProfiles().profile(QUERY, new QueryProfile().readOnly(false)));
+
+        read();
+
+        verify(primary).getConnection();
+        verify(replicas, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Reads from the primary if there are no replicas")
+    void withoutReplicas() throws SQLException {
+        runner = new QueryRunner(name -> "select name from country", primary, null);
+
+        read();
+
+        verify(primary).getConnection();
+        assertNull(runner.getReplicaDataSource());
+    }
+
+    private List<String> read() {
+        return runner.query(QUERY, EmptySqlParameterSource.INSTANCE, SingleColumnRowMapper.newInstance(String.class));
+    }
+
+    private static DataSource dataSource() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        var statement = mock(PreparedStatement.class);
+        var resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        return dataSource;
+    }
+}
@@ -0,0 +1,86 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Reference table")
+class ReferenceTableTest {
+
+    @Test
+    @DisplayName("Swaps in a complete new snapshot on refresh, leaving earlier reads intact")
+    void swapsSnapshot() {
+        var loads = new ArrayList<List<String>>(List.of(List.of("nl:Netherlands", "be:Belgium"), List.of("nl:Nederland")));
+        var table = table(() -> loads.remove(0)).index("name", row -> row.substring(3));
+        table.refresh();
+        var before = table.values();
+
+        table.refresh();
+
+        assertEquals(List.of("nl:Netherlands", "be:Belgium"), new ArrayList<>(before));
+        assertEquals(List.of("nl:Nederland"), new ArrayList<>(table.values()));
+        assertEquals(Optional.of("nl:Nederland"), table.get("nl"));
+        assertEquals(Optional.empty(), table.get("be"));
+        assertEquals(List.of("nl:Nederland"), table.getByIndex("name", "Nederland"));
+        assertEquals(List.of(), table.getByIndex("name", "Netherlands"));
+    }
+
+    @Test
+    @DisplayName("Rejects rows with the same primary key, and keeps the previous snapshot")
+    void rejectsDuplicateKeys() {
+        var loads = new ArrayList<List<String>>(List.of(List.of("nl:Netherlands"), List.of("be:Belgium", "be:Belgie")));
+        var table = table(() -> loads.remove(0));
+        table.refresh();
+        var loadedAt = table.getLoadedAt();
+
+        assertThrows(IllegalStateException.class, table::refresh);
+
+        assertEquals(Optional.of("nl:Netherlands"), table.get("nl"));
+        assertEquals(Optional.empty(), table.get("be"));
+        assertEquals(loadedAt, table.getLoadedAt());
+    }
+
+    @Test
+    @DisplayName("Keeps the previous snapshot when a background refresh fails")
+    void keepsSnapshotOnFailedRefresh() throws InterruptedException {
+        var failures = new CountDownLatch(3);
+        var loaded = new boolean[1];
+        try (var table = table(() -> {
+            if (!loaded[0]) {
+                loaded[0] = true;
+                return List.of("nl:Netherlands");
+            }
+            failures.countDown();
+            throw new IllegalStateException("Database down.");
+        })) {
+            table.refreshEvery(Duration.ofMillis(1));
+
+            assertTrue(failures.await(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of("nl:Netherlands"), table.get("nl"));
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects lookups before the table is loaded, and indexes after")
+    void notLoaded() {
+        var table = table(() -> List.of("nl:Netherlands"));
+
+        assertThrows(IllegalStateException.class, () -> table.get("nl"));
+        table.refresh();
+        assertThrows(IllegalStateException.class, () -> table.index("name", row -> row));
+        assertThrows(IllegalArgumentException.class, () -> table.getByIndex("name", "Netherlands"));
+    }
+
+    private static ReferenceTable<String, String> table(final Supplier<List<String>> loader) {
+        return new ReferenceTable<>("country", loader, row -> row.substring(0, 2));
+    }
+}
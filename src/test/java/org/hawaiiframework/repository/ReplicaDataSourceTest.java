@@ -0,0 +1,96 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Replica data source")
+class ReplicaDataSourceTest {
+
+    @Test
+    @DisplayName("Selects the replicas in turn")
+    void roundRobin() throws SQLException {
+        var first = replica();
+        var second = replica();
+        var dataSource = new ReplicaDataSource(List.of(first, second), ReplicaSelection.ROUND_ROBIN);
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        verify(first, times(2)).getConnection();
+        verify(second).getConnection();
+    }
+
+    @Test
+    @DisplayName("Fails over to the next replica if a replica does not hand out a connection")
+    void failover() throws SQLException {
+        var failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused."));
+        var connection = mock(Connection.class);
+        var healthy = mock(DataSource.class);
+        when(healthy.getConnection()).thenReturn(connection);
+        var dataSource = new ReplicaDataSource(List.of(failing, healthy), ReplicaSelection.ROUND_ROBIN);
+
+        assertSame(connection, dataSource.getConnection());
+        verify(failing).getConnection();
+    }
+
+    @Test
+    @DisplayName("Throws the exception of the last attempt if no replica hands out a connection")
+    void allReplicasFail() throws SQLException {
+        var first = mock(DataSource.class);
+        when(first.getConnection()).thenThrow(new SQLException("First replica down."));
+        var second = mock(DataSource.class);
+        when(second.getConnection()).thenThrow(new SQLException("Second replica down."));
+        var dataSource = new ReplicaDataSource(List.of(first, second), ReplicaSelection.ROUND_ROBIN);
+
+        var exception = assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals("Second replica down.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Counts the connections in use through the wrapped connections, and selects the least busy replica")
+    void leastBusy() throws SQLException {
+        var first = replica();
+        var second = replica();
+        var dataSource = new ReplicaDataSource(List.of(first, second), ReplicaSelection.LEAST_BUSY);
+
+        var held = dataSource.getConnection();
+        var released = dataSource.getConnection();
+        assertEquals(1, dataSource.getConnectionsInUse(0));
+        assertEquals(1, dataSource.getConnectionsInUse(1));
+
+        released.close();
+        released.close();
+        assertEquals(0, dataSource.getConnectionsInUse(1));
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertEquals(2, dataSource.getConnectionsInUse(1));
+        assertEquals(1, dataSource.getConnectionsInUse(0));
+        assertFalse(held.isClosed());
+    }
+
+    @Test
+    @DisplayName("Requires at least one replica")
+    void requiresReplica() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaDataSource(List.of(), ReplicaSelection.ROUND_ROBIN));
+    }
+
+    private static DataSource replica() throws SQLException {
+        var replica = mock(DataSource.class);
+        when(replica.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        return replica;
+    }
+}
@@ -0,0 +1,83 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Result set util")
+class ResultSetUtilTest {
+
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        resultSet = mock(ResultSet.class);
+        when(resultSet.findColumn("content")).thenReturn(2);
+    }
+
+    @Test
+    @DisplayName("Copies a binary column larger than the buffer to a stream")
+    void copiesBinaryToStream() throws SQLException, IOException {
+        var content = content(20_000);
+        when(resultSet.getBinaryStream(2)).thenReturn(new ByteArrayInputStream(content));
+        var out = new ByteArrayOutputStream();
+
+        assertEquals(content.length, ResultSetUtil.copyBinaryStream(resultSet, "content", out));
+        assertArrayEquals(content, out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Copies a binary column larger than the buffer to a channel")
+    void copiesBinaryToChannel() throws SQLException, IOException {
+        var content = content(20_000);
+        when(resultSet.getBinaryStream(2)).thenReturn(new ByteArrayInputStream(content));
+        var out = new ByteArrayOutputStream();
+
+        assertEquals(content.length, ResultSetUtil.copyBinaryStream(resultSet, "content", Channels.newChannel(out)));
+        assertArrayEquals(content, out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Copies a character column to a writer")
+    void copiesCharacters() throws SQLException, IOException {
+        var content = new String(content(10_000), StandardCharsets.US_ASCII);
+        when(resultSet.getCharacterStream(2)).thenReturn(new StringReader(content));
+        var out = new StringWriter();
+
+        assertEquals(content.length(), ResultSetUtil.copyCharacterStream(resultSet, "content", out));
+        assertEquals(content, out.toString());
+    }
+
+    @Test
+    @DisplayName("Copies nothing for SQL NULL")
+    void copiesNull() throws SQLException, IOException {
+        var out = new ByteArrayOutputStream();
+
+        assertEquals(-1L, ResultSetUtil.copyBinaryStream(resultSet, 2, out));
+        assertEquals(-1L, ResultSetUtil.copyBinaryStream(resultSet, 2, Channels.newChannel(out)));
+        assertEquals(-1L, ResultSetUtil.copyCharacterStream(resultSet, 2, new StringWriter()));
+        assertEquals(0, out.size());
+    }
+
+    private static byte[] content(final int length) {
+        var content = new byte[length];
+        for (int index = 0; index < length; index++) {
+            content[index] = (byte) ('a' + index % 26);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,58 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Single row extractor")
+class SingleRowExtractorTest {
+
+    private final SingleRowExtractor<String> extractor = new SingleRowExtractor<>((row, rowNum) -> row.getString(1));
+
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("Netherlands", "Belgium");
+    }
+
+    @Test
+    @DisplayName("Yields null for an empty result set")
+    void noRows() throws SQLException {
+        when(resultSet.next()).thenReturn(false);
+
+        assertNull(extractor.extractData(resultSet));
+    }
+
+    @Test
+    @DisplayName("Maps the only row, reading no further than the end of the result set")
+    void oneRow() throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+
+        assertEquals("Netherlands", extractor.extractData(resultSet));
+        verify(resultSet, times(2)).next();
+    }
+
+    @Test
+    @DisplayName("Rejects a second row without reading the rows after it")
+    void twoRows() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, true);
+
+        var exception = assertThrows(IncorrectResultSizeDataAccessException.class, () -> extractor.extractData(resultSet));
+
+        assertEquals(1, exception.getExpectedSize());
+        assertEquals(2, exception.getActualSize());
+        verify(resultSet, times(2)).next();
+    }
+}
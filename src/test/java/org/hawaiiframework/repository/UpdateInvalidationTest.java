@@ -0,0 +1,73 @@
+package org.hawaiiframework.repository;
+
+import org.hawaiiframework.repository.cache.InvalidationEvent;
+import org.hawaiiframework.repository.cache.InvalidationPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Update invalidation")
+class UpdateInvalidationTest {
+
+    private static final String QUERY = "person/update";
+
+    private final List<InvalidationEvent> events = new ArrayList<>();
+
+    private UpdateInvalidation invalidation;
+
+    @BeforeEach
+    void setUp() {
+        var publisher = new InvalidationPublisher();
+        publisher.addListener(events::add);
+        invalidation = new UpdateInvalidation();
+        invalidation.setPublisher(publisher);
+    }
+
+    @Test
+    @DisplayName("Publishes the keys of the executed chunks")
+    void publishesKeys() {
+        invalidation.setKeyParameter(QUERY, "id");
+        var changed = new UpdateInvalidation.ChangedKeys();
+
+        invalidation.collect(QUERY, List.of(update("id", 1L), update("id", 2L)), changed);
+        invalidation.collect(QUERY, List.of(update("id", List.of(3L, 4L))), changed);
+        invalidation.publish(QUERY, changed);
+
+        assertEquals(1, events.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L), events.get(0).getKeys());
+    }
+
+    @Test
+    @DisplayName("Publishes no keys if a statement does not bind the key parameter, or there is none")
+    void publishesWithoutKeys() {
+        invalidation.setKeyParameter(QUERY, "id");
+        var changed = new UpdateInvalidation.ChangedKeys();
+        invalidation.collect(QUERY, List.of(update("id", 1L), update("name", "Jane")), changed);
+        invalidation.publish(QUERY, changed);
+
+        invalidation.publish("person/delete_all", new MapSqlParameterSource());
+
+        assertEquals(2, events.size());
+        assertFalse(events.get(0).hasKeys());
+        assertFalse(events.get(1).hasKeys());
+    }
+
+    @Test
+    @DisplayName("Publishes nothing if no statement has executed")
+    void publishesNothing() {
+        invalidation.publish(QUERY, new UpdateInvalidation.ChangedKeys());
+
+        assertTrue(events.isEmpty());
+    }
+
+    private static SqlParameterSource update(final String name, final Object value) {
+        return new MapSqlParameterSource(name, value);
+    }
+}
@@ -0,0 +1,99 @@
+package org.hawaiiframework.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Write-behind buffer")
+class WriteBehindBufferTest {
+
+    private final List<List<Object>> batches = new CopyOnWriteArrayList<>();
+
+    private final List<Thread> writerThreads = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Writes only the last update of a key")
+    void lastWriteWins() {
+        try (var buffer = buffer(new WriteBehindSettings())) {
+            buffer.submit(1, update("first"));
+            buffer.submit(2, update("other"));
+            buffer.submit(1, update("last"));
+            buffer.flush();
+
+            assertEquals(List.of(List.of("last", "other")), batches);
+            assertEquals(3, buffer.getSubmittedCount());
+            assertEquals(1, buffer.getCoalescedCount());
+            assertEquals(2, buffer.getWrittenCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Flushes on the flusher thread once a batch worth of updates is pending")
+    void flushesFullBatch() throws InterruptedException {
+        var written = new CountDownLatch(1);
+        try (var buffer = new WriteBehindBuffer("test", batch -> {
+            record(batch);
+            written.countDown();
+        }, new WriteBehindSettings().batchSize(2).flushInterval(Duration.ofMinutes(1)))) {
+            buffer.submit(1, update("a"));
+            buffer.submit(2, update("b"));
+
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(List.of("a", "b")), batches);
+            assertNotEquals(Thread.currentThread(), writerThreads.get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Flushes on the submitting thread before the maximum number of pending updates is exceeded")
+    void backPressure() {
+        try (var buffer = buffer(new WriteBehindSettings().maximumPending(2))) {
+            buffer.submit(1, update("a"));
+            buffer.submit(2, update("b"));
+            buffer.submit(2, update("c"));
+            assertEquals(2, buffer.getQueueDepth());
+            assertTrue(batches.isEmpty());
+
+            buffer.submit(3, update("d"));
+
+            assertEquals(List.of(List.of("a", "c")), batches);
+            assertEquals(Thread.currentThread(), writerThreads.get(0));
+            assertEquals(1, buffer.getQueueDepth());
+        }
+    }
+
+    @Test
+    @DisplayName("Writes the pending updates on close, and rejects later updates")
+    void closeWritesPending() {
+        var buffer = buffer(new WriteBehindSettings());
+        buffer.submit(1, update("a"));
+
+        buffer.close();
+
+        assertEquals(List.of(List.of("a")), batches);
+        assertThrows(IllegalStateException.class, () -> buffer.submit(2, update("b")));
+    }
+
+    private WriteBehindBuffer buffer(final WriteBehindSettings settings) {
+        return new WriteBehindBuffer("test", this::record, settings.flushInterval(Duration.ofMinutes(1)));
+    }
+
+    private void record(final List<SqlParameterSource> batch) {
+        writerThreads.add(Thread.currentThread());
+        batches.add(batch.stream().map(update -> update.getValue("value")).collect(Collectors.toList()));
+    }
+
+    private static SqlParameterSource update(final String value) {
+        return new MapSqlParameterSource("value", value);
+    }
+}
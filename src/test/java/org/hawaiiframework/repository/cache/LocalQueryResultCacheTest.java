@@ -0,0 +1,91 @@
+package org.hawaiiframework.repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Local query result cache")
+class LocalQueryResultCacheTest {
+
+    private static final String QUERY = "country/find_by_code";
+
+    private static final String SHAPE = "CountryRowMapper";
+
+    @Test
+    @DisplayName("Results of different shapes are cached apart")
+    void shapes() {
+        var cache = new LocalQueryResultCache().configure(QUERY, settings());
+
+        cache.put(key(SHAPE, "NL"), "Nederland");
+
+        assertEquals("Nederland", cache.get(key(SHAPE, "NL")).getValue());
+        assertNull(cache.get(key("column:java.lang.Long", "NL")));
+    }
+
+    @Test
+    @DisplayName("Evicts the least recently used entry when the region is full")
+    void leastRecentlyUsed() {
+        var cache = new LocalQueryResultCache().configure(QUERY, settings().maximumSize(2));
+        cache.put(key(SHAPE, "NL"), "Nederland");
+        cache.put(key(SHAPE, "BE"), "Belgie");
+
+        assertNotNull(cache.get(key(SHAPE, "NL")));
+        cache.put(key(SHAPE, "DE"), "Duitsland");
+
+        assertNotNull(cache.get(key(SHAPE, "NL")));
+        assertNull(cache.get(key(SHAPE, "BE")));
+        assertNotNull(cache.get(key(SHAPE, "DE")));
+        assertEquals(1, cache.getStatistics().get(QUERY).getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("Does not store a result whose load started before the region was evicted")
+    void staleLoadAfterEvictRegion() {
+        var cache = new LocalQueryResultCache().configure(QUERY, settings());
+
+        cache.evictRegion(QUERY);
+        cache.put(key(SHAPE, "NL"), "Nederland", Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get(key(SHAPE, "NL")));
+
+        cache.put(key(SHAPE, "NL"), "Nederland", 0L);
+        assertEquals("Nederland", cache.get(key(SHAPE, "NL")).getValue());
+    }
+
+    @Test
+    @DisplayName("Does not store a result whose load started before its key was evicted")
+    void staleLoadAfterEvict() {
+        var cache = new LocalQueryResultCache().configure(QUERY, settings());
+        cache.put(key(SHAPE, "NL"), "Nederland");
+
+        cache.evict(key(SHAPE, "NL"));
+        cache.put(key(SHAPE, "NL"), "Holland", Duration.ofSeconds(1).toNanos());
+
+        assertNull(cache.get(key(SHAPE, "NL")));
+    }
+
+    @Test
+    @DisplayName("Null results are only stored when configured")
+    void nullResults() {
+        var cache = new LocalQueryResultCache()
+            .configure(QUERY, settings())
+            .configure("product/find_by_code", settings().cacheNulls(true));
+
+        cache.put(key(SHAPE, "XX"), null);
+        cache.put(new QueryCacheKey("product/find_by_code", SHAPE, new String[] {"code"}, new Object[] {"XX"}), null);
+
+        assertNull(cache.get(key(SHAPE, "XX")));
+        assertNull(cache.get(new QueryCacheKey("product/find_by_code", SHAPE, new String[] {"code"}, new Object[] {"XX"}))
+            .getValue());
+    }
+
+    private static QueryCacheSettings settings() {
+        return QueryCacheSettings.expireAfterWrite(Duration.ofMinutes(5));
+    }
+
+    private static QueryCacheKey key(final String shape, final String code) {
+        return new QueryCacheKey(QUERY, shape, new String[] {"code"}, new Object[] {code});
+    }
+}
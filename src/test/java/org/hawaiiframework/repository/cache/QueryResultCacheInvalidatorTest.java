@@ -0,0 +1,73 @@
+package org.hawaiiframework.repository.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Query result cache invalidator")
+class QueryResultCacheInvalidatorTest {
+
+    private static final String QUERY = "country/find_by_code";
+
+    private static final String SHAPE = "CountryRowMapper";
+
+    private static final String OTHER_SHAPE = "column:java.lang.String";
+
+    private LocalQueryResultCache cache;
+
+    private InvalidationPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LocalQueryResultCache().configure(QUERY, QueryCacheSettings.expireAfterWrite(Duration.ofMinutes(5)));
+        cache.put(key(SHAPE, "NL"), "Nederland");
+        cache.put(key(OTHER_SHAPE, "NL"), "Nederland");
+        cache.put(key(SHAPE, "BE"), "Belgie");
+        publisher = new InvalidationPublisher();
+    }
+
+    @Test
+    @DisplayName("Evicts the results of all shapes that bind a changed key")
+    void evictsChangedKeys() {
+        publisher.addListener(new QueryResultCacheInvalidator(cache).evict("country/update", QUERY, "code"));
+
+        publisher.publish("country/update", List.of("NL"));
+
+        assertNull(cache.get(key(SHAPE, "NL")));
+        assertNull(cache.get(key(OTHER_SHAPE, "NL")));
+        assertNotNull(cache.get(key(SHAPE, "BE")));
+    }
+
+    @Test
+    @DisplayName("Evicts all results for an event without keys, or a cached query without a key parameter")
+    void evictsRegion() {
+        publisher.addListener(new QueryResultCacheInvalidator(cache).evict("country/update", QUERY, "code")
+            .evict("country/import", QUERY, null));
+
+        publisher.publish("country/update", List.of());
+        assertNull(cache.get(key(SHAPE, "BE")));
+
+        cache.put(key(SHAPE, "BE"), "Belgie");
+        publisher.publish("country/import", List.of("NL"));
+        assertNull(cache.get(key(SHAPE, "BE")));
+    }
+
+    @Test
+    @DisplayName("Ignores the events of other update queries")
+    void ignoresOtherUpdates() {
+        publisher.addListener(new QueryResultCacheInvalidator(cache).evict("country/update", QUERY, "code"));
+
+        publisher.publish("product/update", List.of());
+
+        assertNotNull(cache.get(key(SHAPE, "NL")));
+    }
+
+    private static QueryCacheKey key(final String shape, final String code) {
+        return new QueryCacheKey(QUERY, shape, new String[] {"code"}, new Object[] {code});
+    }
+}
@@ -0,0 +1,59 @@
+package org.hawaiiframework.repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Redis invalidation channel")
+class RedisInvalidationChannelTest {
+
+    @Test
+    @DisplayName("Events round-trip their origin, query name and keys")
+    void roundTrip() {
+        var event = RedisInvalidationChannel.decode(RedisInvalidationChannel.encode(
+            new InvalidationEvent("updatePerson", List.of(1L, "two"), "node-1")));
+
+        assertEquals("node-1", event.getOrigin());
+        assertEquals("updatePerson", event.getQueryName());
+        assertEquals(List.of(1L, "two"), event.getKeys());
+    }
+
+    @Test
+    @DisplayName("Events with a key that is not a scalar value are sent without keys")
+    void nonScalarKeys() {
+        var event = RedisInvalidationChannel.decode(RedisInvalidationChannel.encode(
+            new InvalidationEvent("updatePerson", List.of(1L, List.of(2L)), "node-1")));
+
+        assertFalse(event.hasKeys());
+        assertEquals("updatePerson", event.getQueryName());
+    }
+
+    @Test
+    @DisplayName("Messages with a negative or oversized key count or value length are rejected")
+    void invalidLengths() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> RedisInvalidationChannel.decode(message(-1L, 1L)));
+        assertThrows(IllegalArgumentException.class, () -> RedisInvalidationChannel.decode(message(Integer.MAX_VALUE, 1L)));
+        assertThrows(IllegalArgumentException.class, () -> RedisInvalidationChannel.decode(message(1L, -1L)));
+        assertThrows(IllegalArgumentException.class, () -> RedisInvalidationChannel.decode(message(1L, Integer.MAX_VALUE)));
+    }
+
+    private static byte[] message(final long keyCount, final long stringLength) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeUTF("node-1");
+            out.writeUTF("updatePerson");
+            CompactValueCodec.writeVarLong(out, keyCount);
+            // A string key: the type tag, the length and the value.
+            out.writeByte(6);
+            CompactValueCodec.writeVarLong(out, stringLength);
+            out.write('x');
+        }
+        return bytes.toByteArray();
+    }
+}
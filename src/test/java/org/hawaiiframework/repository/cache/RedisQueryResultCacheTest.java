@@ -0,0 +1,255 @@
+package org.hawaiiframework.repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Redis query result cache")
+class RedisQueryResultCacheTest {
+
+    private static final String QUERY = "country/find_by_code";
+
+    private static final String OTHER_QUERY = "product/find_by_code";
+
+    private static final String SHAPE = "CountryRowMapper";
+
+    @Test
+    @DisplayName("Values survive the round trip through the store")
+    void roundTrip() {
+        var store = new InMemoryRedisCacheStore();
+        var cache = new RedisQueryResultCache(store, "app").configure(QUERY, settings());
+        var timestamp = new Timestamp(1_546_300_800_123L);
+        timestamp.setNanos(123_456_789);
+        var value = List.of(-42L, 7, "Nederland", new BigDecimal("-12.50"), LocalDate.of(2019, 1, 1), timestamp, true,
+            UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7"), OffsetDateTime.of(2019, 1, 1, 12, 0, 0, 1, ZoneOffset.UTC));
+
+        assertNull(cache.get(key("NL")));
+        cache.put(key("NL"), value);
+
+        assertEquals(value, cache.get(key("NL")).getValue());
+        assertNull(cache.get(key("BE")));
+        assertEquals(1, cache.getStatistics().get(QUERY).getHitCount());
+        assertEquals(2, cache.getStatistics().get(QUERY).getMissCount());
+    }
+
+    @Test
+    @DisplayName("Null results are only stored when configured")
+    void nullResults() {
+        var store = new InMemoryRedisCacheStore();
+        var cache = new RedisQueryResultCache(store, "app")
+            .configure(QUERY, settings())
+            .configure(OTHER_QUERY, settings().cacheNulls(true));
+
+        cache.put(key("XX"), null);
+        cache.put(new QueryCacheKey(OTHER_QUERY, SHAPE, new String[] {"code"}, new Object[] {"XX"}), null);
+
+        assertEquals(1, store.values.size());
+        assertNull(cache.get(key("XX")));
+        assertNull(cache.get(new QueryCacheKey(OTHER_QUERY, SHAPE, new String[] {"code"}, new Object[] {"XX"})).getValue());
+    }
+
+    @Test
+    @DisplayName("The near cache is consulted before Redis")
+    void nearCache() {
+        var store = new InMemoryRedisCacheStore();
+        var nearCache = new LocalQueryResultCache().configure(QUERY, settings());
+        var cache = new RedisQueryResultCache(store, "app").configure(QUERY, settings()).nearCache(nearCache);
+
+        cache.put(key("NL"), "Nederland");
+        store.values.clear();
+
+        assertEquals("Nederland", cache.get(key("NL")).getValue());
+    }
+
+    @Test
+    @DisplayName("Evicting a region only removes the keys of that query")
+    void evictRegion() {
+        var store = new InMemoryRedisCacheStore();
+        var cache = new RedisQueryResultCache(store, "app").configure(QUERY, settings()).configure(OTHER_QUERY, settings());
+        var otherKey = new QueryCacheKey(OTHER_QUERY, SHAPE, new String[] {"code"}, new Object[] {"NL"});
+
+        cache.put(key("NL"), "Nederland");
+        cache.put(key("BE"), "Belgie");
+        cache.put(otherKey, "Stroopwafel");
+        cache.evictRegion(QUERY);
+
+        assertNull(cache.get(key("NL")));
+        assertNull(cache.get(key("BE")));
+        assertEquals("Stroopwafel", cache.get(otherKey).getValue());
+    }
+
+    @Test
+    @DisplayName("Evicting a region leaves the keys of a query whose name starts with the region's name and a separator")
+    void evictRegionWithSeparatorInName() {
+        var store = new InMemoryRedisCacheStore();
+        var cache = new RedisQueryResultCache(store, "app").configure("country", settings()).configure("country:nl", settings());
+        var countryKey = new QueryCacheKey("country", SHAPE, new String[] {"code"}, new Object[] {"NL"});
+        var otherKey = new QueryCacheKey("country:nl", SHAPE, new String[] {"code"}, new Object[] {"NL"});
+
+        cache.put(countryKey, "Nederland");
+        cache.put(otherKey, "Holland");
+        cache.evictRegion("country");
+
+        assertNull(cache.get(countryKey));
+        assertEquals("Holland", cache.get(otherKey).getValue());
+    }
+
+    @Test
+    @DisplayName("Failures to evict are treated like failures to read")
+    void evictFailures() {
+        InMemoryRedisCacheStore store = new InMemoryRedisCacheStore() {
+            @Override
+            public void delete(final byte[] key) {
+                throw new DataAccessResourceFailureException("Redis is down.");
+            }
+
+            @Override
+            public void deleteByPrefix(final byte[] prefix) {
+                throw new DataAccessResourceFailureException("Redis is down.");
+            }
+        };
+        var cache = new RedisQueryResultCache(store, "app").configure(QUERY, settings());
+
+        assertDoesNotThrow(() -> cache.evict(key("NL")));
+        assertDoesNotThrow(() -> cache.evictRegion(QUERY));
+    }
+
+    @Test
+    @DisplayName("Java-serialized values are only cached with a deserialization filter, and only read if the filter accepts them")
+    void serializedValues() {
+        var store = new InMemoryRedisCacheStore();
+        var value = Duration.ofMinutes(42);
+
+        var withoutFilter = new RedisQueryResultCache(store, "app").configure(QUERY, settings());
+        withoutFilter.put(key("NL"), value);
+        assertNull(withoutFilter.get(key("NL")));
+
+        var withFilter = new RedisQueryResultCache(store, "app").configure(QUERY, settings())
+            .deserializationFilter(ObjectInputFilter.Config.createFilter("java.time.*;!*"));
+        withFilter.put(key("NL"), value);
+        assertEquals(value, withFilter.get(key("NL")).getValue());
+
+        var rejecting = new RedisQueryResultCache(store, "app").configure(QUERY, settings())
+            .deserializationFilter(ObjectInputFilter.Config.createFilter("!*"));
+        assertNull(rejecting.get(key("NL")));
+    }
+
+    @Test
+    @DisplayName("Values the codec cannot encode are kept in the near cache only, without failing")
+    void valuesThatCannotBeEncoded() {
+        var store = new InMemoryRedisCacheStore();
+        var nearCache = new LocalQueryResultCache().configure(QUERY, settings());
+        var cache = new RedisQueryResultCache(store, "app").configure(QUERY, settings()).nearCache(nearCache);
+        var value = List.of("Nederland", new Object());
+
+        cache.put(key("NL"), value);
+        cache.put(key("BE"), value);
+
+        assertTrue(store.values.isEmpty());
+        assertEquals(value, cache.get(key("NL")).getValue());
+    }
+
+    @Test
+    @DisplayName("Results of a shape that differs between JVMs are neither stored in nor read from Redis")
+    void unstableShapes() {
+        InMemoryRedisCacheStore store = new InMemoryRedisCacheStore() {
+            @Override
+            public byte[] get(final byte[] key) {
+                return fail("Expected no lookup in Redis.");
+            }
+        };
+        var cache = new RedisQueryResultCache(store, "app").configure(QUERY, settings());
+        var key = new QueryCacheKey(QUERY, QueryCacheKey.LOCAL_SHAPE_PREFIX + SHAPE, new String[] {"code"}, new Object[] {"NL"});
+
+        cache.put(key, "Nederland");
+
+        assertTrue(store.values.isEmpty());
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    @DisplayName("Entries with a negative length, or a length beyond their end, are treated as misses")
+    void invalidLengths() throws IOException {
+        var store = new InMemoryRedisCacheStore();
+        var cache = new RedisQueryResultCache(store, "app").configure(QUERY, settings());
+        cache.put(key("NL"), "Nederland");
+        var entry = store.values.values().iterator().next();
+
+        for (long length : new long[] {-1L, 1_000_000L}) {
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+            // The version, expiry, load time and type tag precede the length of the string.
+            out.write(entry, 0, 11);
+            CompactValueCodec.writeVarLong(out, length);
+            store.values.replaceAll((storeKey, value) -> bytes.toByteArray());
+
+            assertNull(cache.get(key("NL")));
+        }
+    }
+
+    @Test
+    @DisplayName("Expensive entries are refreshed ahead of their expiry")
+    void earlyRefresh() {
+        var store = new InMemoryRedisCacheStore();
+        var eager = new RedisQueryResultCache(store, "app").configure(QUERY, settings()).earlyRefreshBeta(1e12);
+        var lazy = new RedisQueryResultCache(store, "app").configure(QUERY, settings()).earlyRefreshBeta(0);
+
+        eager.put(key("NL"), "Nederland", Duration.ofMillis(10).toNanos());
+
+        assertNull(eager.get(key("NL")));
+        assertEquals("Nederland", lazy.get(key("NL")).getValue());
+    }
+
+    private static QueryCacheSettings settings() {
+        return QueryCacheSettings.expireAfterWrite(Duration.ofMinutes(5));
+    }
+
+    private static QueryCacheKey key(final String code) {
+        return new QueryCacheKey(QUERY, SHAPE, new String[] {"code"}, new Object[] {code});
+    }
+
+    private static class InMemoryRedisCacheStore implements RedisCacheStore {
+
+        private final Map<ByteBuffer, byte[]> values = new HashMap<>();
+
+        @Override
+        public byte[] get(final byte[] key) {
+            return values.get(ByteBuffer.wrap(key));
+        }
+
+        @Override
+        public void set(final byte[] key, final byte[] value, final long ttlMillis) {
+            values.put(ByteBuffer.wrap(key), value);
+        }
+
+        @Override
+        public void delete(final byte[] key) {
+            values.remove(ByteBuffer.wrap(key));
+        }
+
+        @Override
+        public void deleteByPrefix(final byte[] prefix) {
+            values.keySet().removeIf(key -> key.remaining() >= prefix.length
+                && Arrays.equals(Arrays.copyOf(key.array(), prefix.length), prefix));
+        }
+    }
+}
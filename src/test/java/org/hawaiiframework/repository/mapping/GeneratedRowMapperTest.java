@@ -0,0 +1,108 @@
+package org.hawaiiframework.repository.mapping;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generated row mapper")
+class GeneratedRowMapperTest {
+
+    @Test
+    @DisplayName("Maps columns to properties by name, ignoring case and underscores")
+    void mapsColumns() throws Exception {
+        var resultSet = resultSet(new String[] {"ID", "first_name", "age", "status", "unknown"},
+            new Object[] {42L, "Jane", 37, "ACTIVE", "ignored"});
+
+        var person = GeneratedRowMapper.of(Person.class).mapRow(resultSet, 0);
+
+        assertEquals(Long.valueOf(42L), person.getId());
+        assertEquals("Jane", person.getFirstName());
+        assertEquals(37, person.getAge());
+        assertEquals(Status.ACTIVE, person.getStatus());
+    }
+
+    @Test
+    @DisplayName("Maps SQL NULL to null, and leaves primitives at their default")
+    void mapsNulls() throws Exception {
+        var resultSet = resultSet(new String[] {"id", "first_name", "age", "status"}, new Object[] {null, null, null, null});
+
+        var person = GeneratedRowMapper.of(Person.class).mapRow(resultSet, 0);
+
+        assertNull(person.getId());
+        assertNull(person.getFirstName());
+        assertEquals(-1, person.getAge());
+        assertNull(person.getStatus());
+    }
+
+    private static ResultSet resultSet(final String[] labels, final Object[] values) {
+        var wasNull = new boolean[1];
+        var metaData = (ResultSetMetaData) Proxy.newProxyInstance(getClassLoader(), new Class<?>[] {ResultSetMetaData.class},
+            (proxy, method, args) -> "getColumnCount".equals(method.getName()) ? labels.length : labels[(Integer) args[0] - 1]);
+        return (ResultSet) Proxy.newProxyInstance(getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+            if ("getMetaData".equals(method.getName())) {
+                return metaData;
+            }
+            if ("wasNull".equals(method.getName())) {
+                return wasNull[0];
+            }
+            var value = values[(Integer) args[0] - 1];
+            wasNull[0] = value == null;
+            if (value == null && method.getReturnType().isPrimitive()) {
+                return method.getReturnType() == long.class ? (Object) 0L : (Object) 0;
+            }
+            return value;
+        });
+    }
+
+    private static ClassLoader getClassLoader() {
+        return GeneratedRowMapperTest.class.getClassLoader();
+    }
+
+    public enum Status {
+        ACTIVE, INACTIVE
+    }
+
+    public static class Person {
+        private Long id;
+        private String firstName;
+        private int age = -1;
+        private Status status;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(final Long id) {
+            this.id = id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public void setFirstName(final String firstName) {
+            this.firstName = firstName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(final int age) {
+            this.age = age;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(final Status status) {
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.hawaiiframework.repository.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Latency histogram")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Buckets cover the range of long without gaps")
+    void buckets() {
+        for (long value = 0; value < 100_000; value++) {
+            var index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= LatencyHistogram.indexOf(Math.max(0, value - 1)));
+            assertTrue(Math.abs(LatencyHistogram.valueOf(index) - value) <= Math.max(1, value / 16));
+        }
+        assertTrue(LatencyHistogram.valueOf(LatencyHistogram.indexOf(Long.MAX_VALUE)) > 0);
+    }
+
+    @Test
+    @DisplayName("Percentiles are within the bucket precision")
+    void percentiles() {
+        var histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        var snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000, snapshot.getMax());
+        assertEquals(5_000.5, snapshot.getMean());
+        assertWithin(5_000, snapshot.getValueAtPercentile(50.0));
+        assertWithin(9_900, snapshot.getValueAtPercentile(99.0));
+        assertWithin(9_990, snapshot.getValueAtPercentile(99.9));
+        assertTrue(snapshot.getValueAtPercentile(100.0) <= snapshot.getMax());
+    }
+
+    @Test
+    @DisplayName("An empty histogram reports zeros")
+    void empty() {
+        var snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99.0));
+        assertEquals(0.0, snapshot.getMean());
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected / 16, "expected about " + expected + " but got " + actual);
+    }
+}
@@ -0,0 +1,173 @@
+package org.hawaiiframework.repository.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Slow query listener")
+class SlowQueryListenerTest {
+
+    private static final String SQL = "select name from person where id = ?";
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final Executor executor = tasks::add;
+    private final SlowQuerySettings settings = new SlowQuerySettings().threshold(Duration.ZERO);
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        var resultSet = mock(ResultSet.class);
+        var metaData = mock(ResultSetMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("EXPLAIN " + SQL)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(1)).thenReturn("Index Scan using person_pkey on person");
+    }
+
+    @Test
+    @DisplayName("Explains a slow select on the executor, with its parameters bound")
+    void explainsSlowSelect() throws Exception {
+        var listener = new SlowQueryListener(dataSource, executor, settings);
+
+        execute(listener, select(SQL, 42L));
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+
+        verify(statement).setObject(1, 42L);
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Does not explain updates or batches")
+    void skipsUpdatesAndBatches() {
+        var listener = new SlowQueryListener(dataSource, executor, settings);
+        var batch = new ExecutionInfo();
+        batch.setBatch(true);
+
+        execute(listener, new ExecutionInfo(), new QueryInfo("update person set name = ? where id = ?"));
+        execute(listener, batch, select(SQL, 42L));
+
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Explains a query once within the minimum interval")
+    void rateLimitsPerQuery() {
+        var listener = new SlowQueryListener(dataSource, executor, settings.maximumConcurrentExplains(2));
+
+        execute(listener, select(SQL, 1L));
+        execute(listener, select(SQL, 2L));
+        execute(listener, select("select name from person", null));
+
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    @DisplayName("A query skipped because all explains are in progress is still explained later")
+    void busyExplainsKeepTheInterval() {
+        var listener = new SlowQueryListener(dataSource, executor, settings);
+
+        execute(listener, select(SQL, 1L));
+        execute(listener, select("select name from person", null));
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        execute(listener, select("select name from person", null));
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    @DisplayName("A rejected explain releases its slot")
+    void rejectedExplainReleasesSlot() {
+        var rejecting = new Executor() {
+            private boolean rejected;
+
+            @Override
+            public void execute(final Runnable command) {
+                if (!rejected) {
+                    rejected = true;
+                    throw new RejectedExecutionException("Queue is full.");
+                }
+                tasks.add(command);
+            }
+        };
+        var listener = new SlowQueryListener(dataSource, rejecting, settings);
+
+        execute(listener, select(SQL, 1L));
+        execute(listener, select("select name from person", null));
+
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    @DisplayName("Tracks a bounded number of queries, and makes room once their interval has passed")
+    void boundsTrackedQueries() {
+        var listener = new SlowQueryListener(dataSource, executor, settings.maximumConcurrentExplains(10_000));
+
+        for (int query = 0; query <= 1000; query++) {
+            execute(listener, select("select name from person where id = " + query, null));
+        }
+        assertEquals(1000, tasks.size());
+
+        settings.minimumInterval(Duration.ZERO);
+        execute(listener, select("select name from person where id = 1000", null));
+        assertEquals(1001, tasks.size());
+    }
+
+    private static QueryInfo select(final String sql, final Long id) {
+        var queryInfo = new QueryInfo(sql);
+        var parameters = new ArrayList<ParameterSetOperation>();
+        if (id != null) {
+            parameters.add(new ParameterSetOperation(setObject(), new Object[] {1, id}));
+        }
+        queryInfo.getParametersList().add(parameters);
+        return queryInfo;
+    }
+
+    private static Method setObject() {
+        try {
+            return PreparedStatement.class.getMethod("setObject", int.class, Object.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void execute(final SlowQueryListener listener, final QueryInfo queryInfo) {
+        execute(listener, new ExecutionInfo(), queryInfo);
+    }
+
+    private static void execute(final SlowQueryListener listener, final ExecutionInfo execInfo, final QueryInfo queryInfo) {
+        listener.beforeQuery(execInfo, List.of(queryInfo));
+        listener.afterQuery(execInfo, List.of(queryInfo));
+    }
+}
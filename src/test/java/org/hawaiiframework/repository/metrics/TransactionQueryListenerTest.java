@@ -0,0 +1,112 @@
+package org.hawaiiframework.repository.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.hawaiiframework.repository.QueryContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Transaction query listener")
+class TransactionQueryListenerTest {
+
+    private static final String TX_ID = "f4c5a0e2";
+
+    private static final String QUERY = "order_line/find_by_order";
+
+    private final TransactionQueryThresholds thresholds = spy(new TransactionQueryThresholds().maximumRepeats(2));
+
+    private String currentTxId;
+
+    private final TransactionQueryListener listener = new TransactionQueryListener(thresholds, () -> currentTxId);
+
+    @Test
+    @DisplayName("Counts the statements of the current transaction by query name, and detects repeated queries")
+    void countsStatements() {
+        listener.onStart(TX_ID, "GET /orders");
+        currentTxId = TX_ID;
+
+        execute("order/find_all", "select * from orders");
+        for (int order = 0; order < 3; order++) {
+            execute(QUERY, "select * from order_line where order_id = ?");
+        }
+        var statistics = close();
+
+        assertEquals("GET /orders", statistics.getTransactionType());
+        assertEquals(4, statistics.getStatementCount());
+        assertEquals(QUERY, statistics.getMostRepeatedShape());
+        assertEquals(3, statistics.getMostRepeatedCount());
+        assertTrue(thresholds.isExceeded(statistics));
+    }
+
+    @Test
+    @DisplayName("Uses the SQL as shape of statements outside of a named query")
+    void unnamedStatements() {
+        listener.onStart(TX_ID, "GET /orders");
+        currentTxId = TX_ID;
+
+        execute(null, "select * from orders");
+        var statistics = close();
+
+        assertEquals("select * from orders", statistics.getMostRepeatedShape());
+        assertFalse(thresholds.isExceeded(statistics));
+    }
+
+    @Test
+    @DisplayName("Ignores statements of other transactions and outside of transactions")
+    void otherTransactions() {
+        listener.onStart(TX_ID, "GET /orders");
+
+        execute(QUERY, "select * from order_line where order_id = ?");
+        currentTxId = "0b7d13aa";
+        execute(QUERY, "select * from order_line where order_id = ?");
+        listener.onClose(TX_ID);
+
+        verify(thresholds, never()).isExceeded(any());
+        assertEquals(0, listener.getOpenTransactionCount());
+    }
+
+    @Test
+    @DisplayName("Drops transactions that are never closed once the maximum number is open")
+    void dropsStaleTransactions() {
+        for (int transaction = 0; transaction < TransactionQueryListener.MAXIMUM_TRANSACTIONS; transaction++) {
+            listener.onStart("leaked-" + transaction, "GET /orders");
+        }
+
+        listener.onStart(TX_ID, "GET /orders");
+        assertEquals(TransactionQueryListener.MAXIMUM_TRANSACTIONS, listener.getOpenTransactionCount());
+
+        listener.maximumTransactionAge(Duration.ZERO).onStart(TX_ID, "GET /orders");
+        assertEquals(1, listener.getOpenTransactionCount());
+    }
+
+    @SuppressWarnings("try")
+    private void execute(final String queryName, final String sql) {
+        var queryInfos = List.of(new QueryInfo(sql));
+        if (queryName == null) {
+            listener.beforeQuery(new ExecutionInfo(), queryInfos);
+            listener.afterQuery(new ExecutionInfo(), queryInfos);
+        } else {
+            try (var context = QueryContext.enter(queryName)) {
+                listener.beforeQuery(new ExecutionInfo(), queryInfos);
+                listener.afterQuery(new ExecutionInfo(), queryInfos);
+            }
+        }
+    }
+
+    private TransactionQueryStatistics close() {
+        listener.onClose(TX_ID);
+        var captor = ArgumentCaptor.forClass(TransactionQueryStatistics.class);
+        verify(thresholds).isExceeded(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,60 @@
+package org.hawaiiframework.repository.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction query statistics")
+class TransactionQueryStatisticsTest {
+
+    @Test
+    @DisplayName("Counts the statements and their database time")
+    void countsStatements() {
+        var statistics = new TransactionQueryStatistics("GET /orders");
+
+        statistics.recordStatement("order/find_by_id", 1_000L);
+        statistics.recordStatement("order_line/find_by_order", 2_500L);
+
+        assertEquals("GET /orders", statistics.getTransactionType());
+        assertEquals(2, statistics.getStatementCount());
+        assertEquals(3_500L, statistics.getDatabaseNanos());
+    }
+
+    @Test
+    @DisplayName("Finds the query shape executed most often")
+    void mostRepeatedShape() {
+        var statistics = new TransactionQueryStatistics("GET /orders");
+
+        statistics.recordStatement("order/find_all", 0L);
+        for (int line = 0; line < 3; line++) {
+            statistics.recordStatement("order_line/find_by_order", 0L);
+        }
+
+        assertEquals("order_line/find_by_order", statistics.getMostRepeatedShape());
+        assertEquals(3, statistics.getMostRepeatedCount());
+    }
+
+    @Test
+    @DisplayName("Has no most repeated shape without statements")
+    void noStatements() {
+        var statistics = new TransactionQueryStatistics("GET /orders");
+
+        assertNull(statistics.getMostRepeatedShape());
+        assertEquals(0, statistics.getMostRepeatedCount());
+    }
+
+    @Test
+    @DisplayName("Tracks a bounded number of shapes, but counts all statements")
+    void boundsShapes() {
+        var statistics = new TransactionQueryStatistics("GET /orders");
+
+        for (int shape = 0; shape <= TransactionQueryStatistics.MAXIMUM_SHAPES; shape++) {
+            statistics.recordStatement("select * from orders where id = " + shape, 0L);
+        }
+        statistics.recordStatement("select * from orders where id = " + TransactionQueryStatistics.MAXIMUM_SHAPES, 0L);
+
+        assertEquals(TransactionQueryStatistics.MAXIMUM_SHAPES + 2, statistics.getStatementCount());
+        assertEquals(1, statistics.getMostRepeatedCount());
+    }
+}